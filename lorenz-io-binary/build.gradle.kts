@@ -0,0 +1,15 @@
+plugins {
+    `java-library`
+}
+
+val asmVersion: String by rootProject
+
+dependencies {
+    api(project(":lorenz"))
+
+    testImplementation("org.ow2.asm:asm-commons:$asmVersion")
+}
+
+tasks.jar.configure {
+    manifest.attributes(mapOf("Automatic-Module-Name" to "${project.group}.lorenz.io.binary"))
+}
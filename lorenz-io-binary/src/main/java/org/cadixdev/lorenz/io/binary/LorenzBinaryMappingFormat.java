@@ -0,0 +1,124 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.io.binary;
+
+import org.cadixdev.lorenz.io.MappingFormat;
+import org.cadixdev.lorenz.io.MappingsReader;
+import org.cadixdev.lorenz.io.MappingsWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * The Lorenz binary mapping format.
+ *
+ * <p>Files are laid out so they can be used in place, without being
+ * parsed - all integers are big-endian:</p>
+ * <pre>
+ *   header:  magic, version, string count, class count, position of the
+ *            classes, position of the index (relative to the classes)
+ *   strings: the position of each string, followed by each string as
+ *            its length in bytes and its UTF-8 encoding
+ *   classes: a record for each class mapping, each holding its names,
+ *            sorted tables of its fields and methods, and the
+ *            positions of the records of its inner classes (relative
+ *            to the classes)
+ *   index:   the name and record position of each top-level class
+ *            mapping, sorted by obfuscated name
+ * </pre>
+ * <p>Names are stored once, in the string table, and referenced by
+ * their index within it. Such files can be opened with
+ * {@link #open(Path)}, which memory-maps them as a read-only mapping
+ * set - {@link #read(Path)} copies them into a regular (mutable)
+ * mapping set, as with any other format.</p>
+ *
+ * @since 1.0.0
+ */
+public class LorenzBinaryMappingFormat implements MappingFormat {
+
+    public static final LorenzBinaryMappingFormat INSTANCE = new LorenzBinaryMappingFormat();
+
+    /**
+     * The standard file extension used with the Lorenz binary format.
+     */
+    public static final String STANDARD_EXTENSION = "lbin";
+
+    /**
+     * The magic number beginning every file, {@code LRZB}.
+     */
+    static final int MAGIC = 0x4C525A42;
+
+    /**
+     * The version of the layout, to be incremented on any incompatible
+     * change.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the header, in bytes.
+     */
+    static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    /**
+     * The string index used to signify the absence of a string, such as
+     * a field without a type.
+     */
+    static final int NO_STRING = -1;
+
+    /**
+     * Opens a mappings file, as a read-only mapping set that reads the
+     * file in place.
+     *
+     * @param path The path of the mappings file
+     * @return The mappings
+     * @throws IOException Should an I/O issue occur
+     * @see MappedMappingSet#open(Path)
+     */
+    public MappedMappingSet open(final Path path) throws IOException {
+        return MappedMappingSet.open(path);
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "lorenz-binary";
+    }
+
+    @Override
+    public String getName() {
+        return "Lorenz Binary";
+    }
+
+    @Override
+    public MappingsReader createReader(final InputStream stream) {
+        return new LorenzBinaryReader(stream);
+    }
+
+    @Override
+    public MappingsWriter createWriter(final OutputStream stream) {
+        return new LorenzBinaryWriter(stream);
+    }
+
+    @Override
+    public Optional<String> getStandardFileExtension() {
+        return Optional.of(STANDARD_EXTENSION);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.io.binary;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.BinaryMappingsReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An implementation of {@link BinaryMappingsReader} for the Lorenz
+ * binary format.
+ *
+ * <p>As the format is designed to be read in place, the stream is read
+ * into memory in its entirety, and copied from a
+ * {@link MappedMappingSet}. Where the mappings needn't be modified,
+ * {@link MappedMappingSet#open(java.nio.file.Path)} avoids the copy.</p>
+ *
+ * @since 1.0.0
+ * @see LorenzBinaryMappingFormat
+ */
+public class LorenzBinaryReader extends BinaryMappingsReader {
+
+    /**
+     * Creates a new Lorenz binary mappings reader, for the given
+     * {@link InputStream}.
+     *
+     * @param stream The input stream
+     */
+    public LorenzBinaryReader(final InputStream stream) {
+        super(stream);
+    }
+
+    @Override
+    public MappingSet read(final MappingSet mappings) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+
+        final MappedMappingSet source;
+        try {
+            source = new MappedMappingSet(ByteBuffer.wrap(bytes.toByteArray()));
+        }
+        catch (final IllegalArgumentException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+
+        source.getTopLevelClassMappings().forEach(klass -> klass.copy(mappings));
+        return mappings;
+    }
+
+}
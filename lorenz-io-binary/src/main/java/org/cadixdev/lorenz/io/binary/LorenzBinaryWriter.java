@@ -0,0 +1,193 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.io.binary;
+
+import org.cadixdev.bombe.type.FieldType;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.BinaryMappingsWriter;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.MethodParameterMapping;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An implementation of {@link BinaryMappingsWriter} for the Lorenz
+ * binary format.
+ *
+ * <p>As the index must reference the position of every class, the
+ * classes are laid out in memory before anything is written.</p>
+ *
+ * @since 1.0.0
+ * @see LorenzBinaryMappingFormat
+ */
+public class LorenzBinaryWriter extends BinaryMappingsWriter {
+
+    private static final Comparator<ClassMapping<?, ?>> CLASS_ORDER =
+            Comparator.comparing(ClassMapping::getObfuscatedName);
+    private static final Comparator<FieldMapping> FIELD_ORDER = Comparator
+            .comparing(FieldMapping::getObfuscatedName)
+            .thenComparing(field -> field.getType().map(FieldType::toString).orElse(""));
+    private static final Comparator<MethodMapping> METHOD_ORDER = Comparator
+            .comparing(MethodMapping::getObfuscatedName)
+            .thenComparing(MethodMapping::getObfuscatedDescriptor);
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+    private final DataOutputStream classes = new DataOutputStream(classBytes);
+
+    /**
+     * Creates a new Lorenz binary mappings writer, from the given
+     * {@link OutputStream}.
+     *
+     * @param stream The output stream, to write to
+     */
+    public LorenzBinaryWriter(final OutputStream stream) {
+        super(stream);
+    }
+
+    @Override
+    public void write(final MappingSet mappings) throws IOException {
+        final List<TopLevelClassMapping> topLevelClasses = new ArrayList<>(mappings.getTopLevelClassMappings());
+        topLevelClasses.sort(CLASS_ORDER);
+
+        final int[] records = new int[topLevelClasses.size()];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = writeClass(topLevelClasses.get(i));
+        }
+
+        final int index = classes.size();
+        for (int i = 0; i < records.length; i++) {
+            classes.writeInt(string(topLevelClasses.get(i).getObfuscatedName()));
+            classes.writeInt(records[i]);
+        }
+
+        // Encode the strings up-front, as their positions depend on their lengths
+        final byte[][] encoded = new byte[strings.size()][];
+        int position = LorenzBinaryMappingFormat.HEADER_SIZE + strings.size() * Integer.BYTES;
+        final int[] positions = new int[encoded.length];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            positions[i] = position;
+            position += Integer.BYTES + encoded[i].length;
+        }
+
+        stream.writeInt(LorenzBinaryMappingFormat.MAGIC);
+        stream.writeInt(LorenzBinaryMappingFormat.VERSION);
+        stream.writeInt(strings.size());
+        stream.writeInt(records.length);
+        stream.writeInt(position);
+        stream.writeInt(index);
+        for (final int stringPosition : positions) {
+            stream.writeInt(stringPosition);
+        }
+        for (final byte[] bytes : encoded) {
+            stream.writeInt(bytes.length);
+            stream.write(bytes);
+        }
+        classBytes.writeTo(stream);
+        stream.flush();
+    }
+
+    /**
+     * Writes the record of the given class mapping, after the records of
+     * its inner classes.
+     *
+     * @param klass The class mapping
+     * @return The position of the record, relative to the classes
+     * @throws IOException Should an I/O issue occur
+     */
+    private int writeClass(final ClassMapping<?, ?> klass) throws IOException {
+        final List<InnerClassMapping> innerClasses = new ArrayList<>(klass.getInnerClassMappings());
+        innerClasses.sort(CLASS_ORDER);
+        final int[] innerRecords = new int[innerClasses.size()];
+        for (int i = 0; i < innerRecords.length; i++) {
+            innerRecords[i] = writeClass(innerClasses.get(i));
+        }
+
+        final int record = classes.size();
+        classes.writeInt(string(klass.getObfuscatedName()));
+        classes.writeInt(string(klass.getDeobfuscatedName()));
+        writeJavadoc(klass.getJavadoc());
+
+        final List<FieldMapping> fields = new ArrayList<>(klass.getFieldMappings());
+        fields.sort(FIELD_ORDER);
+        classes.writeInt(fields.size());
+        for (final FieldMapping field : fields) {
+            classes.writeInt(string(field.getObfuscatedName()));
+            classes.writeInt(field.getType()
+                    .map(type -> string(type.toString()))
+                    .orElse(LorenzBinaryMappingFormat.NO_STRING));
+            classes.writeInt(string(field.getDeobfuscatedName()));
+            writeJavadoc(field.getJavadoc());
+        }
+
+        final List<MethodMapping> methods = new ArrayList<>(klass.getMethodMappings());
+        methods.sort(METHOD_ORDER);
+        classes.writeInt(methods.size());
+        for (final MethodMapping method : methods) {
+            classes.writeInt(string(method.getObfuscatedName()));
+            classes.writeInt(string(method.getObfuscatedDescriptor()));
+            classes.writeInt(string(method.getDeobfuscatedName()));
+            writeJavadoc(method.getJavadoc());
+
+            final List<MethodParameterMapping> params = new ArrayList<>(method.getParameterMappings());
+            params.sort(Comparator.comparingInt(MethodParameterMapping::getIndex));
+            classes.writeInt(params.size());
+            for (final MethodParameterMapping param : params) {
+                classes.writeInt(param.getIndex());
+                classes.writeInt(string(param.getDeobfuscatedName()));
+                writeJavadoc(param.getJavadoc());
+            }
+        }
+
+        classes.writeInt(innerRecords.length);
+        for (final int innerRecord : innerRecords) {
+            classes.writeInt(innerRecord);
+        }
+        return record;
+    }
+
+    private void writeJavadoc(final List<String> javadoc) throws IOException {
+        classes.writeInt(javadoc.size());
+        for (final String line : javadoc) {
+            classes.writeInt(string(line));
+        }
+    }
+
+    private int string(final String string) {
+        return stringIds.computeIfAbsent(string, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+}
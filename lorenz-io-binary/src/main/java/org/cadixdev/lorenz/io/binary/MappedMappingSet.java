@@ -0,0 +1,401 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.io.binary;
+
+import org.cadixdev.bombe.type.FieldType;
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.frozen.AbstractFrozenClassMapping;
+import org.cadixdev.lorenz.impl.frozen.FrozenFieldMapping;
+import org.cadixdev.lorenz.impl.frozen.FrozenInnerClassMapping;
+import org.cadixdev.lorenz.impl.frozen.FrozenMethodMapping;
+import org.cadixdev.lorenz.impl.frozen.FrozenMethodParameterMapping;
+import org.cadixdev.lorenz.impl.frozen.FrozenTable;
+import org.cadixdev.lorenz.impl.frozen.FrozenTopLevelClassMapping;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.MethodParameterMapping;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A read-only {@link MappingSet}, backed by mappings in the
+ * {@link LorenzBinaryMappingFormat Lorenz binary format}.
+ *
+ * <p>Nothing is read up-front - top-level class mappings are located
+ * through the index of the file, and are only materialised (along with
+ * their members and inner classes) the first time they are accessed.
+ * The materialised mappings are those of the frozen model, so this set
+ * behaves as a {@link org.cadixdev.lorenz.impl.frozen.FrozenMappingSet}
+ * would: it can be freely shared between threads, and any attempt to
+ * modify the mappings will throw an {@link UnsupportedOperationException}.</p>
+ *
+ * @since 1.0.0
+ */
+public class MappedMappingSet extends MappingSet {
+
+    /**
+     * Memory-maps the given mappings file, as a mapping set.
+     *
+     * <p>The mapping remains valid once the file is closed, so no
+     * resources need to be released - though the file should not be
+     * modified while the mapping set is in use.</p>
+     *
+     * @param path The path of the mappings file
+     * @return The mappings
+     * @throws IOException Should an I/O issue occur, or should the file
+     *                     not be in the Lorenz binary format
+     */
+    public static MappedMappingSet open(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedMappingSet(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        catch (final IllegalArgumentException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    private static UnsupportedOperationException mapped() {
+        return new UnsupportedOperationException("Mapped mappings cannot be modified!");
+    }
+
+    private final ByteBuffer buffer;
+    private final int classes;
+    private final int index;
+    private final String[] strings;
+    private final AtomicReferenceArray<TopLevelClassMapping> topLevelClasses;
+    private volatile Collection<TopLevelClassMapping> allTopLevelClasses;
+
+    /**
+     * Creates a mapping set backed by the given buffer, which must hold
+     * mappings in the Lorenz binary format.
+     *
+     * @param buffer The buffer
+     * @throws IllegalArgumentException Should the buffer not hold mappings
+     *                                  in the Lorenz binary format
+     */
+    public MappedMappingSet(final ByteBuffer buffer) {
+        // Positions are always absolute, so the buffer may be shared by racing threads
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        if (this.buffer.limit() < LorenzBinaryMappingFormat.HEADER_SIZE ||
+                this.buffer.getInt(0) != LorenzBinaryMappingFormat.MAGIC) {
+            throw new IllegalArgumentException("Not in the Lorenz binary format!");
+        }
+        final int version = this.buffer.getInt(4);
+        if (version != LorenzBinaryMappingFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported Lorenz binary format version: " + version);
+        }
+
+        this.strings = new String[this.buffer.getInt(8)];
+        this.topLevelClasses = new AtomicReferenceArray<>(this.buffer.getInt(12));
+        this.classes = this.buffer.getInt(16);
+        this.index = this.classes + this.buffer.getInt(20);
+    }
+
+    private String string(final int id) {
+        if (id == LorenzBinaryMappingFormat.NO_STRING) return null;
+
+        // Racing threads will decode equal strings, so no synchronisation is needed
+        String string = strings[id];
+        if (string == null) {
+            final int position = buffer.getInt(LorenzBinaryMappingFormat.HEADER_SIZE + id * Integer.BYTES);
+            final byte[] bytes = new byte[buffer.getInt(position)];
+            final ByteBuffer view = buffer.duplicate();
+            view.position(position + Integer.BYTES);
+            view.get(bytes);
+            strings[id] = string = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return string;
+    }
+
+    /**
+     * Locates the top-level class mapping of the given name within the
+     * index, by binary search.
+     *
+     * @param obfuscatedName The obfuscated name
+     * @return The position of the mapping within the index, or {@code -1}
+     *         if there is no such mapping
+     */
+    private int find(final String obfuscatedName) {
+        int low = 0;
+        int high = topLevelClasses.length() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = string(buffer.getInt(index + mid * 2 * Integer.BYTES)).compareTo(obfuscatedName);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private TopLevelClassMapping topLevelClass(final int position) {
+        TopLevelClassMapping mapping = topLevelClasses.get(position);
+        if (mapping == null) {
+            final Record record = new Record(buffer.getInt(index + position * 2 * Integer.BYTES + Integer.BYTES));
+            final FrozenTopLevelClassMapping klass = new FrozenTopLevelClassMapping(this,
+                    record.string(), record.string(), record.javadoc());
+            record.populate(klass);
+
+            // Should another thread have beaten us to it, use theirs - so mappings are never duplicated
+            mapping = topLevelClasses.compareAndSet(position, null, klass) ? klass : topLevelClasses.get(position);
+        }
+        return mapping;
+    }
+
+    @Override
+    public Collection<TopLevelClassMapping> getTopLevelClassMappings() {
+        Collection<TopLevelClassMapping> all = allTopLevelClasses;
+        if (all == null) {
+            final TopLevelClassMapping[] mappings = new TopLevelClassMapping[topLevelClasses.length()];
+            for (int i = 0; i < mappings.length; i++) {
+                mappings[i] = topLevelClass(i);
+            }
+            allTopLevelClasses = all = Collections.unmodifiableList(Arrays.asList(mappings));
+        }
+        return all;
+    }
+
+    @Override
+    public TopLevelClassMapping createTopLevelClassMapping(final String obfuscatedName, final String deobfuscatedName) {
+        throw mapped();
+    }
+
+    @Override
+    public Optional<TopLevelClassMapping> getTopLevelClassMapping(final String obfuscatedName) {
+        int position = find(obfuscatedName);
+        if (position == -1 && obfuscatedName.indexOf('.') != -1) {
+            position = find(obfuscatedName.replace('.', '/'));
+        }
+        return position == -1 ? Optional.empty() : Optional.of(topLevelClass(position));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the mappings can't be modified, should the mapping not
+     * already exist a transient identity mapping is returned - which
+     * isn't added to the set.</p>
+     */
+    @Override
+    public TopLevelClassMapping getOrCreateTopLevelClassMapping(final String obfuscatedName) {
+        final TopLevelClassMapping mapping = getTopLevelClassMapping(obfuscatedName).orElse(null);
+        if (mapping != null) return mapping;
+        return new FrozenTopLevelClassMapping(this, obfuscatedName, obfuscatedName, Collections.emptyList());
+    }
+
+    @Override
+    public boolean hasTopLevelClassMapping(final String obfuscatedName) {
+        return find(obfuscatedName) != -1 ||
+                obfuscatedName.indexOf('.') != -1 && find(obfuscatedName.replace('.', '/')) != -1;
+    }
+
+    @Override
+    public Optional<? extends ClassMapping<?, ?>> getClassMapping(final String obfuscatedName) {
+        final int innerIndex = obfuscatedName.indexOf('$');
+        if (innerIndex == -1) return getTopLevelClassMapping(obfuscatedName);
+
+        ClassMapping<?, ?> mapping = getTopLevelClassMapping(obfuscatedName.substring(0, innerIndex)).orElse(null);
+        int start = innerIndex + 1;
+        while (mapping != null && start <= obfuscatedName.length()) {
+            int end = obfuscatedName.indexOf('$', start);
+            if (end == -1) end = obfuscatedName.length();
+            mapping = mapping.getInnerClassMapping(obfuscatedName.substring(start, end)).orElse(null);
+            start = end + 1;
+        }
+        return Optional.ofNullable(mapping);
+    }
+
+    @Override
+    public void removeClassMapping(final String obfuscatedName) {
+        throw mapped();
+    }
+
+    @Override
+    public void removeClassMapping(final ClassMapping<?, ?> mapping) {
+        throw mapped();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the mappings can't be modified, this is equivalent to
+     * {@link #getClassMapping(String)}.</p>
+     */
+    @Override
+    public Optional<? extends ClassMapping<?, ?>> computeClassMapping(final String obfuscatedName) {
+        return getClassMapping(obfuscatedName);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the mappings can't be modified, should the mapping not
+     * already exist a transient identity mapping is returned - which
+     * isn't added to the set. This allows remappers to look up the
+     * members of classes that aren't mapped, such as those of the
+     * JDK.</p>
+     */
+    @Override
+    public ClassMapping<?, ?> getOrCreateClassMapping(final String obfuscatedName) {
+        final ClassMapping<?, ?> mapping = getClassMapping(obfuscatedName).orElse(null);
+        if (mapping != null) return mapping;
+
+        final int lastIndex = obfuscatedName.lastIndexOf('$');
+        if (lastIndex == -1) return getOrCreateTopLevelClassMapping(obfuscatedName);
+
+        // Unmapped inner classes still inherit the de-obfuscated name of their parent
+        final String innerClassName = obfuscatedName.substring(lastIndex + 1);
+        return new FrozenInnerClassMapping(getOrCreateClassMapping(obfuscatedName.substring(0, lastIndex)),
+                innerClassName, innerClassName, Collections.emptyList());
+    }
+
+    /**
+     * Gets the number of top-level class mappings within the set, without
+     * materialising any of them.
+     *
+     * @return The number of top-level class mappings
+     */
+    public int getTopLevelClassMappingCount() {
+        return topLevelClasses.length();
+    }
+
+    @Override
+    public Iterator<TopLevelClassMapping> iterator() {
+        return getTopLevelClassMappings().iterator();
+    }
+
+    /**
+     * A cursor over the record of a class mapping.
+     */
+    private final class Record {
+
+        private int position;
+
+        Record(final int position) {
+            this.position = classes + position;
+        }
+
+        int next() {
+            final int value = buffer.getInt(position);
+            position += Integer.BYTES;
+            return value;
+        }
+
+        String string() {
+            return MappedMappingSet.this.string(next());
+        }
+
+        List<String> javadoc() {
+            final int lines = next();
+            if (lines == 0) return Collections.emptyList();
+
+            final List<String> javadoc = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) {
+                javadoc.add(string());
+            }
+            return javadoc;
+        }
+
+        /**
+         * Reads the members and inner classes of the record, into the
+         * given class mapping.
+         *
+         * @param klass The class mapping
+         */
+        void populate(final AbstractFrozenClassMapping<?, ?> klass) {
+            final int fieldCount = next();
+            final Object[] fieldSignatures = new Object[fieldCount];
+            final Object[] fields = new Object[fieldCount];
+            final Map<String, FieldMapping> fieldsByName = new LinkedHashMap<>();
+            for (int i = 0; i < fieldCount; i++) {
+                final String name = string();
+                final String type = string();
+                final FieldSignature signature = type == null ?
+                        new FieldSignature(name) :
+                        new FieldSignature(name, FieldType.of(type));
+                final FieldMapping field = new FrozenFieldMapping(klass, signature, string(), javadoc());
+                fieldSignatures[i] = signature;
+                fields[i] = field;
+                fieldsByName.putIfAbsent(name, field);
+            }
+
+            final int methodCount = next();
+            final Object[] methodSignatures = new Object[methodCount];
+            final Object[] methods = new Object[methodCount];
+            for (int i = 0; i < methodCount; i++) {
+                final MethodSignature signature = new MethodSignature(string(), MethodDescriptor.of(string()));
+                final FrozenMethodMapping method = new FrozenMethodMapping(klass, signature, string(), javadoc());
+
+                final int paramCount = next();
+                if (paramCount != 0) {
+                    final List<MethodParameterMapping> params = new ArrayList<>(paramCount);
+                    for (int j = 0; j < paramCount; j++) {
+                        params.add(new FrozenMethodParameterMapping(method, next(), string(), javadoc()));
+                    }
+                    method.populate(params);
+                }
+
+                methodSignatures[i] = signature;
+                methods[i] = method;
+            }
+
+            final int innerCount = next();
+            final Object[] innerNames = new Object[innerCount];
+            final Object[] innerClasses = new Object[innerCount];
+            for (int i = 0; i < innerCount; i++) {
+                final Record inner = new Record(next());
+                final FrozenInnerClassMapping innerClass = new FrozenInnerClassMapping(klass,
+                        inner.string(), inner.string(), inner.javadoc());
+                inner.populate(innerClass);
+                innerNames[i] = innerClass.getObfuscatedName();
+                innerClasses[i] = innerClass;
+            }
+
+            klass.populate(
+                    FrozenTable.of(fieldSignatures, fields),
+                    FrozenTable.of(fieldsByName),
+                    FrozenTable.of(methodSignatures, methods),
+                    FrozenTable.of(innerNames, innerClasses)
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.io.binary.test;
+
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.asm.LorenzRemapper;
+import org.cadixdev.lorenz.io.MappingsReader;
+import org.cadixdev.lorenz.io.binary.LorenzBinaryMappingFormat;
+import org.cadixdev.lorenz.io.binary.MappedMappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LorenzBinaryTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void mapped() throws IOException {
+        final Path path = temp.resolve("test.lbin");
+        LorenzBinaryMappingFormat.INSTANCE.write(mappings(), path);
+        final MappedMappingSet mappings = LorenzBinaryMappingFormat.INSTANCE.open(path);
+
+        // 1. Check the top-level classes can be located, without materialising every class
+        assertEquals(3, mappings.getTopLevelClassMappingCount());
+        assertTrue(mappings.hasTopLevelClassMapping("pkg.b"));
+        assertFalse(mappings.hasTopLevelClassMapping("d"));
+        final TopLevelClassMapping klass = mappings.getTopLevelClassMapping("pkg/b").orElse(null);
+        assertEquals("pkg/Demo", klass.getDeobfuscatedName());
+        assertSame(klass, mappings.getTopLevelClassMapping("pkg/b").orElse(null));
+
+        // 2. Check the members of the class
+        assertEquals("name", klass.getFieldMapping(new FieldSignature("c")).get().getDeobfuscatedName());
+        assertEquals("id", klass.getFieldMapping("d").get().getDeobfuscatedName());
+        final MethodMapping method = klass.getMethodMapping(new MethodSignature("e", MethodDescriptor.of("(JI)Lpkg/b;"))).get();
+        assertEquals("copy", method.getDeobfuscatedName());
+        assertEquals("(JI)Lpkg/Demo;", method.getDeobfuscatedDescriptor());
+        assertEquals("count", method.getParameterMapping(2).get().getDeobfuscatedName());
+        assertEquals("Creates a copy.", method.getJavadoc().get(0));
+
+        // 3. Check the inner classes
+        final ClassMapping<?, ?> inner = mappings.getClassMapping("pkg/b$f$g").orElse(null);
+        assertEquals("pkg/Demo$Inner$Nested", inner.getFullDeobfuscatedName());
+        assertFalse(mappings.getClassMapping("pkg/b$g").isPresent());
+
+        // 4. Check the mappings can't be modified, and unmapped classes get identity mappings
+        assertThrows(UnsupportedOperationException.class, () -> klass.setDeobfuscatedName("Other"));
+        assertEquals("d", mappings.getOrCreateTopLevelClassMapping("d").getFullDeobfuscatedName());
+        assertEquals("pkg/Demo$h", mappings.getOrCreateClassMapping("pkg/b$h").getFullDeobfuscatedName());
+        assertFalse(mappings.hasTopLevelClassMapping("d"));
+    }
+
+    @Test
+    public void remapsMapped() throws IOException {
+        final Path path = temp.resolve("test.lbin");
+        LorenzBinaryMappingFormat.INSTANCE.write(mappings(), path);
+        final LorenzRemapper remapper = new LorenzRemapper(LorenzBinaryMappingFormat.INSTANCE.open(path), klass -> Optional.empty());
+
+        assertEquals("pkg/Demo", remapper.map("pkg/b"));
+        assertEquals("pkg/Demo$Inner", remapper.map("pkg/b$f"));
+        assertEquals("copy", remapper.mapMethodName("pkg/b", "e", "(JI)Lpkg/b;"));
+        assertEquals("(JI)Lpkg/Demo;", remapper.mapMethodDesc("(JI)Lpkg/b;"));
+
+        // Classes without mappings are left as they are
+        assertEquals("java/lang/Object", remapper.map("java/lang/Object"));
+        assertEquals("toString", remapper.mapMethodName("java/lang/Object", "toString", "()Ljava/lang/String;"));
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final MappingSet original = mappings();
+        final Path path = temp.resolve("test.lbin");
+        LorenzBinaryMappingFormat.INSTANCE.write(original, path);
+
+        final MappingSet read;
+        try (final MappingsReader reader = LorenzBinaryMappingFormat.INSTANCE.createReader(
+                new ByteArrayInputStream(Files.readAllBytes(path)))) {
+            read = reader.read();
+        }
+        assertEquals(original, read);
+        assertEquals(original, LorenzBinaryMappingFormat.INSTANCE.read(path));
+    }
+
+    @Test
+    public void readsMutableMappings() throws IOException {
+        final Path path = temp.resolve("test.lbin");
+        LorenzBinaryMappingFormat.INSTANCE.write(mappings(), path);
+
+        final MappingSet read = LorenzBinaryMappingFormat.INSTANCE.read(path);
+        assertFalse(read instanceof MappedMappingSet);
+        read.getOrCreateClassMapping("java/lang/Object");
+        assertTrue(read.hasTopLevelClassMapping("java/lang/Object"));
+    }
+
+    @Test
+    public void invalid() throws IOException {
+        final Path path = temp.resolve("test.lbin");
+        Files.write(path, new byte[] { 1, 2, 3 });
+        assertThrows(IOException.class, () -> MappedMappingSet.open(path));
+    }
+
+    private static MappingSet mappings() {
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("a").setDeobfuscatedName("First");
+        mappings.getOrCreateTopLevelClassMapping("c");
+
+        final TopLevelClassMapping klass = mappings.getOrCreateTopLevelClassMapping("pkg/b")
+                .setDeobfuscatedName("pkg/Demo");
+        klass.getOrCreateFieldMapping("c").setDeobfuscatedName("name");
+        klass.getOrCreateFieldMapping("d", "I").setDeobfuscatedName("id");
+        final MethodMapping method = klass.getOrCreateMethodMapping("e", "(JI)Lpkg/b;")
+                .setDeobfuscatedName("copy");
+        method.getJavadoc().add("Creates a copy.");
+        method.getOrCreateParameterMapping(2).setDeobfuscatedName("count");
+        klass.getOrCreateInnerClassMapping("f").setDeobfuscatedName("Inner")
+                .getOrCreateInnerClassMapping("g").setDeobfuscatedName("Nested");
+        return mappings;
+    }
+
+}
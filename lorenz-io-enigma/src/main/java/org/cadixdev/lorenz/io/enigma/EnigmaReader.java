@@ -22,11 +22,13 @@ import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.ObjectType;
 import org.cadixdev.bombe.type.Type;
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
 import org.cadixdev.lorenz.model.ClassMapping;
 import org.cadixdev.lorenz.model.Mapping;
 import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.io.Reader;
 import java.util.ArrayDeque;
@@ -60,18 +62,14 @@ public class EnigmaReader extends TextMappingsReader {
         super(reader);
     }
 
-    private static int getIndentLevel(final String line) {
-        int indentLevel = 0;
-        for (int i = 0; i < line.length(); i++) {
-            if (line.charAt(i) != '\t') break;
-            indentLevel++;
-        }
-        return indentLevel;
+    @Override
+    public void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
     }
 
     @Override
-    public void readLine(final MappingSet mappings, final String rawLine) {
-        final int indentLevel = getIndentLevel(rawLine);
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
+        final int indentLevel = line.skipIndent();
 
         // If there is a change in the indentation level, we will need to pop the stack
         // as needed
@@ -79,47 +77,49 @@ public class EnigmaReader extends TextMappingsReader {
             stack.pop();
         }
 
-        final String line = EnigmaMappingFormat.INSTANCE.removeComments(rawLine).trim();
+        // Comments are read in full, as they may contain the comment character
+        if (line.skip(COMMENT_MAPPING_KEY)) {
+            stack.peek().getJavadoc().add(line.rest());
+            return;
+        }
+
+        line.stripComment('#');
+        line.trim();
         if (line.isEmpty()) return;
 
-        // Split up the line, for further processing
-        final String[] split = SPACE.split(line);
-        final int len = split.length;
+        final SymbolTable symbols = mappings.getSymbolTable();
+        final int len = line.countFields();
 
         // Establish the type of mapping
-        final String key = split[0];
-        if (key.equals(CLASS_MAPPING_KEY) && len == CLASS_MAPPING_ELEMENT_WITHOUT_DEOBF_COUNT) {
-            final String obfName = convertClassName(split[1]);
+        if (len == CLASS_MAPPING_ELEMENT_WITHOUT_DEOBF_COUNT && line.skip(CLASS_MAPPING_KEY)) {
+            final String obfName = convertClassName(line.next(symbols));
             stack.push(readClassMapping(mappings, obfName));
-        } else if (key.equals(CLASS_MAPPING_KEY) && len == CLASS_MAPPING_ELEMENT_WITH_DEOBF_COUNT) {
-            final String obfName = convertClassName(split[1]);
-            final String deobfName = convertClassName(split[2]);
+        } else if (len == CLASS_MAPPING_ELEMENT_WITH_DEOBF_COUNT && line.skip(CLASS_MAPPING_KEY)) {
+            final String obfName = convertClassName(line.next(symbols));
+            final String deobfName = convertClassName(line.next(symbols));
             stack.push(readClassMapping(mappings, obfName)
                     .setDeobfuscatedName(deobfName));
-        } else if (key.equals(FIELD_MAPPING_KEY) && len == FIELD_MAPPING_ELEMENT_COUNT) {
-            final String obfName = split[1];
-            final String deobfName = split[2];
-            final String type = convertFieldType(FieldType.of(split[3])).toString();
+        } else if (len == FIELD_MAPPING_ELEMENT_COUNT && line.skip(FIELD_MAPPING_KEY)) {
+            final String obfName = line.next(symbols);
+            final String deobfName = line.next(symbols);
+            final String type = convertFieldType(FieldType.of(line.next())).toString();
             peekClass().getOrCreateFieldMapping(obfName, type)
                     .setDeobfuscatedName(deobfName);
-        } else if (key.equals(METHOD_MAPPING_KEY) && len == METHOD_MAPPING_ELEMENT_WITHOUT_DEOBF_COUNT) {
-            final String obfName = split[1];
-            final String descriptor = convertDescriptor(MethodDescriptor.of(split[2])).toString();
+        } else if (len == METHOD_MAPPING_ELEMENT_WITHOUT_DEOBF_COUNT && line.skip(METHOD_MAPPING_KEY)) {
+            final String obfName = line.next(symbols);
+            final String descriptor = convertDescriptor(MethodDescriptor.of(line.next())).toString();
             stack.push(peekClass().getOrCreateMethodMapping(obfName, descriptor));
-        } else if (key.equals(METHOD_MAPPING_KEY) && len == METHOD_MAPPING_ELEMENT_WITH_DEOBF_COUNT) {
-            final String obfName = split[1];
-            final String deobfName = split[2];
-            final String descriptor = convertDescriptor(MethodDescriptor.of(split[3])).toString();
+        } else if (len == METHOD_MAPPING_ELEMENT_WITH_DEOBF_COUNT && line.skip(METHOD_MAPPING_KEY)) {
+            final String obfName = line.next(symbols);
+            final String deobfName = line.next(symbols);
+            final String descriptor = convertDescriptor(MethodDescriptor.of(line.next())).toString();
             stack.push(peekClass().getOrCreateMethodMapping(obfName, descriptor)
                     .setDeobfuscatedName(deobfName));
-        } else if (key.equals(PARAM_MAPPING_KEY) && len == PARAM_MAPPING_ELEMENT_COUNT) {
-            final int index = Integer.parseInt(split[1]);
-            final String deobfName = split[2];
+        } else if (len == PARAM_MAPPING_ELEMENT_COUNT && line.skip(PARAM_MAPPING_KEY)) {
+            final int index = Integer.parseInt(line.next());
+            final String deobfName = line.next(symbols);
             peekMethod().getOrCreateParameterMapping(index)
                     .setDeobfuscatedName(deobfName);
-        } else if (key.equals(COMMENT_MAPPING_KEY)) {
-            final String comment = split.length == 1 ? "" : rawLine.substring(split[0].length() + 1);
-            stack.peek().getJavadoc().add(comment);
         }
     }
 
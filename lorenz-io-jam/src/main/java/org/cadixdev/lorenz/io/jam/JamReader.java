@@ -17,8 +17,10 @@
 package org.cadixdev.lorenz.io.jam;
 
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.io.Reader;
 
@@ -45,55 +47,60 @@ public class JamReader extends TextMappingsReader {
     }
 
     @Override
-    public void readLine(final MappingSet mappings, final String rawLine) {
-        final String line = JamMappingFormat.INSTANCE.removeComments(rawLine).trim();
+    public void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
+    }
+
+    @Override
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
+        line.stripComment('#');
+        line.trim();
         if (line.isEmpty()) return;
 
         if (line.length() < 4) {
             throw new IllegalArgumentException("Faulty JAM mapping encountered: `" + line + "`!");
         }
 
-        // Split up the line, for further processing
-        final String[] split = SPACE.split(line);
-        final int len = split.length;
+        final SymbolTable symbols = mappings.getSymbolTable();
+        final int len = line.countFields();
 
         // Establish the type of mapping
-        final String key = split[0];
-        if (key.equals(CLASS_MAPPING_KEY) && len == CLASS_MAPPING_ELEMENT_COUNT) {
-            final String obfName = split[1];
-            final String deobfName = split[2];
+        if (len == CLASS_MAPPING_ELEMENT_COUNT && line.skip(CLASS_MAPPING_KEY)) {
+            final String obfName = line.next(symbols);
+            final String deobfName = line.next(symbols);
 
             mappings.getOrCreateClassMapping(obfName)
                     .setDeobfuscatedName(deobfName);
-        } else if (key.equals(FIELD_MAPPING_KEY) && len == FIELD_MAPPING_ELEMENT_COUNT) {
-            final String owningClass = split[1];
-            final String obfName = split[2];
-            final String obfDescriptor = split[3];
-            final String deobfName = split[4];
+        } else if (len == FIELD_MAPPING_ELEMENT_COUNT && line.skip(FIELD_MAPPING_KEY)) {
+            final String owningClass = line.next(symbols);
+            final String obfName = line.next(symbols);
+            final String obfDescriptor = line.next();
+            final String deobfName = line.next(symbols);
 
             mappings.getOrCreateClassMapping(owningClass)
                     .getOrCreateFieldMapping(obfName, obfDescriptor)
                     .setDeobfuscatedName(deobfName);
-        } else if (key.equals(METHOD_MAPPING_KEY) && len == METHOD_MAPPING_ELEMENT_COUNT) {
-            final String owningClass = split[1];
-            final String obfName = split[2];
-            final String obfDescriptor = split[3];
-            final String deobfName = split[4];
+        } else if (len == METHOD_MAPPING_ELEMENT_COUNT && line.skip(METHOD_MAPPING_KEY)) {
+            final String owningClass = line.next(symbols);
+            final String obfName = line.next(symbols);
+            final String obfDescriptor = line.next();
+            final String deobfName = line.next(symbols);
 
             mappings.getOrCreateClassMapping(owningClass)
                     .getOrCreateMethodMapping(obfName, obfDescriptor)
                     .setDeobfuscatedName(deobfName);
-        } else if (key.equals(PARAM_MAPPING_KEY) && len == PARAM_MAPPING_ELEMENT_COUNT) {
-            final String owningClass = split[1];
-            final String owningMethod = split[2];
-            final String owningMethodDescriptor = split[3];
+        } else if (len == PARAM_MAPPING_ELEMENT_COUNT && line.skip(PARAM_MAPPING_KEY)) {
+            final String owningClass = line.next(symbols);
+            final String owningMethod = line.next(symbols);
+            final String owningMethodDescriptor = line.next();
+            final String rawIndex = line.next();
             final int index;
             try {
-                index = Integer.parseInt(split[4]);
+                index = Integer.parseInt(rawIndex);
             } catch (final Exception ex) {
-                throw new IllegalArgumentException("'" + split[4] + "' is not an integer!");
+                throw new IllegalArgumentException("'" + rawIndex + "' is not an integer!");
             }
-            final String deobfName = split[5];
+            final String deobfName = line.next(symbols);
 
             mappings.getOrCreateClassMapping(owningClass)
                     .getOrCreateMethodMapping(owningMethod, owningMethodDescriptor)
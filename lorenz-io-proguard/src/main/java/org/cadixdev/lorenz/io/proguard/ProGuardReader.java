@@ -21,6 +21,7 @@ import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.Type;
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
 import org.cadixdev.lorenz.model.ClassMapping;
@@ -45,25 +46,34 @@ public class ProGuardReader extends TextMappingsReader {
     }
 
     @Override
-    protected void readLine(final MappingSet mappings, final String rawLine) {
+    protected void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
+    }
+
+    @Override
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
         // Ignore comments
-        if (rawLine.startsWith("#")) return;
+        if (line.startsWith('#')) return;
 
-        final String[] params = rawLine.trim().split(" ");
+        line.trim();
+        final int len = line.countFields();
 
-        if (params.length == 3 && params[1].equals("->")) {
-            final String obf = params[0].replace('.', '/');
+        if (len == 3 && isArrow(line, 1)) {
+            final String obf = line.next().replace('.', '/');
+            line.skip();
             // remove the trailing :
-            final String deobf = params[2].substring(0, params[2].length() - 1).replace('.', '/');
+            final String deobfRaw = line.next();
+            final String deobf = deobfRaw.substring(0, deobfRaw.length() - 1).replace('.', '/');
 
             currentClass = mappings.getOrCreateClassMapping(obf)
                     .setDeobfuscatedName(deobf);
         }
 
-        if (params.length == 4 && params[2].equals("->")) {
-            final String returnTypeRaw = params[0];
-            final String obf = params[1];
-            final String deobf = params[3];
+        if (len == 4 && isArrow(line, 2)) {
+            final String returnTypeRaw = line.next();
+            final String obf = line.next();
+            line.skip();
+            final String deobf = line.next(mappings.getSymbolTable());
 
             // method
             if (obf.contains("(")) {
@@ -77,7 +87,7 @@ public class ProGuardReader extends TextMappingsReader {
                 final String obfName = obf.substring(0, obf.indexOf('('));
                 final String[] obfParams = obf.substring(obf.indexOf('(') + 1, obf.length() - 1).split(",");
                 final List<FieldType> paramTypes = Arrays.stream(obfParams)
-                        .filter(line -> !line.isEmpty())
+                        .filter(param -> !param.isEmpty())
                         .map(PGTypeReader::new)
                         .map(PGTypeReader::readFieldType)
                         .collect(Collectors.toList());
@@ -94,4 +104,11 @@ public class ProGuardReader extends TextMappingsReader {
         }
     }
 
+    private static boolean isArrow(final LineTokenizer line, final int index) {
+        line.seek(index);
+        final boolean arrow = line.skip("->");
+        line.seek(0);
+        return arrow;
+    }
+
 }
@@ -17,8 +17,10 @@
 package org.cadixdev.lorenz.io.searge.csrg;
 
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.io.Reader;
 
@@ -44,22 +46,27 @@ public class CSrgReader extends TextMappingsReader {
     }
 
     @Override
-    protected void readLine(final MappingSet mappings, final String rawLine) {
-        final String line = CSrgMappingFormat.INSTANCE.removeComments(rawLine).trim();
+    protected void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
+    }
+
+    @Override
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
+        line.stripComment('#');
+        line.trim();
         if (line.isEmpty()) return;
 
         if (line.length() < 4) {
             throw new IllegalArgumentException("Faulty CSRG mapping encountered: `" + line + "`!");
         }
 
-        // Split up the line, for further processing
-        final String[] split = SPACE.split(line);
-        final int len = split.length;
+        final SymbolTable symbols = mappings.getSymbolTable();
+        final int len = line.countFields();
 
         // Process class/package mappings
         if (len == CLASS_MAPPING_ELEMENT_COUNT) {
-            final String obfuscatedName = split[0];
-            final String deobfuscatedName = split[1];
+            final String obfuscatedName = line.next(symbols);
+            final String deobfuscatedName = line.next(symbols);
 
             // Package mappings
             if (obfuscatedName.endsWith("/")) {
@@ -75,9 +82,9 @@ public class CSrgReader extends TextMappingsReader {
         }
         // Process field mapping
         else if (len == FIELD_MAPPING_ELEMENT_COUNT) {
-            final String parentClass = split[0];
-            final String obfuscatedName = split[1];
-            final String deobfuscatedName = split[2];
+            final String parentClass = line.next(symbols);
+            final String obfuscatedName = line.next(symbols);
+            final String deobfuscatedName = line.next(symbols);
 
             // Get mapping, and set de-obfuscated name
             mappings.getOrCreateClassMapping(parentClass)
@@ -86,10 +93,10 @@ public class CSrgReader extends TextMappingsReader {
         }
         // Process method mapping
         else if (len == METHOD_MAPPING_ELEMENT_COUNT) {
-            final String parentClass = split[0];
-            final String obfuscatedName = split[1];
-            final String obfuscatedSignature = split[2];
-            final String deobfuscatedName = split[3];
+            final String parentClass = line.next(symbols);
+            final String obfuscatedName = line.next(symbols);
+            final String obfuscatedSignature = line.next();
+            final String deobfuscatedName = line.next(symbols);
 
             // Get mapping, and set de-obfuscated name
             mappings.getOrCreateClassMapping(parentClass)
@@ -17,8 +17,10 @@
 package org.cadixdev.lorenz.io.searge.srg;
 
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.io.Reader;
 
@@ -50,54 +52,53 @@ public class SrgReader extends TextMappingsReader {
     }
 
     @Override
-    protected void readLine(final MappingSet mappings, final String rawLine) {
-        final String line = SrgMappingFormat.INSTANCE.removeComments(rawLine).trim();
+    protected void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
+    }
+
+    @Override
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
+        line.stripComment('#');
+        line.trim();
         if (line.isEmpty()) return;
 
         if (line.length() < 4) {
             throw new IllegalArgumentException("Faulty SRG mapping encountered: `" + line + "`!");
         }
 
-        // Split up the line, for further processing
-        final String[] split = SPACE.split(line);
-        final int len = split.length;
+        final SymbolTable symbols = mappings.getSymbolTable();
+        final int len = line.countFields();
 
         // Establish the type of mapping
-        final String key = split[0];
-        if (key.equals(CLASS_MAPPING_KEY) && len == CLASS_MAPPING_ELEMENT_COUNT) {
-            final String obfuscatedName = split[1];
-            final String deobfuscatedName = split[2];
+        if (len == CLASS_MAPPING_ELEMENT_COUNT && line.skip(CLASS_MAPPING_KEY)) {
+            final String obfuscatedName = line.next(symbols);
+            final String deobfuscatedName = line.next(symbols);
 
             // Get mapping, and set de-obfuscated name
             mappings.getOrCreateClassMapping(obfuscatedName)
                     .setDeobfuscatedName(deobfuscatedName);
-        } else if (key.equals(FIELD_MAPPING_KEY) && len == FIELD_MAPPING_ELEMENT_COUNT) {
-            final String fullObfuscatedName = split[1];
-            final String fullDeobfuscatedName = split[2];
-            final int lastIndex = fullObfuscatedName.lastIndexOf('/');
-            final String owningClass = fullObfuscatedName.substring(0, lastIndex);
-            final String obfuscatedName = fullObfuscatedName.substring(lastIndex + 1);
-            final String deobfuscatedName = fullDeobfuscatedName.substring(fullDeobfuscatedName.lastIndexOf('/') + 1);
+        } else if (len == FIELD_MAPPING_ELEMENT_COUNT && line.skip(FIELD_MAPPING_KEY)) {
+            final String owningClass = line.nextBeforeLast('/', symbols);
+            final String obfuscatedName = line.next(symbols);
+            line.skipBeforeLast('/');
+            final String deobfuscatedName = line.next(symbols);
 
             // Get mapping, and set de-obfuscated name
             mappings.getOrCreateClassMapping(owningClass)
                     .getOrCreateFieldMapping(obfuscatedName)
                     .setDeobfuscatedName(deobfuscatedName);
-        } else if (key.equals(METHOD_MAPPING_KEY) && len == METHOD_MAPPING_ELEMENT_COUNT) {
-            final String fullObfuscatedName = split[1];
-            final String obfuscatedSignature = split[2];
-            final String fullDeobfuscatedName = split[3];
-            final String deobfuscatedSignature = split[4];
-            final int lastIndex = fullObfuscatedName.lastIndexOf('/');
-            final String owningClass = fullObfuscatedName.substring(0, lastIndex);
-            final String obfuscatedName = fullObfuscatedName.substring(lastIndex + 1);
-            final String deobfuscatedName = fullDeobfuscatedName.substring(fullDeobfuscatedName.lastIndexOf('/') + 1);
+        } else if (len == METHOD_MAPPING_ELEMENT_COUNT && line.skip(METHOD_MAPPING_KEY)) {
+            final String owningClass = line.nextBeforeLast('/', symbols);
+            final String obfuscatedName = line.next(symbols);
+            final String obfuscatedSignature = line.next();
+            line.skipBeforeLast('/');
+            final String deobfuscatedName = line.next(symbols);
 
             // Get mapping, and set de-obfuscated name
             mappings.getOrCreateClassMapping(owningClass)
                     .getOrCreateMethodMapping(obfuscatedName, obfuscatedSignature)
                     .setDeobfuscatedName(deobfuscatedName);
-        } else if (key.equals(PACKAGE_MAPPING_KEY) && len == PACKAGE_MAPPING_ELEMENT_COUNT) {
+        } else if (len == PACKAGE_MAPPING_ELEMENT_COUNT && line.skip(PACKAGE_MAPPING_KEY)) {
             // Lorenz doesn't currently support package mappings, though they are an SRG feature.
             // For now, Lorenz will just silently ignore those mappings.
         } else {
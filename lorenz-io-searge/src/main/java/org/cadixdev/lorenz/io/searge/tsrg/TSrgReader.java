@@ -17,9 +17,11 @@
 package org.cadixdev.lorenz.io.searge.tsrg;
 
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
 import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.io.Reader;
 
@@ -47,22 +49,27 @@ public class TSrgReader extends TextMappingsReader {
     }
 
     @Override
-    protected void readLine(final MappingSet mappings, final String rawLine) {
-        final String line = TSrgMappingFormat.INSTANCE.removeComments(rawLine);
+    protected void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
+    }
+
+    @Override
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
+        line.stripComment('#');
         if (line.isEmpty()) return;
 
         if (line.length() < 3) {
             throw new IllegalArgumentException("Faulty TSRG mapping encountered: `" + line + "`!");
         }
 
-        // Split up the line, for further processing
-        final String[] split = SPACE.split(line);
-        final int len = split.length;
+        final SymbolTable symbols = mappings.getSymbolTable();
+        final int len = line.countFields();
+        final boolean member = line.skipIndent() > 0;
 
         // Process class/package mappings
-        if (!split[0].startsWith("\t") && len == CLASS_MAPPING_ELEMENT_COUNT) {
-            final String obfuscatedName = split[0];
-            final String deobfuscatedName = split[1];
+        if (!member && len == CLASS_MAPPING_ELEMENT_COUNT) {
+            final String obfuscatedName = line.next(symbols);
+            final String deobfuscatedName = line.next(symbols);
 
             // Package mappings
             if (obfuscatedName.endsWith("/")) {
@@ -76,12 +83,12 @@ public class TSrgReader extends TextMappingsReader {
                 currentClass.setDeobfuscatedName(deobfuscatedName);
             }
         }
-        else if (split[0].startsWith("\t") && currentClass != null) {
-            final String obfuscatedName = split[0].replace("\t", "");
+        else if (member && currentClass != null) {
+            final String obfuscatedName = line.next(symbols);
 
             // Process field mapping
             if (len == FIELD_MAPPING_ELEMENT_COUNT) {
-                final String deobfuscatedName = split[1];
+                final String deobfuscatedName = line.next(symbols);
 
                 // Get mapping, and set de-obfuscated name
                 currentClass
@@ -90,8 +97,8 @@ public class TSrgReader extends TextMappingsReader {
             }
             // Process method mapping
             else if (len == METHOD_MAPPING_ELEMENT_COUNT) {
-                final String obfuscatedSignature = split[1];
-                final String deobfuscatedName = split[2];
+                final String obfuscatedSignature = line.next();
+                final String deobfuscatedName = line.next(symbols);
 
                 // Get mapping, and set de-obfuscated name
                 currentClass
@@ -20,9 +20,11 @@ import org.cadixdev.bombe.type.FieldType;
 import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
 import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -57,7 +59,7 @@ public class TinyV1Reader extends TextMappingsReader {
     protected int toIndex;
 
     public TinyV1Reader(final Reader reader) {
-        super(reader);
+        super(reader, '\t');
     }
 
     public TinyV1Reader withFormats(String from, String to) {
@@ -85,35 +87,48 @@ public class TinyV1Reader extends TextMappingsReader {
         }
         toIndex = split.indexOf(to) - 1;
 
-        reader.lines().forEach(line -> readLine(mappings, line));
+        readLines(mappings);
         return mappings;
     }
 
     @Override
     public void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
+    }
+
+    @Override
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
         if (line.isEmpty()) return;
 
-        // Split up the line, for further processing
-        final String[] split = TAB.split(line);
+        final SymbolTable symbols = mappings.getSymbolTable();
 
         // Get the class were modifying
-        final ClassMapping<?, ?> cls = mappings.getOrCreateClassMapping(split[1]);
+        line.seek(1);
+        final ClassMapping<?, ?> cls = mappings.getOrCreateClassMapping(line.next(symbols));
 
         // Establish the type of mapping
-        final String key = split[0];
-        if (key.equals(CLASS_MAPPING_KEY)) {
-            final String deobfName = split[1 + toIndex];
+        line.seek(0);
+        if (line.skip(CLASS_MAPPING_KEY)) {
+            line.seek(1 + toIndex);
+            final String deobfName = line.next(symbols);
             cls.setDeobfuscatedName(deobfName);
-        } else if (key.equals(FIELD_MAPPING_KEY)) {
-            final String obfName = split[3 + fromIndex];
-            final String deobfName = split[3 + toIndex];
-            final FieldSignature type = new FieldSignature(obfName, split[2].isEmpty() ? null : FieldType.of(split[2]));
+        } else if (line.skip(FIELD_MAPPING_KEY)) {
+            line.seek(2);
+            final String rawType = line.next();
+            line.seek(3 + fromIndex);
+            final String obfName = line.next(symbols);
+            line.seek(3 + toIndex);
+            final String deobfName = line.next(symbols);
+            final FieldSignature type = new FieldSignature(obfName, rawType.isEmpty() ? null : FieldType.of(rawType));
             cls.getOrCreateFieldMapping(type)
                     .setDeobfuscatedName(deobfName);
-        } else if (key.equals(METHOD_MAPPING_KEY)) {
-            final MethodDescriptor type = MethodDescriptor.of(split[2]);
-            final String obfName = split[3 + fromIndex];
-            final String deobfName = split[3 + toIndex];
+        } else if (line.skip(METHOD_MAPPING_KEY)) {
+            line.seek(2);
+            final MethodDescriptor type = MethodDescriptor.of(line.next());
+            line.seek(3 + fromIndex);
+            final String obfName = line.next(symbols);
+            line.seek(3 + toIndex);
+            final String deobfName = line.next(symbols);
             cls.getOrCreateMethodMapping(obfName, type)
                     .setDeobfuscatedName(deobfName);
         }
@@ -20,11 +20,13 @@ import org.cadixdev.bombe.type.FieldType;
 import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.LineTokenizer;
 import org.cadixdev.lorenz.io.MappingsReader;
 import org.cadixdev.lorenz.io.TextMappingsReader;
 import org.cadixdev.lorenz.model.ClassMapping;
 import org.cadixdev.lorenz.model.Mapping;
 import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -59,7 +61,7 @@ public class TinyV2Reader extends TextMappingsReader {
     protected int toIndex;
 
     public TinyV2Reader(final Reader reader) {
-        super(reader);
+        super(reader, '\t');
     }
 
     public TinyV2Reader withFormats(String from, String to) {
@@ -83,53 +85,65 @@ public class TinyV2Reader extends TextMappingsReader {
         fromIndex = split.indexOf(from) - 3;
         toIndex = split.indexOf(to) - 3;
 
-        reader.lines().forEach(line -> readLine(mappings, line));
+        readLines(mappings);
         return mappings;
     }
 
     @Override
     public void readLine(final MappingSet mappings, final String line) {
+        readLine(mappings, tokenize(line));
+    }
+
+    @Override
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
         if (line.isEmpty()) return;
 
-        final int indentLevel = getIndentLevel(line);
+        final int indentLevel = line.skipIndent();
         while (indentLevel < stack.size()) {
             stack.pop();
         }
 
-        // Split up the line, for further processing
-        final String[] split = TAB.split(line.trim());
+        final SymbolTable symbols = mappings.getSymbolTable();
+        line.trim();
 
         // Establish the type of mapping
-        final String key = split[0];
-        if (key.equals("c") && indentLevel == 0) {
+        if (indentLevel == 0 && line.skip("c")) {
             // Class
-            final String obfName = split[1 + fromIndex];
-            final String deobfName = split[1 + toIndex];
+            line.seek(1 + fromIndex);
+            final String obfName = line.next(symbols);
+            line.seek(1 + toIndex);
+            final String deobfName = line.next(symbols);
             stack.push(mappings.getOrCreateClassMapping(obfName)
                             .setDeobfuscatedName(deobfName));
-        } else if (key.equals("f")) {
+        } else if (line.skip("f")) {
             // Field
-            final String obfName = split[2 + fromIndex];
-            final String deobfName = split[2 + toIndex];
-            final FieldSignature type = new FieldSignature(obfName, split[1].isEmpty() ? null : FieldType.of(split[1]));
+            final String rawType = line.next();
+            line.seek(2 + fromIndex);
+            final String obfName = line.next(symbols);
+            line.seek(2 + toIndex);
+            final String deobfName = line.next(symbols);
+            final FieldSignature type = new FieldSignature(obfName, rawType.isEmpty() ? null : FieldType.of(rawType));
             stack.push(peekClass().getOrCreateFieldMapping(type)
                     .setDeobfuscatedName(deobfName));
-        } else if (key.equals("m")) {
+        } else if (line.skip("m")) {
             // Method
-            final MethodDescriptor type = MethodDescriptor.of(split[1]);
-            final String obfName = split[2 + fromIndex];
-            final String deobfName = split[2 + toIndex];
+            final MethodDescriptor type = MethodDescriptor.of(line.next());
+            line.seek(2 + fromIndex);
+            final String obfName = line.next(symbols);
+            line.seek(2 + toIndex);
+            final String deobfName = line.next(symbols);
             stack.push(peekClass().getOrCreateMethodMapping(obfName, type)
                     .setDeobfuscatedName(deobfName));
-        } else if (key.equals("p")) {
+        } else if (line.skip("p")) {
             // Parameter
-            final int index = Integer.parseInt(split[1]);
-            final String deobfName = split[2 + toIndex];
+            final int index = Integer.parseInt(line.next());
+            line.seek(2 + toIndex);
+            final String deobfName = line.next(symbols);
             stack.push(peekMethod().getOrCreateParameterMapping(index)
                     .setDeobfuscatedName(deobfName));
-        } else if (key.equals("c")) {
+        } else if (line.skip("c")) {
             // Comment
-            stack.peek().getJavadoc().addAll(getComment(split));
+            stack.peek().getJavadoc().addAll(Arrays.asList(line.rest().split("\n")));
         }
     }
 
@@ -142,21 +156,4 @@ public class TinyV2Reader extends TextMappingsReader {
         if (!(stack.peek() instanceof MethodMapping)) throw new UnsupportedOperationException("Not a method on the stack!");
         return (MethodMapping) stack.peek();
     }
-
-    private static int getIndentLevel(final String line) {
-        int indentLevel = 0;
-        for (int i = 0; i < line.length(); i++) {
-            if (line.charAt(i) != '\t') break;
-            indentLevel++;
-        }
-        return indentLevel;
-    }
-
-    private static List<String> getComment(String[] split) {
-        String[] commentSplit = new String[split.length - 1];
-        System.arraycopy(split, 1, commentSplit, 0, commentSplit.length);
-
-        String comment = String.join("\t", commentSplit);
-        return Arrays.asList(comment.split("\n"));
-    }
 }
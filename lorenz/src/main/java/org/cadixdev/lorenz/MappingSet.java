@@ -16,17 +16,25 @@
 
 package org.cadixdev.lorenz;
 
+import org.cadixdev.bombe.analysis.InheritanceProvider;
 import org.cadixdev.bombe.type.ArrayType;
 import org.cadixdev.bombe.type.FieldType;
 import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.ObjectType;
 import org.cadixdev.bombe.type.Type;
+import org.cadixdev.lorenz.impl.InternalAccess;
+import org.cadixdev.lorenz.impl.MappingSetCompleter;
 import org.cadixdev.lorenz.impl.MappingSetModelFactoryImpl;
+import org.cadixdev.lorenz.impl.frozen.FrozenMappingSet;
+import org.cadixdev.lorenz.impl.model.AbstractClassMappingImpl;
 import org.cadixdev.lorenz.merge.MappingSetMerger;
 import org.cadixdev.lorenz.model.ClassMapping;
 import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.Mapping;
 import org.cadixdev.lorenz.model.TopLevelClassMapping;
+import org.cadixdev.lorenz.util.MappingChangedListener;
 import org.cadixdev.lorenz.util.Reversible;
+import org.cadixdev.lorenz.util.SymbolTable;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -34,6 +42,9 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -45,8 +56,35 @@ import java.util.stream.Collectors;
  */
 public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<TopLevelClassMapping> {
 
+    static {
+        InternalAccess.setMappingSetAccess(new InternalAccess.MappingSetAccess() {
+            @Override
+            public void registerClassMapping(final MappingSet mappings, final ClassMapping<?, ?> mapping) {
+                mappings.registerClassMapping(mapping);
+            }
+
+            @Override
+            public void unregisterClassMapping(final MappingSet mappings, final ClassMapping<?, ?> mapping) {
+                mappings.unregisterClassMapping(mapping);
+            }
+
+            @Override
+            public void markModified(final MappingSet mappings) {
+                mappings.markModified();
+            }
+        });
+    }
+
     private final MappingSetModelFactory modelFactory;
+    private final SymbolTable symbolTable;
     private final Map<String, TopLevelClassMapping> topLevelClasses = new ConcurrentHashMap<>();
+    private final Map<String, ClassMapping<?, ?>> classes = new ConcurrentHashMap<>();
+    private final AtomicLong modificationEpoch = new AtomicLong();
+    private volatile DeobfuscationCache deobfuscationCache;
+    private volatile boolean ingesting;
+    private volatile boolean linkedCompletion;
+    private int ingestions;
+    private volatile DeobfuscatedClassIndex deobfuscatedClasses;
 
     /**
      * Creates a mapping set using the default {@link MappingSetModelFactory}.
@@ -61,7 +99,23 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @param modelFactory The model factory to use
      */
     public MappingSet(final MappingSetModelFactory modelFactory) {
+        this(modelFactory, new SymbolTable());
+    }
+
+    /**
+     * Creates a mapping set using the provided {@link MappingSetModelFactory},
+     * and {@link SymbolTable}.
+     *
+     * <p>The symbol table may be shared between mapping sets, so that names
+     * common to the sets share a single instance.</p>
+     *
+     * @param modelFactory The model factory to use
+     * @param symbolTable The symbol table to use
+     * @since 1.0.0
+     */
+    public MappingSet(final MappingSetModelFactory modelFactory, final SymbolTable symbolTable) {
         this.modelFactory = modelFactory;
+        this.symbolTable = symbolTable;
     }
 
     /**
@@ -74,6 +128,17 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
         return modelFactory;
     }
 
+    /**
+     * Gets the symbol table, that names within the mapping set are
+     * routed through.
+     *
+     * @return The symbol table
+     * @since 1.0.0
+     */
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
     /**
      * Gets an immutable collection of all of the top-level class
      * mappings of the mapping set.
@@ -93,9 +158,11 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @return The top-level class mapping, to allow for chaining
      */
     public TopLevelClassMapping createTopLevelClassMapping(final String obfuscatedName, final String deobfuscatedName) {
-        return topLevelClasses.compute(obfuscatedName.replace('.', '/'), (name, existingMapping) -> {
+        return topLevelClasses.compute(symbolTable.intern(obfuscatedName.replace('.', '/')), (name, existingMapping) -> {
             if (existingMapping != null) return existingMapping.setDeobfuscatedName(deobfuscatedName);
-            return getModelFactory().createTopLevelClassMapping(this, name, deobfuscatedName);
+            final TopLevelClassMapping mapping = getModelFactory().createTopLevelClassMapping(this, name, deobfuscatedName);
+            registerClassMapping(mapping);
+            return mapping;
         });
     }
 
@@ -107,6 +174,8 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @return The top-level class mapping, wrapped in an {@link Optional}
      */
     public Optional<TopLevelClassMapping> getTopLevelClassMapping(final String obfuscatedName) {
+        final TopLevelClassMapping mapping = topLevelClasses.get(obfuscatedName);
+        if (mapping != null || obfuscatedName.indexOf('.') == -1) return Optional.ofNullable(mapping);
         return Optional.ofNullable(topLevelClasses.get(obfuscatedName.replace('.', '/')));
     }
 
@@ -118,8 +187,11 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @return The top-level class mapping
      */
     public TopLevelClassMapping getOrCreateTopLevelClassMapping(final String obfuscatedName) {
-        return getTopLevelClassMapping(obfuscatedName)
-                .orElseGet(() -> createTopLevelClassMapping(obfuscatedName, obfuscatedName));
+        TopLevelClassMapping mapping = topLevelClasses.get(obfuscatedName);
+        if (mapping == null && obfuscatedName.indexOf('.') != -1) {
+            mapping = topLevelClasses.get(obfuscatedName.replace('.', '/'));
+        }
+        return mapping != null ? mapping : createTopLevelClassMapping(obfuscatedName, obfuscatedName);
     }
 
     /**
@@ -133,7 +205,8 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      *         {@code false} otherwise
      */
     public boolean hasTopLevelClassMapping(final String obfuscatedName) {
-        return topLevelClasses.containsKey(obfuscatedName.replace('.', '/'));
+        if (topLevelClasses.containsKey(obfuscatedName)) return true;
+        return obfuscatedName.indexOf('.') != -1 && topLevelClasses.containsKey(obfuscatedName.replace('.', '/'));
     }
 
     /**
@@ -143,9 +216,16 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @return The class mapping, wrapped in an {@link Optional}
      */
     public Optional<? extends ClassMapping<?, ?>> getClassMapping(final String obfuscatedName) {
+        final ClassMapping<?, ?> mapping = classes.get(obfuscatedName);
+        if (mapping != null) return Optional.of(mapping);
+
         final int lastIndex = obfuscatedName.lastIndexOf('$');
         if (lastIndex == -1) return getTopLevelClassMapping(obfuscatedName);
 
+        // Inner class mappings created by implementations that don't register with the
+        // index, and names using '.' as a package separator, are found by walking the
+        // outer classes
+
         // Split the obfuscated name, to fetch the parent class name, and inner class name
         final String parentClassName = obfuscatedName.substring(0, lastIndex);
         final String innerClassName = obfuscatedName.substring(lastIndex + 1);
@@ -156,6 +236,40 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
                 .flatMap(parentClassMapping -> parentClassMapping.getInnerClassMapping(innerClassName));
     }
 
+    /**
+     * Gets the class mapping of the given fully-qualified de-obfuscated
+     * name, should it exist.
+     *
+     * <p>The first call builds an index of all the class mappings by
+     * their de-obfuscated name, which is then kept up to date as class
+     * mappings are created, removed, and renamed - so lookups don't
+     * require the mapping set to be {@link #reverse() reversed}. Should
+     * several classes share a de-obfuscated name, only one of them will
+     * be found.</p>
+     *
+     * @param deobfuscatedName The de-obfuscated name
+     * @return The class mapping, wrapped in an {@link Optional}
+     * @since 1.0.0
+     */
+    public Optional<? extends ClassMapping<?, ?>> getClassMappingByDeobfuscatedName(final String deobfuscatedName) {
+        DeobfuscatedClassIndex index = deobfuscatedClasses;
+        if (index == null) {
+            synchronized (this) {
+                if ((index = deobfuscatedClasses) == null) {
+                    index = new DeobfuscatedClassIndex();
+                    for (final TopLevelClassMapping klass : getTopLevelClassMappings()) {
+                        index.addAll(klass);
+                    }
+                    deobfuscatedClasses = index;
+                }
+            }
+        }
+
+        final ClassMapping<?, ?> mapping = index.classes.get(deobfuscatedName);
+        if (mapping != null || deobfuscatedName.indexOf('.') == -1) return Optional.ofNullable(mapping);
+        return Optional.ofNullable(index.classes.get(deobfuscatedName.replace('.', '/')));
+    }
+
     /**
      * Remove the class mapping for the given obfuscated name.
      *
@@ -173,9 +287,181 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
     public void removeClassMapping(final ClassMapping<?, ?> mapping) {
         if (mapping instanceof InnerClassMapping) {
             ((InnerClassMapping) mapping).getParent().removeInnerClassMapping(mapping);
-        } else {
-            topLevelClasses.values().remove(mapping);
+        } else if (topLevelClasses.values().remove(mapping)) {
+            unregisterClassMapping(mapping);
+        }
+    }
+
+    /**
+     * Registers the given class mapping with the index of class mappings
+     * by their full obfuscated name, allowing {@link #getClassMapping(String)}
+     * to locate it without walking its outer classes.
+     *
+     * <p>This is called by the class mapping implementations of Lorenz,
+     * through {@link InternalAccess}, when they create an inner class
+     * mapping.</p>
+     *
+     * @param mapping The class mapping
+     */
+    private void registerClassMapping(final ClassMapping<?, ?> mapping) {
+        classes.put(mapping.getFullObfuscatedName(), mapping);
+
+        final DeobfuscatedClassIndex deobfuscatedClasses = this.deobfuscatedClasses;
+        if (deobfuscatedClasses != null) {
+            deobfuscatedClasses.add(mapping);
+        }
+
+        // Identity mappings, as created for unmapped owners while remapping, don't change any de-obfuscated type
+        if (!mapping.getObfuscatedName().equals(mapping.getDeobfuscatedName())) {
+            markModified();
+        }
+    }
+
+    /**
+     * Removes the given class mapping, and all of its inner class mappings,
+     * from the index of class mappings by their full obfuscated name.
+     *
+     * @param mapping The class mapping
+     */
+    private void unregisterClassMapping(final ClassMapping<?, ?> mapping) {
+        classes.remove(mapping.getFullObfuscatedName(), mapping);
+
+        final DeobfuscatedClassIndex deobfuscatedClasses = this.deobfuscatedClasses;
+        if (deobfuscatedClasses != null) {
+            deobfuscatedClasses.remove(mapping);
+        }
+        for (final InnerClassMapping klass : mapping.getInnerClassMappings()) {
+            unregisterClassMapping(klass);
+        }
+        markModified();
+    }
+
+    /**
+     * Gets the modification epoch of the mapping set, which is advanced
+     * whenever a change is made that could alter the de-obfuscated view
+     * of a type - that is whenever a class mapping is removed, renamed,
+     * or created with a de-obfuscated name.
+     *
+     * <p>Values computed from the class mappings of the set, such as
+     * de-obfuscated signatures, can be cached for as long as the epoch
+     * doesn't change.</p>
+     *
+     * @return The modification epoch
+     * @since 1.0.0
+     */
+    public long getModificationEpoch() {
+        return modificationEpoch.get();
+    }
+
+    /**
+     * Advances the modification epoch of the mapping set, discarding any
+     * values cached from the class mappings of the set.
+     *
+     * @see #getModificationEpoch()
+     */
+    private void markModified() {
+        modificationEpoch.incrementAndGet();
+    }
+
+    /**
+     * Begins the bulk ingestion of mappings, such as by a
+     * {@link org.cadixdev.lorenz.io.MappingsReader}.
+     *
+     * <p>Until the matching call to {@link #endIngestion()}, class
+     * mappings will store their members in plain, non-concurrent
+     * containers - which are much cheaper to populate. As such, the
+     * mapping set must only be used by the ingesting thread until the
+     * ingestion has ended. Ingestions may be nested, in which case the
+     * outer-most ingestion will publish the mappings.</p>
+     *
+     * @see #endIngestion()
+     * @since 1.0.0
+     */
+    public synchronized void beginIngestion() {
+        ingestions++;
+        ingesting = true;
+    }
+
+    /**
+     * Ends the bulk ingestion of mappings, replacing the non-concurrent
+     * containers used during the ingestion with concurrent ones - after
+     * which the mapping set can be safely shared between threads.
+     *
+     * @throws IllegalStateException If no ingestion is in progress
+     * @see #beginIngestion()
+     * @since 1.0.0
+     */
+    public synchronized void endIngestion() {
+        if (ingestions == 0) {
+            throw new IllegalStateException("No ingestion is in progress!");
+        }
+        if (--ingestions != 0) return;
+
+        ingesting = false;
+        for (final ClassMapping<?, ?> klass : classes.values()) {
+            if (klass instanceof AbstractClassMappingImpl) {
+                InternalAccess.classMappings().publish((AbstractClassMappingImpl<?, ?>) klass);
+            }
+        }
+    }
+
+    /**
+     * Establishes whether mappings are being ingested in bulk.
+     *
+     * @return {@code true} if an ingestion is in progress;
+     *         {@code false} otherwise
+     * @see #beginIngestion()
+     * @since 1.0.0
+     */
+    public boolean isIngesting() {
+        return ingesting;
+    }
+
+    /**
+     * Sets whether class mappings should be completed by linking them to
+     * their parents, rather than by copying the inherited mappings into
+     * them.
+     *
+     * <p>Linked class mappings only record their parents, and resolve
+     * inherited members through them as they are looked up - so completion
+     * doesn't grow the class mappings, and their members remain only those
+     * that were declared (and so can be written back as-is). Inherited
+     * members are only visible through the lookup methods, such as
+     * {@link ClassMapping#getMethodMapping(org.cadixdev.bombe.type.signature.MethodSignature)},
+     * and not through {@link ClassMapping#getMethodMappings()}.</p>
+     *
+     * <p>The mode should be set before any class mapping is completed, as
+     * it applies to class mappings as they are completed.</p>
+     *
+     * @param linkedCompletion {@code true} to link class mappings to their
+     *                         parents; {@code false} to copy the inherited
+     *                         mappings
+     * @since 1.0.0
+     */
+    public void setLinkedCompletion(final boolean linkedCompletion) {
+        this.linkedCompletion = linkedCompletion;
+    }
+
+    /**
+     * Establishes whether class mappings are completed by linking them to
+     * their parents.
+     *
+     * @return {@code true} if class mappings are linked to their parents;
+     *         {@code false} if the inherited mappings are copied
+     * @see #setLinkedCompletion(boolean)
+     * @since 1.0.0
+     */
+    public boolean isLinkedCompletion() {
+        return linkedCompletion;
+    }
+
+    private DeobfuscationCache getDeobfuscationCache() {
+        final long epoch = modificationEpoch.get();
+        DeobfuscationCache cache = deobfuscationCache;
+        if (cache == null || cache.epoch != epoch) {
+            deobfuscationCache = cache = new DeobfuscationCache(epoch);
         }
+        return cache;
     }
 
     /**
@@ -192,6 +478,9 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @return The class mapping, wrapped in an {@link Optional}
      */
     public Optional<? extends ClassMapping<?, ?>> computeClassMapping(final String obfuscatedName) {
+        final ClassMapping<?, ?> mapping = classes.get(obfuscatedName);
+        if (mapping != null) return Optional.of(mapping);
+
         final int lastIndex = obfuscatedName.lastIndexOf('$');
         if (lastIndex == -1) return getTopLevelClassMapping(obfuscatedName);
 
@@ -213,6 +502,9 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @return The class mapping
      */
     public ClassMapping<?, ?> getOrCreateClassMapping(final String obfuscatedName) {
+        final ClassMapping<?, ?> mapping = classes.get(obfuscatedName);
+        if (mapping != null) return mapping;
+
         final int lastIndex = obfuscatedName.lastIndexOf('$');
         if (lastIndex == -1) return getOrCreateTopLevelClassMapping(obfuscatedName);
 
@@ -227,6 +519,36 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
         return parentClass.getOrCreateInnerClassMapping(innerClassName);
     }
 
+    /**
+     * Completes every class mapping of the set, using the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param provider The inheritance provider
+     * @see #completeAll(InheritanceProvider, Executor)
+     * @since 1.0.0
+     */
+    public void completeAll(final InheritanceProvider provider) {
+        completeAll(provider, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Completes every class mapping of the set, in parallel, using the
+     * given executor - waiting for the completion to finish.
+     *
+     * <p>The class hierarchy is built once, and each class mapping is
+     * completed exactly once, after all of its parents. The provider
+     * needn't be thread-safe, as it is only used by one thread at a
+     * time.</p>
+     *
+     * @param provider The inheritance provider
+     * @param executor The executor to complete the class mappings with
+     * @throws RuntimeException Should completing any class mapping fail
+     * @since 1.0.0
+     */
+    public void completeAll(final InheritanceProvider provider, final Executor executor) {
+        new MappingSetCompleter(this, provider).complete(executor);
+    }
+
     /**
      * Gets the de-obfuscated view of the given type.
      *
@@ -249,6 +571,20 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @since 0.5.0
      */
     public FieldType deobfuscate(final FieldType type) {
+        if (!(type instanceof ArrayType) && !(type instanceof ObjectType)) return type;
+
+        // The cache is obtained before computing, so should the mappings change
+        // concurrently the result will be stored against the previous epoch
+        final DeobfuscationCache cache = getDeobfuscationCache();
+        final FieldType cached = cache.types.get(type);
+        if (cached != null) return cached;
+
+        final FieldType deobfuscated = computeDeobfuscatedType(type);
+        final FieldType raced = cache.types.putIfAbsent(type, deobfuscated);
+        return raced != null ? raced : deobfuscated;
+    }
+
+    private FieldType computeDeobfuscatedType(final FieldType type) {
         if (type instanceof ArrayType) {
             final ArrayType arr = (ArrayType) type;
             final FieldType component = deobfuscate(arr.getComponent());
@@ -256,29 +592,20 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
                     arr :
                     new ArrayType(arr.getDimCount(), component);
         }
-        else if (type instanceof ObjectType) {
-            final ObjectType obj = (ObjectType) type;
-
-            final String[] name = obj.getClassName().split("\\$");
 
-            ClassMapping<?, ?> currentClass = getClassMapping(name[0]).orElse(null);
-            if (currentClass == null) {
-                return type;
-            }
-
-            for (int i = 1; i < name.length; i++) {
-                final ClassMapping<?, ?> thisClass = currentClass.getInnerClassMapping(name[i]).orElse(null);
-                if (thisClass == null) {
-                    final String[] result = new String[name.length - i + 1];
-                    result[0] = currentClass.getFullDeobfuscatedName();
-                    System.arraycopy(name, i, result, 1, name.length - i);
+        final String name = ((ObjectType) type).getClassName();
+        final ClassMapping<?, ?> mapping = getClassMapping(name).orElse(null);
+        if (mapping != null) {
+            return new ObjectType(mapping.getFullDeobfuscatedName());
+        }
 
-                    return new ObjectType(String.join("$", result));
-                }
-                currentClass = thisClass;
+        // Find the inner-most outer class that has a mapping, retaining the
+        // names of any unmapped inner classes
+        for (int index = name.lastIndexOf('$'); index > 0; index = name.lastIndexOf('$', index - 1)) {
+            final ClassMapping<?, ?> outer = getClassMapping(name.substring(0, index)).orElse(null);
+            if (outer != null) {
+                return new ObjectType(outer.getFullDeobfuscatedName() + name.substring(index));
             }
-
-            return new ObjectType(currentClass.getFullDeobfuscatedName());
         }
         return type;
     }
@@ -291,12 +618,18 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
      * @since 0.5.0
      */
     public MethodDescriptor deobfuscate(final MethodDescriptor descriptor) {
-        return new MethodDescriptor(
+        final DeobfuscationCache cache = getDeobfuscationCache();
+        final MethodDescriptor cached = cache.descriptors.get(descriptor);
+        if (cached != null) return cached;
+
+        final MethodDescriptor deobfuscated = new MethodDescriptor(
                 descriptor.getParamTypes().stream()
                         .map(this::deobfuscate)
                         .collect(Collectors.toList()),
                 deobfuscate(descriptor.getReturnType())
         );
+        final MethodDescriptor raced = cache.descriptors.putIfAbsent(descriptor, deobfuscated);
+        return raced != null ? raced : deobfuscated;
     }
 
     /**
@@ -352,13 +685,29 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
         return mappings;
     }
 
+    /**
+     * Produces a read-only snapshot of the mapping set, backed by compact
+     * array-based tables.
+     *
+     * <p>The snapshot reflects the mappings at the time of freezing, and
+     * will not observe any later changes to this set. As completion
+     * requires modifying the mappings, it should be performed before
+     * freezing.</p>
+     *
+     * @return The frozen snapshot
+     * @since 1.0.0
+     */
+    public MappingSet freeze() {
+        return new FrozenMappingSet(this);
+    }
+
     @Override
     public Iterator<TopLevelClassMapping> iterator() {
         return topLevelClasses.values().iterator();
     }
 
     protected MappingSet createMappingSet() {
-        return new MappingSet(modelFactory);
+        return new MappingSet(modelFactory, symbolTable);
     }
 
     @Override
@@ -367,6 +716,86 @@ public class MappingSet implements Reversible<MappingSet, MappingSet>, Iterable<
         if (!(other instanceof MappingSet)) return false;
 
         final MappingSet that = (MappingSet) other;
-        return topLevelClasses.equals(that.topLevelClasses);
+        final Collection<TopLevelClassMapping> topLevel = getTopLevelClassMappings();
+        if (topLevel.size() != that.getTopLevelClassMappings().size()) return false;
+
+        // Compare through the public API, as other implementations may not use the underlying map
+        for (final TopLevelClassMapping klass : topLevel) {
+            final TopLevelClassMapping thatClass = that.getTopLevelClassMapping(klass.getObfuscatedName()).orElse(null);
+            if (!klass.equals(thatClass)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The de-obfuscated types, and descriptors, computed during a
+     * modification epoch.
+     */
+    private static final class DeobfuscationCache {
+
+        private final long epoch;
+        private final Map<FieldType, FieldType> types = new ConcurrentHashMap<>();
+        private final Map<MethodDescriptor, MethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+        private DeobfuscationCache(final long epoch) {
+            this.epoch = epoch;
+        }
+
+    }
+
+
+    /**
+     * An index of class mappings by their fully-qualified de-obfuscated
+     * name, which listens to the class mappings to remain up to date as
+     * they are renamed.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private final class DeobfuscatedClassIndex implements MappingChangedListener {
+
+        private final Map<String, ClassMapping<?, ?>> classes = new ConcurrentHashMap<>();
+
+        void add(final ClassMapping<?, ?> mapping) {
+            classes.put(mapping.getFullDeobfuscatedName(), mapping);
+            ((ClassMapping) mapping).addListener(this);
+        }
+
+        void addAll(final ClassMapping<?, ?> mapping) {
+            add(mapping);
+            for (final InnerClassMapping klass : mapping.getInnerClassMappings()) {
+                addAll(klass);
+            }
+        }
+
+        void remove(final ClassMapping<?, ?> mapping) {
+            classes.remove(mapping.getFullDeobfuscatedName(), mapping);
+            ((ClassMapping) mapping).removeListener(this);
+        }
+
+        @Override
+        public void handle(final Mapping mapping, final String newName) {
+            final ClassMapping<?, ?> klass = (ClassMapping<?, ?>) mapping;
+
+            // Ignore mappings that have since been removed from the set
+            if (MappingSet.this.classes.get(klass.getFullObfuscatedName()) != klass) return;
+
+            // The listener is called before the rename, so the mapping has its previous name
+            final String oldName = klass.getFullDeobfuscatedName();
+            final String newFullName = klass instanceof InnerClassMapping ?
+                    ((InnerClassMapping) klass).getParent().getFullDeobfuscatedName() + '$' + newName :
+                    newName;
+            rename(klass, oldName.length(), newFullName);
+        }
+
+        private void rename(final ClassMapping<?, ?> klass, final int oldPrefixLength, final String newPrefix) {
+            final String oldName = klass.getFullDeobfuscatedName();
+            classes.remove(oldName, klass);
+            classes.put(newPrefix + oldName.substring(oldPrefixLength), klass);
+
+            for (final InnerClassMapping inner : klass.getInnerClassMappings()) {
+                rename(inner, oldPrefixLength, newPrefix);
+            }
+        }
+
     }
+
 }
@@ -0,0 +1,218 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.Remapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * Remaps classes through an on-disk cache of remapped classes, keyed by
+ * the hash of the class, and the
+ * {@link RemapTable#fingerprint(ClassReferences) fingerprint} of the
+ * mappings it refers to.
+ *
+ * @since 1.0.0
+ */
+final class ClassCache {
+
+    private static final String EXTENSION = ".bin";
+
+    /**
+     * Remaps the given class, without a cache.
+     *
+     * @param remapper The remapper
+     * @param reader The class to remap
+     * @return The remapped class
+     */
+    static Entry remap(final Remapper remapper, final ClassReader reader) {
+        final ClassWriter writer = new ClassWriter(0);
+        reader.accept(new ClassRemapper(writer, remapper), 0);
+        return new Entry(reader.getClassName(), remapper.map(reader.getClassName()), writer.toByteArray());
+    }
+
+    /**
+     * Remaps the given class, without a cache - copying the class as-is,
+     * should the table not remap any of its references, or rewriting its
+     * constant pool, should it only need classes to be renamed.
+     *
+     * @param table The remap table
+     * @param remapper The remapper, backed by the table
+     * @param contents The class to remap
+     * @return The remapped class
+     */
+    static Entry remap(final RemapTable table, final Remapper remapper, final byte[] contents) {
+        final ClassReader reader = new ClassReader(contents);
+        final ClassReferences references = ClassReferences.scan(reader);
+        if (!table.remaps(references)) return new Entry(reader.getClassName(), reader.getClassName(), contents);
+
+        final Entry renamed = rename(table, remapper, contents, reader, references);
+        return renamed != null ? renamed : remap(remapper, reader);
+    }
+
+    /**
+     * Remaps the given class by rewriting its constant pool, should it only
+     * need classes to be renamed.
+     *
+     * @return The remapped class, or {@code null} should the class need to
+     *         be remapped with ASM
+     */
+    private static Entry rename(final RemapTable table, final Remapper remapper, final byte[] contents,
+            final ClassReader reader, final ClassReferences references) {
+        if (table.remapsMembers(references)) return null;
+
+        final byte[] renamed = ConstantPoolRemapper.remap(table, remapper, contents, reader);
+        return renamed != null ? new Entry(reader.getClassName(), remapper.map(reader.getClassName()), renamed) : null;
+    }
+
+    static byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 32));
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private final Path directory;
+    private final RemapTable table;
+    private final Remapper remapper;
+
+    ClassCache(final Path directory, final RemapTable table, final Remapper remapper) {
+        this.directory = directory;
+        this.table = table;
+        this.remapper = remapper;
+    }
+
+    /**
+     * Remaps the given class, reusing the cached class should the class
+     * and its mappings be unchanged - or copying the class as-is, should
+     * the table not remap any of its references.
+     *
+     * @param contents The class to remap
+     * @param used The keys of the entries used, to be added to
+     * @return The remapped class
+     * @throws IOException Should the cache fail to be written
+     */
+    Entry remap(final byte[] contents, final Set<String> used) throws IOException {
+        final ClassReader reader = new ClassReader(contents);
+        final ClassReferences references = ClassReferences.scan(reader);
+        // Classes that aren't remapped are copied, and those that are only renamed are rewritten - both of
+        // which are cheaper than reading them from the cache
+        if (!table.remaps(references)) return new Entry(reader.getClassName(), reader.getClassName(), contents);
+        final Entry renamed = rename(table, remapper, contents, reader, references);
+        if (renamed != null) return renamed;
+
+        final String key = key(contents, table.fingerprint(references));
+        if (used != null) used.add(key);
+
+        final Path file = directory.resolve(key + EXTENSION);
+        if (Files.exists(file)) {
+            try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                final String name = in.readUTF();
+                final byte[] remapped = new byte[in.readInt()];
+                in.readFully(remapped);
+                return new Entry(reader.getClassName(), name, remapped);
+            } catch (final IOException ignored) {
+                // A damaged entry is replaced
+            }
+        }
+
+        final Entry remapped = remap(remapper, reader);
+        Files.createDirectories(directory);
+        final Path temp = Files.createTempFile(directory, key, ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeUTF(remapped.name);
+            out.writeInt(remapped.contents.length);
+            out.write(remapped.contents);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return remapped;
+    }
+
+    /**
+     * Removes the entries of the cache that weren't used.
+     *
+     * @param used The keys of the entries that were used
+     * @throws IOException Should the cache fail to be read
+     */
+    void prune(final Set<String> used) throws IOException {
+        if (!Files.isDirectory(directory)) return;
+
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                if (!used.contains(name.substring(0, name.length() - EXTENSION.length()))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static String key(final byte[] contents, final byte[] fingerprint) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available!", ex);
+        }
+        digest.update(contents);
+        digest.update(fingerprint);
+
+        final StringBuilder key = new StringBuilder(64);
+        for (final byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * A remapped class.
+     */
+    static final class Entry {
+
+        final String originalName;
+        final String name;
+        final byte[] contents;
+
+        Entry(final String originalName, final String name, final byte[] contents) {
+            this.originalName = originalName;
+            this.name = name;
+            this.contents = contents;
+        }
+
+    }
+
+}
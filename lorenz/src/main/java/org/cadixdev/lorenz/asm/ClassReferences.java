@@ -0,0 +1,263 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import org.objectweb.asm.ClassReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The names a class refers to, as found by scanning its constant pool
+ * and its declared members - without parsing the rest of the class.
+ *
+ * <p>The classes a class refers to include every class named within a
+ * descriptor, or signature, anywhere in the constant pool - as such,
+ * they may include some names that aren't used as classes, but never
+ * omit a class that is.</p>
+ *
+ * @since 1.0.0
+ */
+public final class ClassReferences {
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+    /**
+     * Scans the given class file.
+     *
+     * @param klass The class file
+     * @return The references of the class
+     */
+    public static ClassReferences scan(final byte[] klass) {
+        return scan(new ClassReader(klass));
+    }
+
+    /**
+     * Scans the class file of the given class reader.
+     *
+     * @param reader The class reader
+     * @return The references of the class
+     */
+    public static ClassReferences scan(final ClassReader reader) {
+        final char[] buffer = new char[reader.getMaxStringLength()];
+        final Set<String> classes = new LinkedHashSet<>();
+        final List<Member> fields = new ArrayList<>();
+        final List<Member> methods = new ArrayList<>();
+
+        // Index 0 is unused, and the second index of longs and doubles has no offset
+        for (int i = 1; i < reader.getItemCount(); i++) {
+            final int offset = reader.getItem(i);
+            if (offset == 0) continue;
+
+            switch (reader.readByte(offset - 1)) {
+                case CONSTANT_UTF8:
+                    addDescriptorClasses(readUtf8(reader, offset, buffer), classes);
+                    break;
+                case CONSTANT_CLASS:
+                    addClass(reader.readUTF8(offset, buffer), classes);
+                    break;
+                case CONSTANT_FIELDREF:
+                    fields.add(readMember(reader, offset, buffer));
+                    break;
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                    methods.add(readMember(reader, offset, buffer));
+                    break;
+            }
+        }
+
+        // The members the class declares are remapped as members of the class itself
+        final String className = reader.getClassName();
+        int offset = reader.header + 6;
+        offset += 2 + reader.readUnsignedShort(offset) * 2;
+        offset = readDeclaredMembers(reader, offset, className, fields, buffer);
+        readDeclaredMembers(reader, offset, className, methods, buffer);
+
+        return new ClassReferences(className, classes, fields, methods);
+    }
+
+    private static String readUtf8(final ClassReader reader, final int offset, final char[] buffer) {
+        // Decodes the modified UTF-8 of the constant, as ClassReader only reads constants by index
+        final int end = offset + 2 + reader.readUnsignedShort(offset);
+        int length = 0;
+        int i = offset + 2;
+        while (i < end) {
+            final int c = reader.readByte(i++);
+            if ((c & 0x80) == 0) {
+                buffer[length++] = (char) (c & 0x7F);
+            } else if ((c & 0xE0) == 0xC0) {
+                buffer[length++] = (char) (((c & 0x1F) << 6) + (reader.readByte(i++) & 0x3F));
+            } else {
+                buffer[length++] = (char) (((c & 0xF) << 12) + ((reader.readByte(i++) & 0x3F) << 6) + (reader.readByte(i++) & 0x3F));
+            }
+        }
+        return new String(buffer, 0, length);
+    }
+
+    private static int readDeclaredMembers(final ClassReader reader, int offset, final String owner, final List<Member> members,
+            final char[] buffer) {
+        final int count = reader.readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < count; i++) {
+            members.add(new Member(owner, reader.readUTF8(offset + 2, buffer), reader.readUTF8(offset + 4, buffer)));
+
+            // Skip the attributes of the member
+            int attributes = reader.readUnsignedShort(offset + 6);
+            offset += 8;
+            while (attributes-- > 0) {
+                offset += 6 + reader.readInt(offset + 2);
+            }
+        }
+        return offset;
+    }
+
+    private static Member readMember(final ClassReader reader, final int offset, final char[] buffer) {
+        final int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+        return new Member(
+                reader.readClass(offset, buffer),
+                reader.readUTF8(nameAndType, buffer),
+                reader.readUTF8(nameAndType + 2, buffer)
+        );
+    }
+
+    private static void addClass(final String name, final Set<String> classes) {
+        // Array classes are named by their descriptor
+        if (name.startsWith("[")) {
+            addDescriptorClasses(name, classes);
+        } else {
+            classes.add(name);
+        }
+    }
+
+    private static void addDescriptorClasses(final String value, final Set<String> classes) {
+        int start = value.indexOf('L');
+        while (start != -1) {
+            int end = start + 1;
+            while (end < value.length()) {
+                final char c = value.charAt(end);
+                if (c == ';' || c == '<') break;
+                end++;
+            }
+            if (end == value.length()) return;
+
+            if (end > start + 1) classes.add(value.substring(start + 1, end));
+            start = value.indexOf('L', end);
+        }
+    }
+
+    private final String className;
+    private final Set<String> classes;
+    private final List<Member> fields;
+    private final List<Member> methods;
+
+    private ClassReferences(final String className, final Set<String> classes, final List<Member> fields,
+            final List<Member> methods) {
+        this.className = className;
+        this.classes = Collections.unmodifiableSet(classes);
+        this.fields = Collections.unmodifiableList(fields);
+        this.methods = Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * Gets the name of the scanned class.
+     *
+     * @return The class name
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Gets the names of the classes the class refers to.
+     *
+     * @return The class names
+     */
+    public Set<String> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Gets the fields the class refers to, and declares.
+     *
+     * @return The fields
+     */
+    public List<Member> getFields() {
+        return fields;
+    }
+
+    /**
+     * Gets the methods the class refers to, and declares.
+     *
+     * @return The methods
+     */
+    public List<Member> getMethods() {
+        return methods;
+    }
+
+    /**
+     * A reference to a member, through an owner.
+     */
+    public static final class Member {
+
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+
+        Member(final String owner, final String name, final String descriptor) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        /**
+         * Gets the name of the class the member is referenced through.
+         *
+         * @return The owner
+         */
+        public String getOwner() {
+            return owner;
+        }
+
+        /**
+         * Gets the name of the member.
+         *
+         * @return The name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the descriptor of the member.
+         *
+         * @return The descriptor
+         */
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+    }
+
+}
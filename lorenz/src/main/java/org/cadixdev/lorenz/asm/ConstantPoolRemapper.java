@@ -0,0 +1,303 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.commons.Remapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Remaps classes that only need classes to be renamed, by rewriting the
+ * UTF-8 entries of their constant pool in place - leaving the rest of
+ * the class file, which refers to the constant pool by index, as-is.
+ *
+ * <p>Every use of a UTF-8 entry is classified - as a class name, a
+ * descriptor, a signature, or a name that is left unchanged - and is
+ * remapped the way {@link org.objectweb.asm.commons.ClassRemapper} would.
+ * Should an entry have uses that would be remapped differently, or
+ * should the class contain an attribute whose uses aren't known, the
+ * class can't be remapped this way.</p>
+ *
+ * @since 1.0.0
+ */
+final class ConstantPoolRemapper {
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    /**
+     * Remaps the given class, should it only need classes to be renamed.
+     *
+     * <p>The table must not remap any of the members the class refers to,
+     * or declares.</p>
+     *
+     * @param table The remap table
+     * @param remapper The remapper, backed by the table
+     * @param contents The class to remap
+     * @param reader The class reader, of the class
+     * @return The remapped class, or {@code null} should the class need to
+     *         be remapped with ASM
+     * @see RemapTable#remapsMembers(ClassReferences)
+     */
+    static byte[] remap(final RemapTable table, final Remapper remapper, final byte[] contents, final ClassReader reader) {
+        final ConstantPoolRemapper constantPool = new ConstantPoolRemapper(table, remapper, reader);
+        if (!constantPool.classify()) return null;
+        return constantPool.write(contents);
+    }
+
+    private final RemapTable table;
+    private final Remapper remapper;
+    private final ClassReader reader;
+    private final char[] buffer;
+
+    /**
+     * The remapped values of the UTF-8 entries, by index - or {@code null}
+     * for those that aren't used.
+     */
+    private final String[] values;
+    private final boolean[] changed;
+
+    private ConstantPoolRemapper(final RemapTable table, final Remapper remapper, final ClassReader reader) {
+        this.table = table;
+        this.remapper = remapper;
+        this.reader = reader;
+        this.buffer = new char[reader.getMaxStringLength()];
+        this.values = new String[reader.getItemCount()];
+        this.changed = new boolean[reader.getItemCount()];
+    }
+
+    private boolean classify() {
+        for (int i = 1; i < reader.getItemCount(); i++) {
+            final int offset = reader.getItem(i);
+            if (offset == 0) continue;
+
+            switch (reader.readByte(offset - 1)) {
+                case CONSTANT_CLASS:
+                    if (!use(offset, Use.CLASS)) return false;
+                    break;
+                case CONSTANT_STRING:
+                    if (!use(offset, Use.NAME)) return false;
+                    break;
+                case CONSTANT_NAME_AND_TYPE:
+                    // Members aren't renamed, nor are the names of dynamic call sites
+                    if (!use(offset, Use.NAME) || !use(offset + 2, Use.DESCRIPTOR)) return false;
+                    break;
+                case CONSTANT_METHOD_TYPE:
+                    if (!use(offset, Use.DESCRIPTOR)) return false;
+                    break;
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    return false;
+            }
+        }
+
+        int offset = reader.header + 6;
+        offset += 2 + reader.readUnsignedShort(offset) * 2;
+        for (int member = 0; member < 2; member++) {
+            // Fields, and then methods
+            int count = reader.readUnsignedShort(offset);
+            offset += 2;
+            while (count-- > 0) {
+                if (!use(offset + 2, Use.NAME) || !use(offset + 4, Use.DESCRIPTOR)) return false;
+                offset = attributes(offset + 6, member == 0 ? Use.TYPE_SIGNATURE : Use.SIGNATURE);
+                if (offset == -1) return false;
+            }
+        }
+        return attributes(offset, Use.SIGNATURE) != -1;
+    }
+
+    /**
+     * Classifies the uses of the given attributes.
+     *
+     * @param offset The offset of the attributes count
+     * @param signature The use of signatures, in the attributes
+     * @return The offset after the attributes, or {@code -1} should the
+     *         attributes not be known
+     */
+    private int attributes(int offset, final Use signature) {
+        int count = reader.readUnsignedShort(offset);
+        offset += 2;
+        while (count-- > 0) {
+            if (!use(offset, Use.NAME)) return -1;
+            final String name = reader.readUTF8(offset, buffer);
+            final int start = offset + 6;
+            final int end = start + reader.readInt(offset + 2);
+            if (!attribute(name, start, signature)) return -1;
+            offset = end;
+        }
+        return offset;
+    }
+
+    private boolean attribute(final String name, final int offset, final Use signature) {
+        switch (name) {
+            case "Signature":
+                return use(offset, signature);
+            case "SourceFile":
+                return use(offset, Use.NAME);
+            case "Code": {
+                int attributes = offset + 8 + reader.readInt(offset + 4);
+                attributes += 2 + reader.readUnsignedShort(attributes) * 8;
+                return attributes(attributes, signature) != -1;
+            }
+            case "LocalVariableTable":
+                return localVariables(offset, Use.DESCRIPTOR);
+            case "LocalVariableTypeTable":
+                return localVariables(offset, Use.TYPE_SIGNATURE);
+            case "MethodParameters": {
+                final int count = reader.readByte(offset);
+                for (int i = 0; i < count; i++) {
+                    if (!use(offset + 1 + i * 4, Use.NAME)) return false;
+                }
+                return true;
+            }
+            case "InnerClasses": {
+                final int count = reader.readUnsignedShort(offset);
+                for (int i = 0; i < count; i++) {
+                    final int entry = offset + 2 + i * 8;
+                    if (reader.readUnsignedShort(entry + 4) == 0) continue;
+
+                    final String innerName = reader.readUTF8(entry + 4, buffer);
+                    final String innerClass = reader.readClass(entry, buffer);
+                    if (!table.mapInnerClassName(innerClass, innerName).equals(innerName)) return false;
+                    if (!use(entry + 4, Use.NAME)) return false;
+                }
+                return true;
+            }
+            case "EnclosingMethod": {
+                if (reader.readUnsignedShort(offset + 2) == 0) return true;
+
+                // The enclosing method isn't a member reference, so is checked here
+                final String owner = reader.readClass(offset, buffer);
+                final int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+                final String methodName = reader.readUTF8(nameAndType, buffer);
+                return table.mapMethod(owner, methodName, reader.readUTF8(nameAndType + 2, buffer)).equals(methodName);
+            }
+            case "ConstantValue":
+            case "Exceptions":
+            case "LineNumberTable":
+            case "StackMapTable":
+            case "BootstrapMethods":
+            case "NestHost":
+            case "NestMembers":
+            case "Synthetic":
+            case "Deprecated":
+            case "SourceDebugExtension":
+                // Only refer to other constants, or to none at all
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean localVariables(final int offset, final Use type) {
+        final int count = reader.readUnsignedShort(offset);
+        for (int i = 0; i < count; i++) {
+            final int entry = offset + 2 + i * 10;
+            if (!use(entry + 4, Use.NAME) || !use(entry + 6, type)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records a use of the UTF-8 entry, whose index is at the given offset.
+     *
+     * @param offset The offset of the index
+     * @param use The use of the entry
+     * @return {@code true} should the use agree with the other uses of the
+     *         entry
+     */
+    private boolean use(final int offset, final Use use) {
+        final int index = reader.readUnsignedShort(offset);
+        if (index == 0) return true;
+
+        final String value = reader.readUTF8(offset, buffer);
+        final String mapped;
+        switch (use) {
+            case CLASS:
+                mapped = remapper.mapType(value);
+                break;
+            case DESCRIPTOR:
+                mapped = value.startsWith("(") ? remapper.mapMethodDesc(value) : remapper.mapDesc(value);
+                break;
+            case TYPE_SIGNATURE:
+                mapped = remapper.mapSignature(value, true);
+                break;
+            case SIGNATURE:
+                mapped = remapper.mapSignature(value, false);
+                break;
+            default:
+                mapped = value;
+                break;
+        }
+
+        final String existing = values[index];
+        if (existing == null) {
+            values[index] = mapped;
+            changed[index] = !mapped.equals(value);
+            return true;
+        }
+        return existing.equals(mapped);
+    }
+
+    private byte[] write(final byte[] contents) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(contents.length + 256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            // The magic, version and constant pool count
+            out.write(contents, 0, 10);
+
+            int start = 10;
+            for (int i = 1; i < reader.getItemCount(); i++) {
+                if (changed[i]) {
+                    final int offset = reader.getItem(i);
+                    out.write(contents, start, offset - 1 - start);
+                    out.writeByte(CONSTANT_UTF8);
+                    out.writeUTF(values[i]);
+                    start = offset + 2 + reader.readUnsignedShort(offset);
+                }
+            }
+            out.write(contents, start, contents.length - start);
+        } catch (final IOException ex) {
+            // Values too long to be encoded are remapped with ASM
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The ways a UTF-8 entry is used.
+     */
+    private enum Use {
+
+        NAME,
+        CLASS,
+        DESCRIPTOR,
+        TYPE_SIGNATURE,
+        SIGNATURE
+
+    }
+
+}
@@ -0,0 +1,536 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.InheritanceType;
+import org.cadixdev.bombe.type.FieldType;
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An {@link InheritanceProvider} backed by an index of the classes
+ * within a set of jars - recording the parents, fields, methods, and
+ * access flags of each class.
+ *
+ * <p>The jars are scanned once, in parallel, after which the index can
+ * be written to disk. The index records the content hash of each jar it
+ * was built from, so {@link #open(List, Path)} can reuse it for as long
+ * as the jars are unchanged - skipping all bytecode parsing.</p>
+ *
+ * <p>Should several jars contain the same class, the class from the
+ * earliest jar is used - as it would be on a class path. The index is
+ * immutable, and may be freely shared between threads - the
+ * {@link ClassInfo class information} it provides has its parents
+ * provided before it is shared, as they are otherwise cached without
+ * synchronisation.</p>
+ *
+ * @since 1.0.0
+ */
+public final class InheritanceIndex implements InheritanceProvider {
+
+    private static final int MAGIC = 0x4C5A4949;
+    private static final int VERSION = 1;
+    private static final int NO_STRING = -1;
+    private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    /**
+     * Builds an index of the classes within the given jars.
+     *
+     * @param jars The jars, in class path order
+     * @return The index
+     * @throws IOException Should an I/O issue occur
+     */
+    public static InheritanceIndex build(final List<Path> jars) throws IOException {
+        final List<ScannedJar> scanned;
+        try {
+            scanned = jars.parallelStream()
+                    .map(InheritanceIndex::scan)
+                    .collect(Collectors.toList());
+        } catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        final List<String> hashes = new ArrayList<>(scanned.size());
+        final Map<String, ClassEntry> classes = new LinkedHashMap<>();
+        for (final ScannedJar jar : scanned) {
+            hashes.add(jar.hash);
+            for (final ClassEntry klass : jar.classes) {
+                classes.putIfAbsent(klass.name, klass);
+            }
+        }
+        return new InheritanceIndex(hashes, classes);
+    }
+
+    /**
+     * Opens the index of the given jars, reading it from the given file
+     * should it have been built from the same jars - and otherwise
+     * building it, and writing it to the file.
+     *
+     * @param jars The jars, in class path order
+     * @param file The index file
+     * @return The index
+     * @throws IOException Should an I/O issue occur
+     */
+    public static InheritanceIndex open(final List<Path> jars, final Path file) throws IOException {
+        if (Files.exists(file)) {
+            final List<String> hashes;
+            try {
+                hashes = jars.parallelStream()
+                        .map(InheritanceIndex::hash)
+                        .collect(Collectors.toList());
+            } catch (final UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            try {
+                final InheritanceIndex index = read(file);
+                if (index.hashes.equals(hashes)) return index;
+            } catch (final IOException ignored) {
+                // An unreadable index is simply rebuilt
+            }
+        }
+
+        final InheritanceIndex index = build(jars);
+        index.write(file);
+        return index;
+    }
+
+    /**
+     * Reads an index, previously written with {@link #write(Path)}.
+     *
+     * @param file The index file
+     * @return The index
+     * @throws IOException Should an I/O issue occur, or should the file
+     *                     not be an index
+     */
+    public static InheritanceIndex read(final Path file) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a supported inheritance index: " + file);
+            }
+
+            final List<String> hashes = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                hashes.add(in.readUTF());
+            }
+
+            final String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+
+            final int count = in.readInt();
+            final Map<String, ClassEntry> classes = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                final ClassEntry klass = ClassEntry.read(in, strings);
+                classes.put(klass.name, klass);
+            }
+            return new InheritanceIndex(hashes, classes);
+        }
+    }
+
+    private static ScannedJar scan(final Path jar) {
+        try (final ZipFile zip = new ZipFile(jar.toFile())) {
+            final List<? extends ZipEntry> entries = zip.stream()
+                    .filter(entry -> entry.getName().endsWith(".class"))
+                    // Versioned entries, and module descriptors, aren't classes on the class path
+                    .filter(entry -> !entry.getName().startsWith("META-INF/") && !entry.getName().endsWith("module-info.class"))
+                    .collect(Collectors.toList());
+
+            final List<ClassEntry> classes = entries.parallelStream()
+                    .map(entry -> {
+                        try (final InputStream in = zip.getInputStream(entry)) {
+                            final ClassEntry.Visitor visitor = new ClassEntry.Visitor();
+                            new ClassReader(in).accept(visitor, PARSING_OPTIONS);
+                            return visitor.create();
+                        } catch (final IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    })
+                    .collect(Collectors.toList());
+
+            return new ScannedJar(hash(jar), classes);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String hash(final Path jar) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is unavailable", ex);
+        }
+
+        try (final InputStream in = Files.newInputStream(jar)) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        final StringBuilder hash = new StringBuilder(64);
+        for (final byte b : digest.digest()) {
+            hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hash.toString();
+    }
+
+    private final List<String> hashes;
+    private final Map<String, ClassEntry> classes;
+    private final Map<String, Optional<ClassInfo>> infos = new ConcurrentHashMap<>();
+    private final ThreadLocal<Set<String>> providing = ThreadLocal.withInitial(HashSet::new);
+
+    private InheritanceIndex(final List<String> hashes, final Map<String, ClassEntry> classes) {
+        this.hashes = Collections.unmodifiableList(hashes);
+        this.classes = classes;
+    }
+
+    /**
+     * Gets the content hashes of the jars the index was built from, in
+     * class path order.
+     *
+     * @return The hashes
+     */
+    public List<String> getJarHashes() {
+        return hashes;
+    }
+
+    /**
+     * Gets the number of classes within the index.
+     *
+     * @return The number of classes
+     */
+    public int size() {
+        return classes.size();
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass) {
+        final Optional<ClassInfo> info = infos.get(klass);
+        if (info != null) return info;
+
+        final ClassEntry entry = classes.get(klass);
+        if (entry == null) return Optional.empty();
+
+        // A class already being provided by this thread has a cyclic hierarchy, which the JVM would reject
+        final Set<String> inProgress = providing.get();
+        if (!inProgress.add(klass)) return Optional.empty();
+
+        final Optional<ClassInfo> created;
+        try {
+            created = Optional.of(entry.toClassInfo());
+            created.get().provideParents(this);
+        } finally {
+            inProgress.remove(klass);
+        }
+        final Optional<ClassInfo> existing = infos.putIfAbsent(klass, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Writes the index to the given file.
+     *
+     * <p>The index is written to a temporary file, which then replaces
+     * the file - so a partially written index is never read.</p>
+     *
+     * @param file The index file
+     * @throws IOException Should an I/O issue occur
+     */
+    public void write(final Path file) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            writeTo(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+    }
+
+    private void writeTo(final Path file) throws IOException {
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        for (final ClassEntry klass : classes.values()) {
+            klass.collectStrings(ids, strings);
+        }
+
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(hashes.size());
+            for (final String hash : hashes) {
+                out.writeUTF(hash);
+            }
+
+            out.writeInt(strings.size());
+            for (final String string : strings) {
+                out.writeUTF(string);
+            }
+
+            out.writeInt(classes.size());
+            for (final ClassEntry klass : classes.values()) {
+                klass.write(out, ids);
+            }
+        }
+    }
+
+    /**
+     * The classes scanned from a single jar.
+     */
+    private static final class ScannedJar {
+
+        final String hash;
+        final List<ClassEntry> classes;
+
+        ScannedJar(final String hash, final List<ClassEntry> classes) {
+            this.hash = hash;
+            this.classes = classes;
+        }
+
+    }
+
+    /**
+     * The compact record of a class within the index, holding its
+     * members in parallel arrays.
+     */
+    private static final class ClassEntry {
+
+        final String name;
+        final int access;
+        final String superName;
+        final String[] interfaces;
+        final String[] fieldNames;
+        final String[] fieldDescriptors;
+        final int[] fieldAccess;
+        final String[] methodNames;
+        final String[] methodDescriptors;
+        final int[] methodAccess;
+
+        ClassEntry(final String name, final int access, final String superName, final String[] interfaces,
+                final String[] fieldNames, final String[] fieldDescriptors, final int[] fieldAccess,
+                final String[] methodNames, final String[] methodDescriptors, final int[] methodAccess) {
+            this.name = name;
+            this.access = access;
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.fieldNames = fieldNames;
+            this.fieldDescriptors = fieldDescriptors;
+            this.fieldAccess = fieldAccess;
+            this.methodNames = methodNames;
+            this.methodDescriptors = methodDescriptors;
+            this.methodAccess = methodAccess;
+        }
+
+        ClassInfo toClassInfo() {
+            final Map<FieldSignature, InheritanceType> fields = new HashMap<>(fieldNames.length * 2);
+            final Map<String, InheritanceType> fieldsByName = new HashMap<>(fieldNames.length * 2);
+            for (int i = 0; i < fieldNames.length; i++) {
+                final InheritanceType type = InheritanceType.fromModifiers(fieldAccess[i]);
+                fields.put(new FieldSignature(fieldNames[i], FieldType.of(fieldDescriptors[i])), type);
+                fieldsByName.put(fieldNames[i], type);
+            }
+
+            final Map<MethodSignature, InheritanceType> methods = new HashMap<>(methodNames.length * 2);
+            for (int i = 0; i < methodNames.length; i++) {
+                methods.put(new MethodSignature(methodNames[i], MethodDescriptor.of(methodDescriptors[i])),
+                        InheritanceType.fromModifiers(methodAccess[i]));
+            }
+
+            return new ClassInfo.Impl(name, (access & Opcodes.ACC_INTERFACE) != 0, superName,
+                    Arrays.asList(interfaces), fields, fieldsByName, methods);
+        }
+
+        private static void collect(final String string, final Map<String, Integer> ids, final List<String> strings) {
+            if (string != null && !ids.containsKey(string)) {
+                ids.put(string, strings.size());
+                strings.add(string);
+            }
+        }
+
+        void collectStrings(final Map<String, Integer> ids, final List<String> strings) {
+            collect(name, ids, strings);
+            collect(superName, ids, strings);
+            for (final String iface : interfaces) collect(iface, ids, strings);
+            for (int i = 0; i < fieldNames.length; i++) {
+                collect(fieldNames[i], ids, strings);
+                collect(fieldDescriptors[i], ids, strings);
+            }
+            for (int i = 0; i < methodNames.length; i++) {
+                collect(methodNames[i], ids, strings);
+                collect(methodDescriptors[i], ids, strings);
+            }
+        }
+
+        void write(final DataOutputStream out, final Map<String, Integer> ids) throws IOException {
+            out.writeInt(ids.get(name));
+            out.writeInt(access);
+            out.writeInt(superName != null ? ids.get(superName) : NO_STRING);
+            out.writeInt(interfaces.length);
+            for (final String iface : interfaces) {
+                out.writeInt(ids.get(iface));
+            }
+            out.writeInt(fieldNames.length);
+            for (int i = 0; i < fieldNames.length; i++) {
+                out.writeInt(ids.get(fieldNames[i]));
+                out.writeInt(ids.get(fieldDescriptors[i]));
+                out.writeInt(fieldAccess[i]);
+            }
+            out.writeInt(methodNames.length);
+            for (int i = 0; i < methodNames.length; i++) {
+                out.writeInt(ids.get(methodNames[i]));
+                out.writeInt(ids.get(methodDescriptors[i]));
+                out.writeInt(methodAccess[i]);
+            }
+        }
+
+        static ClassEntry read(final DataInputStream in, final String[] strings) throws IOException {
+            final String name = strings[in.readInt()];
+            final int access = in.readInt();
+            final int superId = in.readInt();
+            final String[] interfaces = new String[in.readInt()];
+            for (int i = 0; i < interfaces.length; i++) {
+                interfaces[i] = strings[in.readInt()];
+            }
+
+            final int fieldCount = in.readInt();
+            final String[] fieldNames = new String[fieldCount];
+            final String[] fieldDescriptors = new String[fieldCount];
+            final int[] fieldAccess = new int[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                fieldNames[i] = strings[in.readInt()];
+                fieldDescriptors[i] = strings[in.readInt()];
+                fieldAccess[i] = in.readInt();
+            }
+
+            final int methodCount = in.readInt();
+            final String[] methodNames = new String[methodCount];
+            final String[] methodDescriptors = new String[methodCount];
+            final int[] methodAccess = new int[methodCount];
+            for (int i = 0; i < methodCount; i++) {
+                methodNames[i] = strings[in.readInt()];
+                methodDescriptors[i] = strings[in.readInt()];
+                methodAccess[i] = in.readInt();
+            }
+
+            return new ClassEntry(name, access, superId == NO_STRING ? null : strings[superId], interfaces,
+                    fieldNames, fieldDescriptors, fieldAccess, methodNames, methodDescriptors, methodAccess);
+        }
+
+        /**
+         * A class visitor recording the information needed for the index,
+         * from a class file.
+         */
+        static final class Visitor extends ClassVisitor {
+
+            private String name;
+            private int access;
+            private String superName;
+            private String[] interfaces;
+            private final List<String> fieldNames = new ArrayList<>();
+            private final List<String> fieldDescriptors = new ArrayList<>();
+            private final List<Integer> fieldAccess = new ArrayList<>();
+            private final List<String> methodNames = new ArrayList<>();
+            private final List<String> methodDescriptors = new ArrayList<>();
+            private final List<Integer> methodAccess = new ArrayList<>();
+
+            Visitor() {
+                super(Opcodes.ASM7);
+            }
+
+            @Override
+            public void visit(final int version, final int access, final String name, final String signature,
+                    final String superName, final String[] interfaces) {
+                this.name = name;
+                this.access = access;
+                this.superName = superName;
+                this.interfaces = interfaces != null ? interfaces : new String[0];
+            }
+
+            @Override
+            public FieldVisitor visitField(final int access, final String name, final String descriptor, final String signature,
+                    final Object value) {
+                fieldNames.add(name);
+                fieldDescriptors.add(descriptor);
+                fieldAccess.add(access);
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(final int access, final String name, final String descriptor, final String signature,
+                    final String[] exceptions) {
+                methodNames.add(name);
+                methodDescriptors.add(descriptor);
+                methodAccess.add(access);
+                return null;
+            }
+
+            ClassEntry create() {
+                return new ClassEntry(name, access, superName, interfaces,
+                        fieldNames.toArray(new String[0]), fieldDescriptors.toArray(new String[0]),
+                        fieldAccess.stream().mapToInt(Integer::intValue).toArray(),
+                        methodNames.toArray(new String[0]), methodDescriptors.toArray(new String[0]),
+                        methodAccess.stream().mapToInt(Integer::intValue).toArray());
+            }
+
+        }
+
+    }
+
+}
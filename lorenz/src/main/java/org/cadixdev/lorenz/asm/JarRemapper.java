@@ -0,0 +1,286 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import org.cadixdev.lorenz.asm.ClassCache.Entry;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.commons.Remapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Enumeration;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Remaps the classes of a jar, in parallel, writing them - along with
+ * the other entries of the jar - to a new jar.
+ *
+ * <p>Each class is read and remapped by a task of its own, while the
+ * output is written by the calling thread, in the order of the entries
+ * of the input jar. Every entry is given the same timestamp, so the
+ * output only depends on the input, and not on how the work was
+ * scheduled.</p>
+ *
+ * <p>Classes are written under their remapped names, within the
+ * directory they were read from - such as the versioned directories of
+ * multi-release jars. Should two entries of the output share a name,
+ * such as two classes mapped to the same name, the remap fails rather
+ * than dropping either.</p>
+ *
+ * <p>Entries that aren't classes are copied as-is. Those that are stored
+ * without compression in the input jar are stored the same way in the
+ * output, which avoids compressing them again. The signature files of
+ * signed jars are dropped, as the remapped classes would no longer match
+ * them.</p>
+ *
+ * <p>Should a cache directory be given, each remapped class is cached
+ * against the hash of the class, and the
+ * {@link RemapTable#fingerprint(ClassReferences) fingerprint} of the
+ * mappings it refers to - so classes that are unchanged, and whose
+ * mappings are unchanged, are copied from the cache rather than being
+ * remapped again. Entries that weren't used by the latest remap are
+ * removed from the cache, so each jar should be given its own cache
+ * directory.</p>
+ *
+ * <p>Classes that don't refer to anything the {@link RemapTable} remaps -
+ * such as those of bundled libraries - are copied as-is, without being
+ * remapped. Those that only need classes to be renamed have their
+ * constant pool rewritten, rather than being remapped with ASM.</p>
+ *
+ * @since 1.0.0
+ */
+public class JarRemapper {
+
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String META_INF = "META-INF/";
+
+    /**
+     * The timestamp given to every entry of the output jar - a month after
+     * the earliest date a zip file can represent. Zip entries store their
+     * time in the local time zone, so the time is taken in the default time
+     * zone, giving every entry the same fields wherever the jar is written.
+     */
+    private static final long ENTRY_TIME = new GregorianCalendar(1980, Calendar.FEBRUARY, 1).getTimeInMillis();
+
+    private final Remapper remapper;
+    private final RemapTable table;
+    private final ClassCache cache;
+
+    /**
+     * Creates a jar remapper, from the given remap table.
+     *
+     * @param table The remap table
+     */
+    public JarRemapper(final RemapTable table) {
+        this(table, null);
+    }
+
+    /**
+     * Creates a jar remapper, from the given remap table, that caches the
+     * remapped classes in the given directory.
+     *
+     * @param table The remap table
+     * @param cache The cache directory, or {@code null} to not cache
+     */
+    public JarRemapper(final RemapTable table, final Path cache) {
+        this.remapper = new LorenzRemapper(table);
+        this.table = table;
+        this.cache = cache != null ? new ClassCache(cache, table, remapper) : null;
+    }
+
+    /**
+     * Creates a jar remapper, using the given remapper.
+     *
+     * <p>The remapper is shared between all of the classes, and so must be
+     * safe to use from several threads at once - such as a
+     * {@link LorenzRemapper} created from a {@link RemapTable}.</p>
+     *
+     * @param remapper The remapper
+     */
+    public JarRemapper(final Remapper remapper) {
+        this.remapper = remapper;
+        this.table = null;
+        this.cache = null;
+    }
+
+    /**
+     * Remaps the given jar, using the {@link ForkJoinPool#commonPool()
+     * common pool}.
+     *
+     * @param input The jar to remap
+     * @param output The path to write the remapped jar to
+     * @throws IOException Should the jars fail to be read, or written, or
+     *                     should two entries of the output share a name
+     * @see #remap(Path, Path, Executor)
+     */
+    public void remap(final Path input, final Path output) throws IOException {
+        remap(input, output, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Remaps the given jar, remapping its classes using the given
+     * executor.
+     *
+     * @param input The jar to remap
+     * @param output The path to write the remapped jar to
+     * @param executor The executor to remap the classes with
+     * @throws IOException Should the jars fail to be read, or written, or
+     *                     should two entries of the output share a name
+     */
+    public void remap(final Path input, final Path output, final Executor executor) throws IOException {
+        final Set<String> cached = ConcurrentHashMap.newKeySet();
+
+        try (final ZipFile jar = new ZipFile(input.toFile());
+             final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(output))) {
+            // Classes are remapped as the tasks are submitted, and written as they complete in order
+            final List<ZipEntry> entries = new ArrayList<>();
+            final List<CompletableFuture<Entry>> classes = new ArrayList<>();
+            final Enumeration<? extends ZipEntry> jarEntries = jar.entries();
+            while (jarEntries.hasMoreElements()) {
+                final ZipEntry entry = jarEntries.nextElement();
+                if (entry.isDirectory() || isSignatureFile(entry.getName())) continue;
+
+                entries.add(entry);
+                if (entry.getName().endsWith(CLASS_EXTENSION)) {
+                    classes.add(CompletableFuture.supplyAsync(() -> remapClass(jar, entry, cached), executor));
+                }
+            }
+
+            final Set<String> written = new HashSet<>();
+            int nextClass = 0;
+            try {
+                for (final ZipEntry entry : entries) {
+                    if (entry.getName().endsWith(CLASS_EXTENSION)) {
+                        final Entry remapped = join(classes.get(nextClass++));
+                        final String name = getEntryName(entry, remapped);
+                        if (!written.add(name)) throw duplicate(name);
+                        write(out, new ZipEntry(name), remapped.contents);
+                    } else {
+                        if (!written.add(entry.getName())) throw duplicate(entry.getName());
+                        copy(jar, entry, out);
+                    }
+                }
+            } catch (final IOException | RuntimeException ex) {
+                // The classes yet to be remapped would otherwise read the jar once it is closed
+                for (final CompletableFuture<Entry> future : classes) {
+                    future.cancel(false);
+                }
+                throw ex;
+            }
+        }
+
+        if (cache != null) cache.prune(cached);
+    }
+
+    /**
+     * Checks whether the given entry is a signature file of a signed jar,
+     * which are found directly within the {@code META-INF} directory.
+     */
+    private static boolean isSignatureFile(final String name) {
+        if (!name.startsWith(META_INF) || name.indexOf('/', META_INF.length()) != -1) return false;
+        final String file = name.substring(META_INF.length()).toUpperCase(Locale.ROOT);
+        return file.startsWith("SIG-") || file.endsWith(".SF") || file.endsWith(".RSA") ||
+                file.endsWith(".DSA") || file.endsWith(".EC");
+    }
+
+    /**
+     * Gets the name of the output entry of the given class - replacing the
+     * class name within the name of the input entry, so classes are kept
+     * within any directory they were found in, such as the versioned
+     * directories of multi-release jars.
+     */
+    private static String getEntryName(final ZipEntry entry, final Entry remapped) {
+        final String name = entry.getName();
+        final String originalName = remapped.originalName + CLASS_EXTENSION;
+        final int prefixLength = name.length() - originalName.length();
+        if (!name.endsWith(originalName) || (prefixLength > 0 && name.charAt(prefixLength - 1) != '/')) {
+            // The entry isn't named after its class, so which part to replace can't be known
+            return name;
+        }
+        return name.substring(0, prefixLength) + remapped.name + CLASS_EXTENSION;
+    }
+
+    private static IOException duplicate(final String name) {
+        return new IOException("Duplicate entry in remapped jar: " + name);
+    }
+
+    private static Entry join(final CompletableFuture<Entry> future) throws IOException {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) ex.getCause()).getCause();
+            throw ex;
+        }
+    }
+
+    private Entry remapClass(final ZipFile jar, final ZipEntry entry, final Set<String> cached) {
+        try {
+            final byte[] contents;
+            try (final InputStream in = jar.getInputStream(entry)) {
+                contents = ClassCache.readAll(in);
+            }
+            if (cache != null) return cache.remap(contents, cached);
+            if (table != null) return ClassCache.remap(table, remapper, contents);
+            return ClassCache.remap(remapper, new ClassReader(contents));
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void copy(final ZipFile jar, final ZipEntry entry, final ZipOutputStream out) throws IOException {
+        final byte[] contents;
+        try (final InputStream in = jar.getInputStream(entry)) {
+            contents = ClassCache.readAll(in);
+        }
+
+        final ZipEntry copy = new ZipEntry(entry.getName());
+        if (entry.getMethod() == ZipEntry.STORED) {
+            // Stored entries are copied without compressing them
+            copy.setMethod(ZipEntry.STORED);
+            copy.setSize(contents.length);
+            copy.setCompressedSize(contents.length);
+            copy.setCrc(entry.getCrc());
+        }
+        write(out, copy, contents);
+    }
+
+    private static void write(final ZipOutputStream out, final ZipEntry entry, final byte[] contents) throws IOException {
+        entry.setTime(ENTRY_TIME);
+        out.putNextEntry(entry);
+        out.write(contents);
+        out.closeEntry();
+    }
+
+}
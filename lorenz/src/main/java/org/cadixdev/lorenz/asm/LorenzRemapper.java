@@ -17,68 +17,284 @@
 package org.cadixdev.lorenz.asm;
 
 import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.frozen.AbstractFrozenClassMapping;
 import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
 import org.cadixdev.lorenz.model.Mapping;
+import org.cadixdev.lorenz.model.MethodMapping;
 import org.objectweb.asm.commons.Remapper;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
  * A simple implementation of {@link Remapper} to remap based
  * on a {@link MappingSet}.
  *
  * <p>Note: The implementation modifies the given {@link MappingSet}
  * on demand to complete the mappings with missing mappings inherited
- * from parent classes.</p>
+ * from parent classes. Read-only mapping sets, such as
+ * {@link MappingSet#freeze() frozen snapshots}, can't be completed - so
+ * the members they inherit are instead resolved through the parents of
+ * the class as they are looked up. Remappers created from a
+ * {@link RemapTable} don't modify the mapping set, and may be shared
+ * between threads.</p>
+ *
+ * <p>The remapped descriptors and signatures are cached - as the same
+ * few are found throughout a jar. The caches are bounded, and those that depend on the
+ * class mappings are discarded as the
+ * {@link MappingSet#getModificationEpoch() mapping set changes}.</p>
  *
  * @author Jamie Mansfield
  * @since 0.4.0
  */
 public class LorenzRemapper extends Remapper {
 
+    /**
+     * The number of values each cache may hold, before it is discarded.
+     */
+    private static final int CACHE_SIZE = 8192;
+
     private final MappingSet mappings;
     private final InheritanceProvider inheritanceProvider;
+    private final RemapTable table;
+    private final RemapCache<String> descriptors = new RemapCache<>();
+    private final RemapCache<String> signatures = new RemapCache<>();
+    private final RemapCache<String> typeSignatures = new RemapCache<>();
+    private volatile RemapperMetrics metrics;
 
     public LorenzRemapper(final MappingSet mappings, final InheritanceProvider inheritanceProvider) {
         this.mappings = mappings;
         this.inheritanceProvider = inheritanceProvider;
+        this.table = null;
+    }
+
+    /**
+     * Creates a remapper backed by the given remap table, which never
+     * modifies the mappings it was compiled from.
+     *
+     * @param table The remap table
+     * @since 1.0.0
+     */
+    public LorenzRemapper(final RemapTable table) {
+        this.mappings = null;
+        this.inheritanceProvider = null;
+        this.table = table;
+    }
+
+    /**
+     * Sets the metrics the remapper records its operations to.
+     *
+     * @param metrics The metrics, or {@code null} to not record metrics
+     * @since 1.0.0
+     */
+    public void setMetrics(final RemapperMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the metrics the remapper records its operations to.
+     *
+     * @return The metrics, or {@code null} should metrics not be recorded
+     * @since 1.0.0
+     */
+    public RemapperMetrics getMetrics() {
+        return metrics;
     }
 
     @Override
     public String map(final String typeName) {
+        final RemapperMetrics metrics = this.metrics;
+        final long start = metrics != null ? metrics.start() : 0;
+        final String mapped = findClass(typeName);
+        if (metrics != null) metrics.record(RemapperMetrics.Operation.CLASS, start, mapped != null);
+        return mapped != null ? mapped : typeName;
+    }
+
+    private String findClass(final String typeName) {
+        if (table != null) return table.findClass(typeName);
         return mappings.computeClassMapping(typeName)
                 .map(Mapping::getFullDeobfuscatedName)
-                .orElse(typeName);
+                .orElse(null);
     }
 
     @Override
     public String mapInnerClassName(final String name, final String ownerName, final String innerName) {
+        final RemapperMetrics metrics = this.metrics;
+        final long start = metrics != null ? metrics.start() : 0;
+        final String mapped = findInnerClass(name);
+        if (metrics != null) metrics.record(RemapperMetrics.Operation.INNER_CLASS, start, mapped != null);
+        return mapped != null ? mapped : innerName;
+    }
+
+    private String findInnerClass(final String name) {
+        if (table != null) return table.findInnerClassName(name);
         return mappings.computeClassMapping(name)
                 .map(Mapping::getDeobfuscatedName)
-                .orElse(innerName);
+                .orElse(null);
     }
 
     private ClassMapping<?, ?> getCompletedClassMapping(final String owner) {
+        // Remap tables are complete as they are built
+        if (table != null) return null;
+
         final ClassMapping<?, ?> mapping = mappings.getOrCreateClassMapping(owner);
+        final RemapperMetrics metrics = this.metrics;
+        if (metrics == null) {
+            mapping.complete(inheritanceProvider);
+            return mapping;
+        }
+
+        final long start = metrics.start();
+        final boolean complete = mapping.isComplete();
         mapping.complete(inheritanceProvider);
+        metrics.record(RemapperMetrics.Operation.COMPLETE, start, complete);
         return mapping;
     }
 
     @Override
     public String mapFieldName(final String owner, final String name, final String desc) {
-        return getCompletedClassMapping(owner)
-                .computeFieldMapping(FieldSignature.of(name, desc))
-                .map(Mapping::getDeobfuscatedName)
-                .orElse(name);
+        // The owner is completed first, so its completion isn't timed as part of the field
+        final ClassMapping<?, ?> klass = getCompletedClassMapping(owner);
+        final RemapperMetrics metrics = this.metrics;
+        final long start = metrics != null ? metrics.start() : 0;
+        final String mapped = findField(klass, owner, name, desc);
+        if (metrics != null) metrics.record(RemapperMetrics.Operation.FIELD, start, mapped != null);
+        return mapped != null ? mapped : name;
+    }
+
+    private String findField(final ClassMapping<?, ?> klass, final String owner, final String name, final String desc) {
+        if (table != null) return table.findField(owner, name, desc);
+        FieldMapping mapping = klass.getFieldMapping(name, desc).orElse(null);
+        if (mapping == null && klass instanceof AbstractFrozenClassMapping) mapping = inheritedField(owner, name, desc);
+        return mapping != null ? mapping.getDeobfuscatedName() : null;
+    }
+
+    private FieldMapping inheritedField(final String owner, final String name, final String desc) {
+        final InheritanceProvider.ClassInfo info = inheritanceProvider.provide(owner).orElse(null);
+        if (info == null) return null;
+
+        final FieldSignature signature = desc != null ? FieldSignature.of(name, desc) : new FieldSignature(name);
+        for (final InheritanceProvider.ClassInfo parent : info.provideParents(inheritanceProvider)) {
+            final ClassMapping<?, ?> parentMappings = mappings.getClassMapping(parent.getName()).orElse(null);
+            if (parentMappings == null) continue;
+
+            final FieldMapping mapping = parentMappings.getFieldMapping(name, desc).orElse(null);
+            if (mapping != null && parent.canInherit(info, signature)) return mapping;
+        }
+        return null;
     }
 
     @Override
     public String mapMethodName(final String owner, final String name, final String desc) {
-        return getCompletedClassMapping(owner)
-                .getMethodMapping(MethodSignature.of(name, desc))
-                .map(Mapping::getDeobfuscatedName)
-                .orElse(name);
+        // The owner is completed first, so its completion isn't timed as part of the method
+        final ClassMapping<?, ?> klass = getCompletedClassMapping(owner);
+        final RemapperMetrics metrics = this.metrics;
+        final long start = metrics != null ? metrics.start() : 0;
+        final String mapped = findMethod(klass, owner, name, desc);
+        if (metrics != null) metrics.record(RemapperMetrics.Operation.METHOD, start, mapped != null);
+        return mapped != null ? mapped : name;
+    }
+
+    private String findMethod(final ClassMapping<?, ?> klass, final String owner, final String name, final String desc) {
+        if (table != null) return table.findMethod(owner, name, desc);
+        MethodMapping mapping = klass.getMethodMapping(name, desc).orElse(null);
+        if (mapping == null && klass instanceof AbstractFrozenClassMapping) mapping = inheritedMethod(owner, name, desc);
+        return mapping != null ? mapping.getDeobfuscatedName() : null;
+    }
+
+    private MethodMapping inheritedMethod(final String owner, final String name, final String desc) {
+        final InheritanceProvider.ClassInfo info = inheritanceProvider.provide(owner).orElse(null);
+        if (info == null) return null;
+
+        final MethodSignature signature = MethodSignature.of(name, desc);
+        final MethodDescriptor descriptor = signature.getDescriptor();
+        for (final InheritanceProvider.ClassInfo parent : info.provideParents(inheritanceProvider)) {
+            final ClassMapping<?, ?> parentMappings = mappings.getClassMapping(parent.getName()).orElse(null);
+            if (parentMappings == null) continue;
+
+            final MethodMapping mapping = parentMappings.getMethodMapping(signature).orElse(null);
+            if (mapping != null && parent.canInherit(info, signature)) return mapping;
+
+            // Methods here may override the return type of a parent method
+            if (!info.getMethods().containsKey(signature)) continue;
+            for (final MethodMapping parentMethod : parentMappings.getMethodMappings()) {
+                final MethodDescriptor parentDescriptor = parentMethod.getSignature().getDescriptor();
+                if (parentMethod.getObfuscatedName().equals(name) &&
+                        Objects.equals(parentDescriptor.getParamTypes(), descriptor.getParamTypes()) &&
+                        parentDescriptor.getReturnType().isAssignableFrom(descriptor.getReturnType(), inheritanceProvider)) {
+                    return parentMethod;
+                }
+            }
+        }
+        return null;
+    }
+
+    private long getEpoch() {
+        // Remap tables never change
+        return mappings != null ? mappings.getModificationEpoch() : 0;
+    }
+
+    @Override
+    public String mapDesc(final String descriptor) {
+        return descriptors.get(getEpoch(), descriptor, super::mapDesc);
+    }
+
+    @Override
+    public String mapMethodDesc(final String methodDescriptor) {
+        // Method descriptors can't be confused with field descriptors, so share the cache
+        return descriptors.get(getEpoch(), methodDescriptor, super::mapMethodDesc);
+    }
+
+    @Override
+    public String mapSignature(final String signature, final boolean typeSignature) {
+        if (signature == null) return null;
+        return (typeSignature ? typeSignatures : signatures)
+                .get(getEpoch(), signature, key -> super.mapSignature(key, typeSignature));
+    }
+
+    /**
+     * A bounded cache of values, keyed by strings, that is discarded as
+     * it fills, or as the epoch it was computed in passes.
+     *
+     * @param <V> The type of the values
+     */
+    private static final class RemapCache<V> {
+
+        private volatile Generation<V> generation = new Generation<>(0);
+
+        V get(final long epoch, final String key, final Function<String, V> compute) {
+            Generation<V> generation = this.generation;
+            if (generation.epoch != epoch) {
+                this.generation = generation = new Generation<>(epoch);
+            }
+
+            V value = generation.values.get(key);
+            if (value == null) {
+                value = compute.apply(key);
+                if (generation.values.size() >= CACHE_SIZE) generation.values.clear();
+                generation.values.put(key, value);
+            }
+            return value;
+        }
+
+    }
+
+    private static final class Generation<V> {
+
+        final long epoch;
+        final Map<String, V> values = new ConcurrentHashMap<>();
+
+        Generation(final long epoch) {
+            this.epoch = epoch;
+        }
+
     }
 
 }
@@ -0,0 +1,476 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.frozen.FrozenTable;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable, flattened view of a {@link MappingSet}, compiled up-front
+ * for remapping - mapping each owner, and the name and descriptor of each
+ * of its members, directly to the de-obfuscated name.
+ *
+ * <p>The members each class inherits are resolved while compiling, in
+ * the same manner as {@link ClassMapping#complete(InheritanceProvider)
+ * completion}, though without modifying the mapping set. As such, the
+ * table only reflects the mappings at the time it was compiled, and
+ * inherited members are only known for the classes it was compiled
+ * for.</p>
+ *
+ * <p>The table may be freely shared between threads.</p>
+ *
+ * @since 1.0.0
+ * @see LorenzRemapper#LorenzRemapper(RemapTable)
+ */
+public final class RemapTable {
+
+    /**
+     * The descriptor key used for fields mapped without a type.
+     */
+    private static final String NO_TYPE = "";
+
+    /**
+     * Compiles the remap table for the class mappings of the given
+     * mapping set.
+     *
+     * @param mappings The mappings
+     * @param provider The inheritance provider
+     * @return The remap table
+     */
+    public static RemapTable build(final MappingSet mappings, final InheritanceProvider provider) {
+        return build(mappings, provider, Collections.emptyList());
+    }
+
+    /**
+     * Compiles the remap table for the class mappings of the given
+     * mapping set, and the given classes.
+     *
+     * <p>Classes without mappings must be included for the members they
+     * inherit to be remapped - for example, all of the classes of the jar
+     * being remapped.</p>
+     *
+     * @param mappings The mappings
+     * @param provider The inheritance provider
+     * @param classes The names of the classes
+     * @return The remap table
+     */
+    public static RemapTable build(final MappingSet mappings, final InheritanceProvider provider,
+            final Collection<String> classes) {
+        final Map<String, String> classNames = new HashMap<>();
+        final Map<String, String> innerClassNames = new HashMap<>();
+        final Set<String> owners = new LinkedHashSet<>();
+        for (final TopLevelClassMapping klass : mappings.getTopLevelClassMappings()) {
+            collect(klass, classNames, innerClassNames, owners);
+        }
+        owners.addAll(classes);
+
+        final Map<String, Members> members = new HashMap<>();
+        for (final String owner : owners) {
+            final Members ownerMembers = Members.build(mappings, provider, owner);
+            if (ownerMembers != null) members.put(owner, ownerMembers);
+        }
+        return new RemapTable(classNames, innerClassNames, members);
+    }
+
+    private static void collect(final ClassMapping<?, ?> klass, final Map<String, String> classNames,
+            final Map<String, String> innerClassNames, final Set<String> owners) {
+        final String name = klass.getFullObfuscatedName();
+        owners.add(name);
+        final String deobfuscatedName = klass.getFullDeobfuscatedName();
+        if (!name.equals(deobfuscatedName)) classNames.put(name, deobfuscatedName);
+        if (klass instanceof InnerClassMapping && klass.hasDeobfuscatedName()) {
+            innerClassNames.put(name, klass.getDeobfuscatedName());
+        }
+
+        for (final InnerClassMapping inner : klass.getInnerClassMappings()) {
+            collect(inner, classNames, innerClassNames, owners);
+        }
+    }
+
+    private final Map<String, String> classNames;
+    private final Map<String, String> obfuscatedNames;
+    private final Map<String, String> innerClassNames;
+    private final Map<String, Members> members;
+
+    private RemapTable(final Map<String, String> classNames, final Map<String, String> innerClassNames,
+            final Map<String, Members> members) {
+        this.classNames = classNames;
+        this.obfuscatedNames = new HashMap<>(classNames.size() * 2);
+        for (final Map.Entry<String, String> entry : classNames.entrySet()) {
+            this.obfuscatedNames.put(entry.getValue(), entry.getKey());
+        }
+        this.innerClassNames = innerClassNames;
+        this.members = members;
+    }
+
+    /**
+     * Gets the fully-qualified de-obfuscated name of the given class.
+     *
+     * @param name The fully-qualified obfuscated name of the class
+     * @return The de-obfuscated name, or the given name should the class
+     *         not be mapped
+     */
+    public String mapClass(final String name) {
+        final String mapped = findClass(name);
+        return mapped != null ? mapped : name;
+    }
+
+    /**
+     * Gets the fully-qualified de-obfuscated name of the given class,
+     * should it, or one of its outer classes, be mapped.
+     *
+     * @param name The fully-qualified obfuscated name of the class
+     * @return The de-obfuscated name, or {@code null} should the class not
+     *         be mapped
+     */
+    String findClass(final String name) {
+        final String mapped = classNames.get(name);
+        if (mapped != null) return mapped;
+
+        // Inner classes of mapped classes keep their name, but are moved with their outer class
+        final int lastIndex = name.lastIndexOf('$');
+        if (lastIndex == -1) return null;
+        final String outer = findClass(name.substring(0, lastIndex));
+        return outer != null ? outer + name.substring(lastIndex) : null;
+    }
+
+    /**
+     * Gets the fully-qualified obfuscated name of the given class - the
+     * reverse of {@link #mapClass(String)}.
+     *
+     * @param name The fully-qualified de-obfuscated name of the class
+     * @return The obfuscated name, or the given name should no class be
+     *         mapped to it
+     */
+    public String unmapClass(final String name) {
+        final String unmapped = obfuscatedNames.get(name);
+        if (unmapped != null) return unmapped;
+
+        final int lastIndex = name.lastIndexOf('$');
+        if (lastIndex == -1) return name;
+        return unmapClass(name.substring(0, lastIndex)) + name.substring(lastIndex);
+    }
+
+    /**
+     * Gets the de-obfuscated simple name of the given inner class.
+     *
+     * @param name The fully-qualified obfuscated name of the class
+     * @param innerName The obfuscated simple name of the class
+     * @return The de-obfuscated name, or the given simple name should the
+     *         class not be mapped
+     */
+    public String mapInnerClassName(final String name, final String innerName) {
+        final String mapped = findInnerClassName(name);
+        return mapped != null ? mapped : innerName;
+    }
+
+    /**
+     * Gets the de-obfuscated simple name of the given inner class, should
+     * it be mapped.
+     *
+     * @param name The fully-qualified obfuscated name of the class
+     * @return The de-obfuscated name, or {@code null} should the class not
+     *         be mapped
+     */
+    String findInnerClassName(final String name) {
+        return innerClassNames.get(name);
+    }
+
+    /**
+     * Gets the de-obfuscated name of the given field.
+     *
+     * @param owner The obfuscated name of the class the field is
+     *              referenced through
+     * @param name The obfuscated name of the field
+     * @param descriptor The obfuscated descriptor of the field
+     * @return The de-obfuscated name, or the given name should the field
+     *         not be mapped
+     */
+    public String mapField(final String owner, final String name, final String descriptor) {
+        final String mapped = findField(owner, name, descriptor);
+        return mapped != null ? mapped : name;
+    }
+
+    /**
+     * Gets the de-obfuscated name of the given field, should it be
+     * mapped.
+     *
+     * @param owner The obfuscated name of the class the field is
+     *              referenced through
+     * @param name The obfuscated name of the field
+     * @param descriptor The obfuscated descriptor of the field
+     * @return The de-obfuscated name, or {@code null} should the field not
+     *         be mapped
+     */
+    String findField(final String owner, final String name, final String descriptor) {
+        final Members ownerMembers = members.get(owner);
+        if (ownerMembers == null) return null;
+
+        final FrozenTable<String, String> descriptors = ownerMembers.fields.get(name);
+        if (descriptors == null) return null;
+
+        // Fall back to the mapping without a type, as completion would
+        final String mapped = descriptor != null ? descriptors.get(descriptor) : null;
+        return mapped != null ? mapped : descriptors.get(NO_TYPE);
+    }
+
+    /**
+     * Gets the de-obfuscated name of the given method.
+     *
+     * @param owner The obfuscated name of the class the method is
+     *              referenced through
+     * @param name The obfuscated name of the method
+     * @param descriptor The obfuscated descriptor of the method
+     * @return The de-obfuscated name, or the given name should the method
+     *         not be mapped
+     */
+    public String mapMethod(final String owner, final String name, final String descriptor) {
+        final String mapped = findMethod(owner, name, descriptor);
+        return mapped != null ? mapped : name;
+    }
+
+    /**
+     * Gets the de-obfuscated name of the given method, should it be
+     * mapped.
+     *
+     * @param owner The obfuscated name of the class the method is
+     *              referenced through
+     * @param name The obfuscated name of the method
+     * @param descriptor The obfuscated descriptor of the method
+     * @return The de-obfuscated name, or {@code null} should the method not
+     *         be mapped
+     */
+    String findMethod(final String owner, final String name, final String descriptor) {
+        final Members ownerMembers = members.get(owner);
+        if (ownerMembers == null) return null;
+
+        final FrozenTable<String, String> descriptors = ownerMembers.methods.get(name);
+        return descriptors != null ? descriptors.get(descriptor) : null;
+    }
+
+    /**
+     * Checks whether any of the given references would be remapped - should
+     * none be, the class can be copied as-is, without being remapped.
+     *
+     * <p>Only the owners that have member mappings are looked into, so
+     * classes that merely refer to unmapped library classes are rejected
+     * by a single lookup per reference.</p>
+     *
+     * @param references The references of the class
+     * @return {@code true} should the class need to be remapped
+     * @see ClassReferences#scan(byte[])
+     */
+    public boolean remaps(final ClassReferences references) {
+        for (final String klass : references.getClasses()) {
+            if (!mapClass(klass).equals(klass)) return true;
+        }
+        return remapsMembers(references);
+    }
+
+    /**
+     * Checks whether any of the members among the given references would
+     * be remapped - should none be, the class only needs the classes it
+     * refers to renamed.
+     *
+     * @param references The references of the class
+     * @return {@code true} should any of the members be remapped
+     * @see #remaps(ClassReferences)
+     */
+    public boolean remapsMembers(final ClassReferences references) {
+        for (final ClassReferences.Member field : references.getFields()) {
+            if (members.containsKey(field.getOwner()) &&
+                    !mapField(field.getOwner(), field.getName(), field.getDescriptor()).equals(field.getName())) {
+                return true;
+            }
+        }
+        for (final ClassReferences.Member method : references.getMethods()) {
+            if (members.containsKey(method.getOwner()) &&
+                    !mapMethod(method.getOwner(), method.getName(), method.getDescriptor()).equals(method.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes a fingerprint of the mappings that are relevant to the
+     * given class - that is, a hash of the remapped name of every class
+     * and member it refers to.
+     *
+     * <p>Should a class and the fingerprint of its mappings be unchanged,
+     * the class will be remapped the same way - so the fingerprint can be
+     * used to cache remapped classes, across remap tables.</p>
+     *
+     * @param references The references of the class
+     * @return The SHA-256 fingerprint
+     * @see ClassReferences#scan(byte[])
+     */
+    public byte[] fingerprint(final ClassReferences references) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available!", ex);
+        }
+
+        for (final String klass : references.getClasses()) {
+            update(digest, klass);
+            update(digest, mapClass(klass));
+            final int lastIndex = klass.lastIndexOf('$');
+            if (lastIndex != -1) update(digest, mapInnerClassName(klass, klass.substring(lastIndex + 1)));
+        }
+        for (final ClassReferences.Member field : references.getFields()) {
+            update(digest, field.getOwner());
+            update(digest, field.getName());
+            update(digest, field.getDescriptor());
+            update(digest, mapField(field.getOwner(), field.getName(), field.getDescriptor()));
+        }
+        for (final ClassReferences.Member method : references.getMethods()) {
+            update(digest, method.getOwner());
+            update(digest, method.getName());
+            update(digest, method.getDescriptor());
+            update(digest, mapMethod(method.getOwner(), method.getName(), method.getDescriptor()));
+        }
+        return digest.digest();
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        // Each value is terminated, so adjacent values can't be confused
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * The members of a single owner, by obfuscated name and then
+     * obfuscated descriptor.
+     */
+    private static final class Members {
+
+        static Members build(final MappingSet mappings, final InheritanceProvider provider, final String owner) {
+            final Map<String, Map<String, String>> fields = new HashMap<>();
+            final Map<String, Map<String, String>> methods = new HashMap<>();
+
+            // The class's own mappings take precedence over those it inherits
+            mappings.getClassMapping(owner).ifPresent(klass -> {
+                for (final FieldMapping field : klass.getFieldMappings()) {
+                    putIfAbsent(fields, field.getSignature(), field.getDeobfuscatedName());
+                }
+                for (final MethodMapping method : klass.getMethodMappings()) {
+                    putIfAbsent(methods, method.getSignature(), method.getDeobfuscatedName());
+                }
+            });
+
+            final InheritanceProvider.ClassInfo info = provider.provide(owner).orElse(null);
+            if (info != null) {
+                final Map<String, List<MethodSignature>> nameToMethods = new HashMap<>();
+                for (final MethodSignature method : info.getMethods().keySet()) {
+                    nameToMethods.computeIfAbsent(method.getName(), name -> new ArrayList<>(1)).add(method);
+                }
+
+                // Every parent is visited, so only the mappings each parent declares are needed
+                for (final InheritanceProvider.ClassInfo parent : info.provideParents(provider)) {
+                    final ClassMapping<?, ?> parentMappings = mappings.getClassMapping(parent.getName()).orElse(null);
+                    if (parentMappings == null) continue;
+
+                    for (final FieldMapping field : parentMappings.getFieldMappings()) {
+                        if (parent.canInherit(info, field.getSignature())) {
+                            putIfAbsent(fields, field.getSignature(), field.getDeobfuscatedName());
+                        }
+                    }
+
+                    for (final MethodMapping method : parentMappings.getMethodMappings()) {
+                        if (parent.canInherit(info, method.getSignature())) {
+                            putIfAbsent(methods, method.getSignature(), method.getDeobfuscatedName());
+                        }
+
+                        // Check if there are any methods here that override the return type of a parent
+                        // method.
+                        final List<MethodSignature> overriding = nameToMethods.get(method.getObfuscatedName());
+                        if (overriding == null) continue;
+
+                        final MethodDescriptor parentDescriptor = method.getSignature().getDescriptor();
+                        for (final MethodSignature signature : overriding) {
+                            final MethodDescriptor descriptor = signature.getDescriptor();
+                            if (!Objects.equals(descriptor.getParamTypes(), parentDescriptor.getParamTypes())) continue;
+
+                            if (parentDescriptor.getReturnType().isAssignableFrom(descriptor.getReturnType(), provider)) {
+                                putIfAbsent(methods, signature, method.getDeobfuscatedName());
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (fields.isEmpty() && methods.isEmpty()) return null;
+            return new Members(freeze(fields), freeze(methods));
+        }
+
+        private static void putIfAbsent(final Map<String, Map<String, String>> members, final FieldSignature signature,
+                final String deobfuscatedName) {
+            final String descriptor = signature.getType().map(Object::toString).orElse(NO_TYPE);
+            members.computeIfAbsent(signature.getName(), name -> new HashMap<>(2)).putIfAbsent(descriptor, deobfuscatedName);
+        }
+
+        private static void putIfAbsent(final Map<String, Map<String, String>> members, final MethodSignature signature,
+                final String deobfuscatedName) {
+            final String descriptor = signature.getDescriptor().toString();
+            members.computeIfAbsent(signature.getName(), name -> new HashMap<>(2)).putIfAbsent(descriptor, deobfuscatedName);
+        }
+
+        private static FrozenTable<String, FrozenTable<String, String>> freeze(final Map<String, Map<String, String>> members) {
+            final Map<String, FrozenTable<String, String>> frozen = new HashMap<>(members.size() * 2);
+            for (final Map.Entry<String, Map<String, String>> entry : members.entrySet()) {
+                frozen.put(entry.getKey(), FrozenTable.of(entry.getValue()));
+            }
+            return FrozenTable.of(frozen);
+        }
+
+        final FrozenTable<String, FrozenTable<String, String>> fields;
+        final FrozenTable<String, FrozenTable<String, String>> methods;
+
+        Members(final FrozenTable<String, FrozenTable<String, String>> fields,
+                final FrozenTable<String, FrozenTable<String, String>> methods) {
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters, and optionally timers, for the operations of a
+ * {@link LorenzRemapper}.
+ *
+ * <p>Each operation counts its calls, and how many of those were hits -
+ * being those that found a mapping, even should it not change the name,
+ * or for {@link Operation#COMPLETE completion}, those that found the
+ * class mapping already complete. The counters are {@link LongAdder}s, so
+ * may be updated by many threads at once with little contention.</p>
+ *
+ * <p>Timing is optional, as reading the clock costs more than updating
+ * the counters. The owners of fields and methods are completed before
+ * the fields and methods are resolved, so the time spent completing them
+ * is only recorded under {@link Operation#COMPLETE}.</p>
+ *
+ * @since 1.0.0
+ * @see LorenzRemapper#setMetrics(RemapperMetrics)
+ */
+public final class RemapperMetrics {
+
+    /**
+     * The operations of a remapper.
+     */
+    public enum Operation {
+
+        /**
+         * Remapping a class name.
+         */
+        CLASS,
+
+        /**
+         * Remapping the simple name of an inner class.
+         */
+        INNER_CLASS,
+
+        /**
+         * Remapping a field name.
+         */
+        FIELD,
+
+        /**
+         * Remapping a method name.
+         */
+        METHOD,
+
+        /**
+         * Completing a class mapping.
+         */
+        COMPLETE
+
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final boolean timed;
+    private final LongAdder[] calls = adders();
+    private final LongAdder[] hits = adders();
+    private final LongAdder[] nanos = adders();
+
+    /**
+     * Creates a new set of metrics, without timers.
+     */
+    public RemapperMetrics() {
+        this(false);
+    }
+
+    /**
+     * Creates a new set of metrics.
+     *
+     * @param timed Whether to time the operations
+     */
+    public RemapperMetrics(final boolean timed) {
+        this.timed = timed;
+    }
+
+    private static LongAdder[] adders() {
+        final LongAdder[] adders = new LongAdder[OPERATIONS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Establishes whether the operations are timed.
+     *
+     * @return {@code true} if the operations are timed;
+     *         {@code false} otherwise
+     */
+    public boolean isTimed() {
+        return timed;
+    }
+
+    /**
+     * Gets the time an operation is started at, to be given to
+     * {@link #record(Operation, long, boolean)}.
+     *
+     * @return The start time, or {@code 0} should the operations not be
+     *         timed
+     */
+    long start() {
+        return timed ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a call of the given operation.
+     *
+     * @param operation The operation
+     * @param start The time the operation was started at
+     * @param hit Whether the call was a hit
+     */
+    void record(final Operation operation, final long start, final boolean hit) {
+        final int index = operation.ordinal();
+        calls[index].increment();
+        if (hit) hits[index].increment();
+        if (timed) nanos[index].add(System.nanoTime() - start);
+    }
+
+    /**
+     * Takes a snapshot of the metrics. As the metrics may be updated while
+     * the snapshot is taken, the counters of the snapshot are only
+     * guaranteed to be consistent should no remapping be in progress.
+     *
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        final Map<Operation, long[]> values = new EnumMap<>(Operation.class);
+        for (final Operation operation : OPERATIONS) {
+            final int index = operation.ordinal();
+            values.put(operation, new long[] {
+                    calls[index].sum(), hits[index].sum(), nanos[index].sum()
+            });
+        }
+        return new Snapshot(values);
+    }
+
+    /**
+     * Resets all of the metrics to zero.
+     */
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            calls[i].reset();
+            hits[i].reset();
+            nanos[i].reset();
+        }
+    }
+
+    /**
+     * An immutable snapshot of {@link RemapperMetrics}.
+     */
+    public static final class Snapshot {
+
+        private static final int CALLS = 0;
+        private static final int HITS = 1;
+        private static final int NANOS = 2;
+
+        private final Map<Operation, long[]> values;
+
+        Snapshot(final Map<Operation, long[]> values) {
+            this.values = values;
+        }
+
+        /**
+         * Gets the number of calls of the given operation.
+         *
+         * @param operation The operation
+         * @return The number of calls
+         */
+        public long getCalls(final Operation operation) {
+            return values.get(operation)[CALLS];
+        }
+
+        /**
+         * Gets the number of calls of the given operation that were hits.
+         *
+         * @param operation The operation
+         * @return The number of hits
+         */
+        public long getHits(final Operation operation) {
+            return values.get(operation)[HITS];
+        }
+
+        /**
+         * Gets the number of calls of the given operation that were
+         * misses.
+         *
+         * @param operation The operation
+         * @return The number of misses
+         */
+        public long getMisses(final Operation operation) {
+            return getCalls(operation) - getHits(operation);
+        }
+
+        /**
+         * Gets the total time spent in the given operation, in
+         * nanoseconds.
+         *
+         * @param operation The operation
+         * @return The time, or {@code 0} should the operations not have
+         *         been timed
+         */
+        public long getNanos(final Operation operation) {
+            return values.get(operation)[NANOS];
+        }
+
+        @Override
+        public String toString() {
+            final StringJoiner joiner = new StringJoiner(", ", "RemapperMetrics{", "}");
+            for (final Operation operation : OPERATIONS) {
+                joiner.add(operation + "=[calls=" + getCalls(operation) + ", hits=" + getHits(operation) +
+                        ", nanos=" + getNanos(operation) + "]");
+            }
+            return joiner.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.asm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Enumeration;
+
+/**
+ * A class loader that remaps the classes of another class loader as
+ * they are loaded, using a {@link RemapTable}.
+ *
+ * <p>Classes are defined under their de-obfuscated names, and are read
+ * from the source class loader under their obfuscated names - so
+ * {@link Class#forName(String, boolean, ClassLoader)}, and the classes
+ * the loader defines, resolve classes by their de-obfuscated names.
+ * Calling {@link #loadClass(String)} directly with the obfuscated name of
+ * a class also gives the remapped class, though the JVM rejects a class
+ * of another name - so {@code Class.forName}, and references from other
+ * classes, can't resolve obfuscated names.</p>
+ *
+ * <p>Should a cache directory be given, each remapped class is cached
+ * against the hash of the class, and the
+ * {@link RemapTable#fingerprint(ClassReferences) fingerprint} of the
+ * mappings it refers to - so later runs needn't remap the classes
+ * again.</p>
+ *
+ * <p>Note: The parent class loader mustn't be able to load the
+ * obfuscated classes itself, as they would then be loaded without being
+ * remapped.</p>
+ *
+ * @since 1.0.0
+ */
+public class RemappingClassLoader extends ClassLoader {
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final RemapTable table;
+    private final ClassLoader source;
+    private final LorenzRemapper remapper;
+    private final ClassCache cache;
+
+    /**
+     * Creates a remapping class loader, that loads the obfuscated classes
+     * from the given source.
+     *
+     * @param table The remap table
+     * @param source The class loader to read the obfuscated classes from
+     * @param parent The parent class loader
+     */
+    public RemappingClassLoader(final RemapTable table, final ClassLoader source, final ClassLoader parent) {
+        this(table, source, parent, null);
+    }
+
+    /**
+     * Creates a remapping class loader, that loads the obfuscated classes
+     * from the given source, caching the remapped classes in the given
+     * directory.
+     *
+     * @param table The remap table
+     * @param source The class loader to read the obfuscated classes from
+     * @param parent The parent class loader
+     * @param cache The cache directory, or {@code null} to not cache
+     */
+    public RemappingClassLoader(final RemapTable table, final ClassLoader source, final ClassLoader parent,
+            final Path cache) {
+        super(parent);
+        this.table = table;
+        this.source = source;
+        this.remapper = new LorenzRemapper(table);
+        this.cache = cache != null ? new ClassCache(cache, table, this.remapper) : null;
+    }
+
+    /**
+     * Gets the remap table used by the class loader.
+     *
+     * @return The remap table
+     */
+    public RemapTable getTable() {
+        return table;
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+        final String internalName = name.replace('.', '/');
+        final String mapped = table.mapClass(internalName);
+        final String unmapped = table.unmapClass(internalName);
+
+        // Obfuscated names resolve to the remapped class, which is loaded by its own name
+        if (unmapped.equals(internalName) && !mapped.equals(internalName)) {
+            return loadClass(mapped.replace('/', '.'));
+        }
+
+        final byte[] contents = read(unmapped);
+        if (contents != null) {
+            final ClassCache.Entry remapped;
+            try {
+                remapped = cache != null ?
+                        cache.remap(contents, null) :
+                        ClassCache.remap(table, remapper, contents);
+            } catch (final IOException ex) {
+                throw new ClassNotFoundException(name, ex);
+            }
+            if (remapped.name.equals(internalName)) {
+                return defineClass(name, remapped.contents, 0, remapped.contents.length);
+            }
+        }
+
+        // Names shared with the de-obfuscated name of another class resolve to
+        // the remapped class, should the other class not be found
+        if (!mapped.equals(internalName)) {
+            return loadClass(mapped.replace('/', '.'));
+        }
+        throw new ClassNotFoundException(name);
+    }
+
+    private byte[] read(final String internalName) throws ClassNotFoundException {
+        try (final InputStream in = source.getResourceAsStream(internalName + CLASS_EXTENSION)) {
+            return in != null ? ClassCache.readAll(in) : null;
+        } catch (final IOException | UncheckedIOException ex) {
+            throw new ClassNotFoundException(internalName, ex);
+        }
+    }
+
+    @Override
+    protected URL findResource(final String name) {
+        return source.getResource(name);
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(final String name) throws IOException {
+        return source.getResources(name);
+    }
+
+}
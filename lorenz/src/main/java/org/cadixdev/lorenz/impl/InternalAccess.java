@@ -0,0 +1,132 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.model.AbstractClassMappingImpl;
+import org.cadixdev.lorenz.model.ClassMapping;
+
+/**
+ * Access to the internals of the {@link MappingSet}, and of its model,
+ * that are shared between the packages of Lorenz but aren't part of its
+ * API.
+ *
+ * <p>Each accessor is registered by the class it grants access to, as
+ * that class is initialised - so is always available to code holding an
+ * instance of the class. This is not for use outside of Lorenz, and may
+ * change at any time.</p>
+ *
+ * @since 1.0.0
+ */
+public final class InternalAccess {
+
+    private static MappingSetAccess mappingSets;
+    private static ClassMappingAccess classMappings;
+
+    /**
+     * Gets the access to the internals of {@link MappingSet}.
+     *
+     * @return The mapping set access
+     */
+    public static MappingSetAccess mappingSets() {
+        return mappingSets;
+    }
+
+    /**
+     * Gets the access to the internals of {@link AbstractClassMappingImpl}.
+     *
+     * @return The class mapping access
+     */
+    public static ClassMappingAccess classMappings() {
+        return classMappings;
+    }
+
+    /**
+     * Registers the access to the internals of {@link MappingSet}.
+     *
+     * @param access The mapping set access
+     * @throws IllegalStateException If the access is already registered
+     */
+    public static void setMappingSetAccess(final MappingSetAccess access) {
+        if (mappingSets != null) throw new IllegalStateException("The mapping set access is already registered!");
+        mappingSets = access;
+    }
+
+    /**
+     * Registers the access to the internals of {@link AbstractClassMappingImpl}.
+     *
+     * @param access The class mapping access
+     * @throws IllegalStateException If the access is already registered
+     */
+    public static void setClassMappingAccess(final ClassMappingAccess access) {
+        if (classMappings != null) throw new IllegalStateException("The class mapping access is already registered!");
+        classMappings = access;
+    }
+
+    private InternalAccess() {
+    }
+
+    /**
+     * The internals of {@link MappingSet}.
+     */
+    public interface MappingSetAccess {
+
+        /**
+         * Registers the given class mapping with the index of class
+         * mappings by their full obfuscated name.
+         *
+         * @param mappings The mapping set
+         * @param mapping The class mapping
+         */
+        void registerClassMapping(final MappingSet mappings, final ClassMapping<?, ?> mapping);
+
+        /**
+         * Removes the given class mapping, and all of its inner class
+         * mappings, from the index of class mappings by their full
+         * obfuscated name.
+         *
+         * @param mappings The mapping set
+         * @param mapping The class mapping
+         */
+        void unregisterClassMapping(final MappingSet mappings, final ClassMapping<?, ?> mapping);
+
+        /**
+         * Advances the modification epoch of the mapping set.
+         *
+         * @param mappings The mapping set
+         * @see MappingSet#getModificationEpoch()
+         */
+        void markModified(final MappingSet mappings);
+
+    }
+
+    /**
+     * The internals of {@link AbstractClassMappingImpl}.
+     */
+    public interface ClassMappingAccess {
+
+        /**
+         * Safely publishes the members of the given class mapping, as a
+         * {@link MappingSet#beginIngestion() bulk ingestion} ends.
+         *
+         * @param mapping The class mapping
+         */
+        void publish(final AbstractClassMappingImpl<?, ?> mapping);
+
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.impl;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Completes every class mapping of a {@link MappingSet}, in parallel.
+ *
+ * <p>The class hierarchy is built once, up-front, after which each class
+ * mapping is completed as soon as all of its parents have been - so the
+ * completion of unrelated hierarchies, and of siblings, proceeds
+ * concurrently, and no class mapping waits on another.</p>
+ *
+ * <p>As {@link InheritanceProvider}s needn't be thread-safe, the class
+ * information is gathered while building the hierarchy, and any later
+ * requests are made of the provider under its lock.</p>
+ *
+ * @since 1.0.0
+ * @see MappingSet#completeAll(InheritanceProvider, Executor)
+ */
+public final class MappingSetCompleter {
+
+    private final MappingSet mappings;
+    private final SharedInheritanceProvider provider;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    /**
+     * Creates a completer for the given mapping set, building its class
+     * hierarchy.
+     *
+     * <p>Parent classes that have no mappings will be created, as they
+     * would be by completing each class individually.</p>
+     *
+     * @param mappings The mapping set
+     * @param provider The inheritance provider
+     */
+    public MappingSetCompleter(final MappingSet mappings, final InheritanceProvider provider) {
+        this.mappings = mappings;
+        this.provider = new SharedInheritanceProvider(provider);
+
+        final List<ClassMapping<?, ?>> classes = new ArrayList<>();
+        for (final TopLevelClassMapping klass : mappings.getTopLevelClassMappings()) {
+            collect(klass, classes);
+        }
+        for (final ClassMapping<?, ?> klass : classes) {
+            visit(klass.getFullObfuscatedName(), null);
+        }
+    }
+
+    private static void collect(final ClassMapping<?, ?> klass, final List<ClassMapping<?, ?>> classes) {
+        classes.add(klass);
+        for (final InnerClassMapping inner : klass.getInnerClassMappings()) {
+            collect(inner, classes);
+        }
+    }
+
+    private Node visit(final String name, InheritanceProvider.ClassInfo info) {
+        if (nodes.containsKey(name)) return nodes.get(name);
+
+        if (info == null) {
+            info = provider.provide(name).orElse(null);
+            if (info == null) {
+                // Classes without information can't be completed
+                nodes.put(name, null);
+                return null;
+            }
+        }
+
+        final Node node = new Node(mappings.getOrCreateClassMapping(name), info);
+        nodes.put(name, node);
+        for (final InheritanceProvider.ClassInfo parentInfo : info.provideParents(provider)) {
+            final Node parent = visit(parentInfo.getName(), parentInfo);
+
+            // Should the hierarchy be cyclic, the edge back to a class being visited is ignored
+            if (parent != null && !parent.visiting) {
+                parent.children.add(node);
+                node.pending.incrementAndGet();
+            }
+        }
+        node.visiting = false;
+        return node;
+    }
+
+    /**
+     * Completes each of the class mappings, using the given executor,
+     * and waits for them all to be completed.
+     *
+     * @param executor The executor
+     * @throws RuntimeException Should completing any class mapping fail,
+     *                          or the waiting thread be interrupted
+     */
+    public void complete(final Executor executor) {
+        final List<Node> roots = new ArrayList<>();
+        int count = 0;
+        for (final Node node : nodes.values()) {
+            if (node == null) continue;
+            count++;
+            if (node.pending.get() == 0) roots.add(node);
+        }
+
+        final CountDownLatch remaining = new CountDownLatch(count);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (final Node root : roots) {
+            schedule(root, executor, remaining, failure);
+        }
+
+        try {
+            remaining.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Mapping completion was interrupted", ex);
+        }
+        if (failure.get() != null) {
+            throw new RuntimeException("Mapping completion failed", failure.get());
+        }
+    }
+
+    private void schedule(final Node node, final Executor executor, final CountDownLatch remaining,
+            final AtomicReference<Throwable> failure) {
+        executor.execute(() -> {
+            try {
+                node.mapping.complete(provider, node.info);
+            } catch (final Throwable ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                // Children are still scheduled after a failure, so the latch always reaches zero
+                for (final Node child : node.children) {
+                    if (child.pending.decrementAndGet() == 0) {
+                        schedule(child, executor, remaining, failure);
+                    }
+                }
+                remaining.countDown();
+            }
+        });
+    }
+
+    /**
+     * A class mapping within the hierarchy.
+     */
+    private static final class Node {
+
+        final ClassMapping<?, ?> mapping;
+        final InheritanceProvider.ClassInfo info;
+        final List<Node> children = new ArrayList<>();
+
+        /**
+         * The number of parents yet to be completed.
+         */
+        final AtomicInteger pending = new AtomicInteger();
+
+        boolean visiting = true;
+
+        Node(final ClassMapping<?, ?> mapping, final InheritanceProvider.ClassInfo info) {
+            this.mapping = mapping;
+            this.info = info;
+        }
+
+    }
+
+    /**
+     * A thread-safe view of an inheritance provider, which caches the
+     * information it provides.
+     */
+    private static final class SharedInheritanceProvider implements InheritanceProvider {
+
+        private final InheritanceProvider provider;
+        private final Map<String, Optional<ClassInfo>> cache = new ConcurrentHashMap<>();
+
+        SharedInheritanceProvider(final InheritanceProvider provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public Optional<ClassInfo> provide(final String klass) {
+            final Optional<ClassInfo> info = cache.get(klass);
+            if (info != null) return info;
+
+            synchronized (provider) {
+                return cache.computeIfAbsent(klass, provider::provide);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.model.AbstractClassMappingImpl;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * An abstract read-only implementation of {@link ClassMapping}, storing
+ * its members in {@link FrozenTable}s.
+ *
+ * <p>Frozen class mappings cannot be completed, as completion requires
+ * inserting the inherited mappings. Should inheritance be needed, the
+ * mappings should be completed before being frozen.</p>
+ *
+ * @param <M> The type of the class mapping
+ * @param <P> The type of the parent
+ *
+ * @since 1.0.0
+ */
+public abstract class AbstractFrozenClassMapping<M extends ClassMapping<M, P>, P>
+        extends AbstractFrozenMapping<M, P>
+        implements ClassMapping<M, P> {
+
+    private FrozenTable<FieldSignature, FieldMapping> fields = FrozenTable.empty();
+    private FrozenTable<String, FieldMapping> fieldsByName = FrozenTable.empty();
+    private FrozenTable<MethodSignature, MethodMapping> methods = FrozenTable.empty();
+    private FrozenTable<String, InnerClassMapping> innerClasses = FrozenTable.empty();
+    private boolean populated;
+
+    /**
+     * Creates a new frozen class mapping, without any members.
+     *
+     * @param mappings The mappings set, this mapping belongs to
+     * @param obfuscatedName The obfuscated name
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     * @see #populate(FrozenTable, FrozenTable, FrozenTable, FrozenTable)
+     */
+    protected AbstractFrozenClassMapping(final MappingSet mappings, final String obfuscatedName, final String deobfuscatedName,
+            final List<String> javadoc) {
+        super(mappings, obfuscatedName, deobfuscatedName, javadoc);
+    }
+
+    /**
+     * Sets the members of the class mapping. As the members need to
+     * reference their parent, this is done after construction - but may
+     * only be done once, and must be done before the mapping is shared.
+     *
+     * @param fields The field mappings, by signature
+     * @param fieldsByName The field mappings, by obfuscated name
+     * @param methods The method mappings, by signature
+     * @param innerClasses The inner class mappings, by obfuscated name
+     * @throws IllegalStateException If the class mapping has already
+     *                               been populated
+     */
+    public void populate(final FrozenTable<FieldSignature, FieldMapping> fields,
+            final FrozenTable<String, FieldMapping> fieldsByName,
+            final FrozenTable<MethodSignature, MethodMapping> methods,
+            final FrozenTable<String, InnerClassMapping> innerClasses) {
+        if (populated) {
+            throw new IllegalStateException("Frozen class mapping has already been populated!");
+        }
+
+        this.fields = fields;
+        this.fieldsByName = fieldsByName;
+        this.methods = methods;
+        this.innerClasses = innerClasses;
+        populated = true;
+    }
+
+    /**
+     * Populates this class mapping with frozen copies of the members of
+     * the given class mapping.
+     *
+     * @param source The class mapping to copy
+     */
+    void populateFrom(final ClassMapping<?, ?> source) {
+        final Object[] fieldSignatures = new Object[source.getFieldMappings().size()];
+        final Object[] fieldMappings = new Object[fieldSignatures.length];
+        int i = 0;
+        for (final FieldMapping field : source.getFieldMappings()) {
+            fieldSignatures[i] = field.getSignature();
+            fieldMappings[i++] = new FrozenFieldMapping(this, field);
+        }
+        final FrozenTable<FieldSignature, FieldMapping> fields = FrozenTable.of(fieldSignatures, fieldMappings);
+
+        // Retain the same field for each name as the source, resolving it to the frozen copy
+        final Map<String, FieldMapping> sourceByName = source.getFieldsByName();
+        final Object[] fieldNames = new Object[sourceByName.size()];
+        final Object[] fieldsForNames = new Object[fieldNames.length];
+        i = 0;
+        for (final Map.Entry<String, FieldMapping> entry : sourceByName.entrySet()) {
+            fieldNames[i] = entry.getKey();
+            final FieldMapping frozen = fields.get(entry.getValue().getSignature());
+            fieldsForNames[i++] = frozen != null ? frozen : new FrozenFieldMapping(this, entry.getValue());
+        }
+
+        final Object[] methodSignatures = new Object[source.getMethodMappings().size()];
+        final Object[] methodMappings = new Object[methodSignatures.length];
+        i = 0;
+        for (final MethodMapping method : source.getMethodMappings()) {
+            methodSignatures[i] = method.getSignature();
+            methodMappings[i++] = new FrozenMethodMapping(this, method);
+        }
+
+        final Object[] innerNames = new Object[source.getInnerClassMappings().size()];
+        final Object[] innerMappings = new Object[innerNames.length];
+        i = 0;
+        for (final InnerClassMapping klass : source.getInnerClassMappings()) {
+            final FrozenInnerClassMapping frozen = new FrozenInnerClassMapping(this, klass);
+            frozen.populateFrom(klass);
+            innerNames[i] = klass.getObfuscatedName();
+            innerMappings[i++] = frozen;
+        }
+
+        populate(
+                fields,
+                FrozenTable.of(fieldNames, fieldsForNames),
+                FrozenTable.of(methodSignatures, methodMappings),
+                FrozenTable.of(innerNames, innerMappings)
+        );
+    }
+
+    @Override
+    public Collection<FieldMapping> getFieldMappings() {
+        return fields.values();
+    }
+
+    @Override
+    public Map<String, FieldMapping> getFieldsByName() {
+        return fieldsByName.toMap();
+    }
+
+    @Override
+    public Optional<FieldMapping> getFieldMapping(final FieldSignature signature) {
+        return Optional.ofNullable(fields.get(signature));
+    }
+
+    @Override
+    public Optional<FieldMapping> getFieldMapping(final String obfuscatedName) {
+        return Optional.ofNullable(fieldsByName.get(obfuscatedName));
+    }
+
+    @Override
+    public Optional<FieldMapping> computeFieldMapping(final FieldSignature signature) {
+        // If the field type is not provided, lookup up only the field name
+        if (!signature.getType().isPresent()) {
+            return getFieldMapping(signature.getName());
+        }
+
+        // Otherwise, look up the signature as-is, but attempt falling back to a signature without type.
+        // As the mapping can't be modified, the untyped mapping is returned as-is.
+        final FieldMapping mapping = fields.get(signature);
+        if (mapping != null) return Optional.of(mapping);
+        return Optional.ofNullable(fields.get(new FieldSignature(signature.getName())));
+    }
+
+    @Override
+    public FieldMapping createFieldMapping(final FieldSignature signature, final String deobfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public boolean hasFieldMapping(final FieldSignature signature) {
+        return fields.containsKey(signature);
+    }
+
+    @Override
+    public boolean hasFieldMapping(final String obfuscatedName) {
+        return fieldsByName.containsKey(obfuscatedName);
+    }
+
+    @Override
+    public void removeFieldMapping(final FieldSignature signature) {
+        throw frozen();
+    }
+
+    @Override
+    public void removeFieldMapping(final FieldMapping mapping) {
+        throw frozen();
+    }
+
+    @Override
+    public void removeFieldMapping(final String obfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public Collection<MethodMapping> getMethodMappings() {
+        return methods.values();
+    }
+
+    @Override
+    public Optional<MethodMapping> getMethodMapping(final MethodSignature signature) {
+        return Optional.ofNullable(methods.get(signature));
+    }
+
+    @Override
+    public MethodMapping createMethodMapping(final MethodSignature signature, final String deobfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public boolean hasMethodMapping(final MethodSignature signature) {
+        return methods.containsKey(signature);
+    }
+
+    @Override
+    public void removeMethodMapping(final MethodSignature signature) {
+        throw frozen();
+    }
+
+    @Override
+    public void removeMethodMapping(final MethodMapping mapping) {
+        throw frozen();
+    }
+
+    @Override
+    public Collection<InnerClassMapping> getInnerClassMappings() {
+        return innerClasses.values();
+    }
+
+    @Override
+    public Optional<InnerClassMapping> getInnerClassMapping(final String obfuscatedName) {
+        return Optional.ofNullable(innerClasses.get(obfuscatedName));
+    }
+
+    @Override
+    public InnerClassMapping createInnerClassMapping(final String obfuscatedName, final String deobfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public boolean hasInnerClassMapping(final String obfuscatedName) {
+        return innerClasses.containsKey(obfuscatedName);
+    }
+
+    @Override
+    public void removeInnerClassMapping(final String obfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public void removeInnerClassMapping(final ClassMapping<?, ?> mapping) {
+        throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Frozen class mappings are always considered complete, as they
+     * cannot be modified.</p>
+     */
+    @Override
+    public boolean isComplete() {
+        return true;
+    }
+
+    @Override
+    public void complete(final InheritanceProvider provider, final InheritanceProvider.ClassInfo info) {
+    }
+
+    @Override
+    protected StringJoiner buildToString() {
+        return super.buildToString()
+                .add("fields=" + getFieldMappings())
+                .add("methods=" + getMethodMappings())
+                .add("innerClasses=" + getInnerClassMappings());
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) return false;
+        if (!(obj instanceof ClassMapping)) return false;
+
+        return AbstractClassMappingImpl.membersEqual(this, (ClassMapping<?, ?>) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), AbstractClassMappingImpl.membersHashCode(this));
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.Mapping;
+import org.cadixdev.lorenz.util.MappingChangedListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * An abstract read-only implementation of {@link Mapping}.
+ *
+ * <p>As frozen mappings can never be renamed, registered listeners
+ * will never be called - and so they aren't retained.</p>
+ *
+ * @param <M> The type of the mapping
+ * @param <P> The type of the parent
+ *
+ * @since 1.0.0
+ */
+public abstract class AbstractFrozenMapping<M extends Mapping<M, P>, P> implements Mapping<M, P> {
+
+    private final MappingSet mappings;
+    private final String obfuscatedName;
+    private final String deobfuscatedName;
+    private final List<String> javadoc;
+
+    /**
+     * Creates a new frozen mapping.
+     *
+     * @param mappings The mappings set, this mapping belongs to
+     * @param obfuscatedName The obfuscated name
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     */
+    protected AbstractFrozenMapping(final MappingSet mappings, final String obfuscatedName, final String deobfuscatedName,
+            final List<String> javadoc) {
+        this.mappings = mappings;
+        this.obfuscatedName = obfuscatedName;
+        this.deobfuscatedName = deobfuscatedName;
+        this.javadoc = javadoc.isEmpty() ?
+                Collections.emptyList() :
+                Collections.unmodifiableList(Arrays.asList(javadoc.toArray(new String[0])));
+    }
+
+    /**
+     * Creates the exception thrown when attempting to modify a frozen
+     * mapping.
+     *
+     * @return The exception
+     */
+    static UnsupportedOperationException frozen() {
+        return new UnsupportedOperationException("Frozen mappings cannot be modified!");
+    }
+
+    @Override
+    public String getObfuscatedName() {
+        return obfuscatedName;
+    }
+
+    @Override
+    public String getDeobfuscatedName() {
+        return deobfuscatedName;
+    }
+
+    @Override
+    public M setDeobfuscatedName(final String deobfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public M addListener(final MappingChangedListener<M, P> listener) {
+        return (M) this;
+    }
+
+    @Override
+    public void removeListener(final MappingChangedListener<M, P> listener) {
+    }
+
+    @Override
+    public boolean hasDeobfuscatedName() {
+        return !Objects.equals(obfuscatedName, deobfuscatedName);
+    }
+
+    @Override
+    public List<String> getJavadoc() {
+        return javadoc;
+    }
+
+    @Override
+    public MappingSet getMappings() {
+        return mappings;
+    }
+
+    protected StringJoiner buildToString() {
+        return new StringJoiner(", ", getClass().getSimpleName() + "{", "}")
+                .add("obfuscatedName=" + obfuscatedName)
+                .add("deobfuscatedName=" + deobfuscatedName);
+    }
+
+    @Override
+    public String toString() {
+        return buildToString().toString();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Mapping)) return false;
+
+        final Mapping<?, ?> that = (Mapping<?, ?>) obj;
+        return Objects.equals(obfuscatedName, that.getObfuscatedName()) &&
+                Objects.equals(deobfuscatedName, that.getDeobfuscatedName());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(obfuscatedName, deobfuscatedName);
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.lorenz.model.Mapping;
+import org.cadixdev.lorenz.model.MemberMapping;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An abstract read-only implementation of {@link MemberMapping}.
+ *
+ * @param <M> The type of the member mapping
+ * @param <P> The type of the parent mapping
+ *
+ * @since 1.0.0
+ */
+public abstract class AbstractFrozenMemberMapping<M extends MemberMapping<M, P>, P extends Mapping>
+        extends AbstractFrozenMapping<M, P>
+        implements MemberMapping<M, P> {
+
+    private final P parent;
+
+    /**
+     * Creates a new frozen member mapping, from the given parameters.
+     *
+     * @param parent The mapping, this mapping belongs to
+     * @param obfuscatedName The obfuscated name
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     */
+    protected AbstractFrozenMemberMapping(final P parent, final String obfuscatedName, final String deobfuscatedName,
+            final List<String> javadoc) {
+        super(parent.getMappings(), obfuscatedName, deobfuscatedName, javadoc);
+        this.parent = parent;
+    }
+
+    @Override
+    public P getParent() {
+        return parent;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), parent.getFullObfuscatedName(), parent.getFullDeobfuscatedName());
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A read-only implementation of {@link FieldMapping}.
+ *
+ * @since 1.0.0
+ */
+public class FrozenFieldMapping
+        extends AbstractFrozenMemberMapping<FieldMapping, ClassMapping>
+        implements FieldMapping {
+
+    private final FieldSignature signature;
+    private FieldSignature deobfuscatedSignature;
+
+    /**
+     * Creates a new frozen field mapping, from the given parameters.
+     *
+     * @param parentClass The class mapping, this mapping belongs to
+     * @param signature The obfuscated signature
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     */
+    public FrozenFieldMapping(final ClassMapping parentClass, final FieldSignature signature, final String deobfuscatedName,
+            final List<String> javadoc) {
+        super(parentClass, signature.getName(), deobfuscatedName, javadoc);
+        this.signature = signature;
+    }
+
+    /**
+     * Creates a new frozen field mapping, copying the given mapping.
+     *
+     * @param parentClass The class mapping, this mapping belongs to
+     * @param source The mapping to copy
+     */
+    FrozenFieldMapping(final ClassMapping parentClass, final FieldMapping source) {
+        this(parentClass, source.getSignature(), source.getDeobfuscatedName(), source.getJavadoc());
+    }
+
+    @Override
+    public FieldSignature getSignature() {
+        return signature;
+    }
+
+    @Override
+    public FieldSignature getDeobfuscatedSignature() {
+        // The signature can't change, so it is safe to cache - racing threads will compute equal values
+        FieldSignature deobfuscatedSignature = this.deobfuscatedSignature;
+        if (deobfuscatedSignature == null) {
+            this.deobfuscatedSignature = deobfuscatedSignature = FieldMapping.super.getDeobfuscatedSignature();
+        }
+        return deobfuscatedSignature;
+    }
+
+    @Override
+    public String getFullObfuscatedName() {
+        return getParent().getFullObfuscatedName() + '/' + getObfuscatedName();
+    }
+
+    @Override
+    public String getFullDeobfuscatedName() {
+        return getParent().getFullDeobfuscatedName() + '/' + getDeobfuscatedName();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) return false;
+        if (!(obj instanceof FieldMapping)) return false;
+
+        final FieldMapping that = (FieldMapping) obj;
+        return Objects.equals(signature, that.getSignature());
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.InnerClassMapping;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A read-only implementation of {@link InnerClassMapping}.
+ *
+ * @since 1.0.0
+ */
+public class FrozenInnerClassMapping
+        extends AbstractFrozenClassMapping<InnerClassMapping, ClassMapping>
+        implements InnerClassMapping {
+
+    private final ClassMapping parentClass;
+    private final String fullObfuscatedName;
+    private final String fullDeobfuscatedName;
+
+    /**
+     * Creates a new frozen inner class mapping, from the given parameters.
+     *
+     * @param parentClass The class mapping, this mapping belongs to
+     * @param obfuscatedName The obfuscated name
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     */
+    public FrozenInnerClassMapping(final ClassMapping parentClass, final String obfuscatedName, final String deobfuscatedName,
+            final List<String> javadoc) {
+        super(parentClass.getMappings(), obfuscatedName, deobfuscatedName, javadoc);
+        this.parentClass = parentClass;
+        // As neither this mapping, nor its parents, can be renamed - the full names can be computed ahead of time
+        this.fullObfuscatedName = parentClass.getFullObfuscatedName() + '$' + obfuscatedName;
+        this.fullDeobfuscatedName = parentClass.getFullDeobfuscatedName() + '$' + deobfuscatedName;
+    }
+
+    /**
+     * Creates a new frozen inner class mapping, copying the names of the
+     * given mapping.
+     *
+     * @param parentClass The class mapping, this mapping belongs to
+     * @param source The mapping to copy
+     */
+    FrozenInnerClassMapping(final ClassMapping parentClass, final InnerClassMapping source) {
+        this(parentClass, source.getObfuscatedName(), source.getDeobfuscatedName(), source.getJavadoc());
+    }
+
+    @Override
+    public ClassMapping getParent() {
+        return parentClass;
+    }
+
+    @Override
+    public String getFullObfuscatedName() {
+        return fullObfuscatedName;
+    }
+
+    @Override
+    public String getFullDeobfuscatedName() {
+        return fullDeobfuscatedName;
+    }
+
+    @Override
+    public String getSimpleObfuscatedName() {
+        return stripAsciiDigits(getObfuscatedName());
+    }
+
+    @Override
+    public String getSimpleDeobfuscatedName() {
+        return stripAsciiDigits(getDeobfuscatedName());
+    }
+
+    @Override
+    public boolean hasDeobfuscatedName() {
+        // If a parent class has a deobfuscated name, then we do too, since we inherit it
+        return getParent().hasDeobfuscatedName() || super.hasDeobfuscatedName();
+    }
+
+    private static String stripAsciiDigits(final String name) {
+        for (int pos = 0; pos < name.length(); pos++) {
+            final char c = name.charAt(pos);
+            if (c < '0' || c > '9') {
+                return name.substring(pos);
+            }
+        }
+        return "";
+    }
+
+    @Override
+    public InnerClassMapping setDeobfuscatedName(final String deobfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) return false;
+        return obj instanceof InnerClassMapping;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), parentClass.getFullObfuscatedName(), parentClass.getFullDeobfuscatedName());
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A read-only snapshot of a {@link MappingSet}.
+ *
+ * <p>All of the mappings are stored in compact, array-backed tables,
+ * and every class mapping is additionally indexed by its full obfuscated
+ * name - so {@link #getClassMapping(String)} is a single lookup, rather
+ * than a walk through the outer classes. As nothing can be modified, the
+ * snapshot can be freely shared between threads.</p>
+ *
+ * <p>Any attempt to modify the mappings will throw an
+ * {@link UnsupportedOperationException}. Operations that produce new
+ * mapping sets, such as {@link #copy()} and {@link #reverse()}, produce
+ * regular (mutable) mapping sets, using the model factory of the
+ * original set.</p>
+ *
+ * @since 1.0.0
+ * @see MappingSet#freeze()
+ */
+public class FrozenMappingSet extends MappingSet {
+
+    private final FrozenTable<String, TopLevelClassMapping> topLevelClasses;
+    private final FrozenTable<String, ClassMapping<?, ?>> classes;
+
+    /**
+     * Creates a frozen snapshot of the given mapping set.
+     *
+     * @param source The mapping set to freeze
+     */
+    public FrozenMappingSet(final MappingSet source) {
+        super(source.getModelFactory(), source.getSymbolTable());
+
+        final Collection<TopLevelClassMapping> sourceClasses = source.getTopLevelClassMappings();
+        final Object[] names = new Object[sourceClasses.size()];
+        final Object[] mappings = new Object[names.length];
+        final List<ClassMapping<?, ?>> all = new ArrayList<>(names.length);
+
+        int i = 0;
+        for (final TopLevelClassMapping klass : sourceClasses) {
+            final FrozenTopLevelClassMapping frozen = new FrozenTopLevelClassMapping(this, klass);
+            frozen.populateFrom(klass);
+            names[i] = frozen.getObfuscatedName();
+            mappings[i++] = frozen;
+            collect(frozen, all);
+        }
+        this.topLevelClasses = FrozenTable.of(names, mappings);
+
+        final Object[] classNames = new Object[all.size()];
+        for (i = 0; i < classNames.length; i++) {
+            classNames[i] = all.get(i).getFullObfuscatedName();
+        }
+        this.classes = FrozenTable.of(classNames, all.toArray());
+    }
+
+    private static void collect(final ClassMapping<?, ?> klass, final List<ClassMapping<?, ?>> all) {
+        all.add(klass);
+        for (final InnerClassMapping inner : klass.getInnerClassMappings()) {
+            collect(inner, all);
+        }
+    }
+
+    @Override
+    public Collection<TopLevelClassMapping> getTopLevelClassMappings() {
+        return topLevelClasses.values();
+    }
+
+    @Override
+    public TopLevelClassMapping createTopLevelClassMapping(final String obfuscatedName, final String deobfuscatedName) {
+        throw AbstractFrozenMapping.frozen();
+    }
+
+    @Override
+    public Optional<TopLevelClassMapping> getTopLevelClassMapping(final String obfuscatedName) {
+        TopLevelClassMapping mapping = topLevelClasses.get(obfuscatedName);
+        if (mapping == null && obfuscatedName.indexOf('.') != -1) {
+            mapping = topLevelClasses.get(obfuscatedName.replace('.', '/'));
+        }
+        return Optional.ofNullable(mapping);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the mappings can't be modified, should the mapping not
+     * already exist a transient identity mapping is returned - which
+     * isn't added to the snapshot.</p>
+     */
+    @Override
+    public TopLevelClassMapping getOrCreateTopLevelClassMapping(final String obfuscatedName) {
+        final TopLevelClassMapping mapping = getTopLevelClassMapping(obfuscatedName).orElse(null);
+        if (mapping != null) return mapping;
+        return new FrozenTopLevelClassMapping(this, obfuscatedName, obfuscatedName, Collections.emptyList());
+    }
+
+    @Override
+    public boolean hasTopLevelClassMapping(final String obfuscatedName) {
+        return getTopLevelClassMapping(obfuscatedName).isPresent();
+    }
+
+    @Override
+    public Optional<? extends ClassMapping<?, ?>> getClassMapping(final String obfuscatedName) {
+        ClassMapping<?, ?> mapping = classes.get(obfuscatedName);
+        if (mapping == null && obfuscatedName.indexOf('.') != -1) {
+            // Only the outer-most class name can use '.' as a separator
+            final int innerIndex = obfuscatedName.indexOf('$');
+            mapping = classes.get(innerIndex == -1 ?
+                    obfuscatedName.replace('.', '/') :
+                    obfuscatedName.substring(0, innerIndex).replace('.', '/') + obfuscatedName.substring(innerIndex));
+        }
+        return Optional.ofNullable(mapping);
+    }
+
+    @Override
+    public void removeClassMapping(final String obfuscatedName) {
+        throw AbstractFrozenMapping.frozen();
+    }
+
+    @Override
+    public void removeClassMapping(final ClassMapping<?, ?> mapping) {
+        throw AbstractFrozenMapping.frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the mappings can't be modified, this is equivalent to
+     * {@link #getClassMapping(String)}.</p>
+     */
+    @Override
+    public Optional<? extends ClassMapping<?, ?>> computeClassMapping(final String obfuscatedName) {
+        return getClassMapping(obfuscatedName);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the mappings can't be modified, should the mapping not
+     * already exist a transient identity mapping is returned - which
+     * isn't added to the snapshot. This allows remappers to look up the
+     * members of classes that aren't mapped, such as those of the
+     * JDK.</p>
+     */
+    @Override
+    public ClassMapping<?, ?> getOrCreateClassMapping(final String obfuscatedName) {
+        final ClassMapping<?, ?> mapping = getClassMapping(obfuscatedName).orElse(null);
+        if (mapping != null) return mapping;
+
+        final int lastIndex = obfuscatedName.lastIndexOf('$');
+        if (lastIndex == -1) return getOrCreateTopLevelClassMapping(obfuscatedName);
+
+        // Unmapped inner classes still inherit the de-obfuscated name of their parent
+        final String innerClassName = obfuscatedName.substring(lastIndex + 1);
+        return new FrozenInnerClassMapping(getOrCreateClassMapping(obfuscatedName.substring(0, lastIndex)),
+                innerClassName, innerClassName, Collections.emptyList());
+    }
+
+    /**
+     * Gets the number of class mappings, including inner class mappings,
+     * within the snapshot.
+     *
+     * @return The number of class mappings
+     */
+    public int getClassMappingCount() {
+        return classes.size();
+    }
+
+    @Override
+    public Iterator<TopLevelClassMapping> iterator() {
+        return topLevelClasses.values().iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the snapshot is already frozen, it is returned as-is.</p>
+     */
+    @Override
+    public FrozenMappingSet freeze() {
+        return this;
+    }
+
+}
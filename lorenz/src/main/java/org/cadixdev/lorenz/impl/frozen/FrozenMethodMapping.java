@@ -0,0 +1,184 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.MethodParameterMapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * A read-only implementation of {@link MethodMapping}, storing its
+ * parameter mappings in an array indexed by the parameter index.
+ *
+ * @since 1.0.0
+ */
+public class FrozenMethodMapping
+        extends AbstractFrozenMemberMapping<MethodMapping, ClassMapping>
+        implements MethodMapping {
+
+    private static final MethodParameterMapping[] NO_PARAMETERS = new MethodParameterMapping[0];
+
+    private final MethodSignature signature;
+    private MethodParameterMapping[] parameters = NO_PARAMETERS;
+    private Collection<MethodParameterMapping> parameterView = Collections.emptyList();
+    private MethodSignature deobfuscatedSignature;
+
+    /**
+     * Creates a new frozen method mapping, without any parameter mappings.
+     *
+     * @param parentClass The class mapping, this mapping belongs to
+     * @param signature The signature
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     * @see #populate(List)
+     */
+    public FrozenMethodMapping(final ClassMapping parentClass, final MethodSignature signature, final String deobfuscatedName,
+            final List<String> javadoc) {
+        super(parentClass, signature.getName(), deobfuscatedName, javadoc);
+        this.signature = signature;
+    }
+
+    /**
+     * Creates a new frozen method mapping, copying the given mapping and
+     * its parameter mappings.
+     *
+     * @param parentClass The class mapping, this mapping belongs to
+     * @param source The mapping to copy
+     */
+    FrozenMethodMapping(final ClassMapping parentClass, final MethodMapping source) {
+        this(parentClass, source.getSignature(), source.getDeobfuscatedName(), source.getJavadoc());
+
+        if (!source.getParameterMappings().isEmpty()) {
+            final List<MethodParameterMapping> parameters = new ArrayList<>(source.getParameterMappings().size());
+            for (final MethodParameterMapping param : source.getParameterMappings()) {
+                parameters.add(new FrozenMethodParameterMapping(
+                        this, param.getIndex(), param.getDeobfuscatedName(), param.getJavadoc()
+                ));
+            }
+            this.populate(parameters);
+        }
+    }
+
+    /**
+     * Sets the parameter mappings of the method mapping. As the parameter
+     * mappings need to reference their parent, this is done after
+     * construction - but may only be done once, and must be done before
+     * the mapping is shared.
+     *
+     * @param parameters The parameter mappings
+     * @throws IllegalStateException If the method mapping has already
+     *                               been populated
+     */
+    public void populate(final List<MethodParameterMapping> parameters) {
+        if (this.parameters != NO_PARAMETERS) {
+            throw new IllegalStateException("Frozen method mapping has already been populated!");
+        }
+        if (parameters.isEmpty()) return;
+
+        int max = 0;
+        for (final MethodParameterMapping param : parameters) {
+            max = Math.max(max, param.getIndex());
+        }
+
+        final MethodParameterMapping[] table = new MethodParameterMapping[max + 1];
+        final MethodParameterMapping[] ordered = parameters.toArray(NO_PARAMETERS);
+        for (final MethodParameterMapping param : ordered) {
+            table[param.getIndex()] = param;
+        }
+
+        this.parameters = table;
+        this.parameterView = Collections.unmodifiableList(Arrays.asList(ordered));
+    }
+
+    @Override
+    public MethodSignature getSignature() {
+        return signature;
+    }
+
+    @Override
+    public MethodSignature getDeobfuscatedSignature() {
+        // The signature can't change, so it is safe to cache - racing threads will compute equal values
+        MethodSignature deobfuscatedSignature = this.deobfuscatedSignature;
+        if (deobfuscatedSignature == null) {
+            this.deobfuscatedSignature = deobfuscatedSignature = MethodMapping.super.getDeobfuscatedSignature();
+        }
+        return deobfuscatedSignature;
+    }
+
+    @Override
+    public Collection<MethodParameterMapping> getParameterMappings() {
+        return parameterView;
+    }
+
+    @Override
+    public MethodParameterMapping createParameterMapping(final int index, final String deobfuscatedName) {
+        throw frozen();
+    }
+
+    @Override
+    public Optional<MethodParameterMapping> getParameterMapping(final int index) {
+        return Optional.ofNullable(index >= 0 && index < parameters.length ? parameters[index] : null);
+    }
+
+    @Override
+    public boolean hasParameterMapping(final int index) {
+        return index >= 0 && index < parameters.length && parameters[index] != null;
+    }
+
+    @Override
+    public String getFullObfuscatedName() {
+        return getParent().getFullObfuscatedName() + '/' + getObfuscatedName();
+    }
+
+    @Override
+    public String getFullDeobfuscatedName() {
+        return getParent().getFullDeobfuscatedName() + '/' + getDeobfuscatedName();
+    }
+
+    @Override
+    protected StringJoiner buildToString() {
+        return super.buildToString()
+                .add("obfuscatedSignature=" + getObfuscatedDescriptor())
+                .add("deobfuscatedSignature=" + getDeobfuscatedDescriptor())
+                .add("parameters=" + getParameterMappings());
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) return false;
+        if (!(obj instanceof MethodMapping)) return false;
+
+        final MethodMapping that = (MethodMapping) obj;
+        return Objects.equals(signature, that.getSignature());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), signature);
+    }
+
+}
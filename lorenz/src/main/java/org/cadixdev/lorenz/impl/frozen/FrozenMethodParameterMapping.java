@@ -0,0 +1,70 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.MethodParameterMapping;
+
+import java.util.List;
+
+/**
+ * A read-only implementation of {@link MethodParameterMapping}.
+ *
+ * @since 1.0.0
+ */
+public class FrozenMethodParameterMapping
+        extends AbstractFrozenMemberMapping<MethodParameterMapping, MethodMapping>
+        implements MethodParameterMapping {
+
+    private final int index;
+
+    /**
+     * Creates a new frozen method parameter mapping, from the given parameters.
+     *
+     * @param parent The mapping, this mapping belongs to
+     * @param index The index of the parameter
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     */
+    public FrozenMethodParameterMapping(final MethodMapping parent, final int index, final String deobfuscatedName,
+            final List<String> javadoc) {
+        super(parent, String.valueOf(index), deobfuscatedName, javadoc);
+        this.index = index;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String getFullObfuscatedName() {
+        return getObfuscatedName();
+    }
+
+    @Override
+    public String getFullDeobfuscatedName() {
+        return getDeobfuscatedName();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) return false;
+        return obj instanceof MethodParameterMapping;
+    }
+
+}
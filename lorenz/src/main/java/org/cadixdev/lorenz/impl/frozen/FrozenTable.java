@@ -0,0 +1,223 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable, array-backed lookup table used by the frozen models.
+ *
+ * <p>Small tables are searched linearly, larger tables are indexed
+ * using an open-addressing table of array indices. Iteration order is
+ * the order the entries were given in.</p>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ *
+ * @since 1.0.0
+ */
+public final class FrozenTable<K, V> {
+
+    /**
+     * The largest table that will be searched linearly, rather than
+     * through the index.
+     */
+    private static final int LINEAR_THRESHOLD = 8;
+
+    private static final FrozenTable<?, ?> EMPTY = new FrozenTable<>(new Object[0], new Object[0]);
+
+    /**
+     * Gets the empty table.
+     *
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     * @return The empty table
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> FrozenTable<K, V> empty() {
+        return (FrozenTable<K, V>) EMPTY;
+    }
+
+    /**
+     * Creates a table from the entries of the given map, in its
+     * iteration order.
+     *
+     * @param map The map to copy
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     * @return The table
+     */
+    public static <K, V> FrozenTable<K, V> of(final Map<? extends K, ? extends V> map) {
+        if (map.isEmpty()) return empty();
+
+        final Object[] keys = new Object[map.size()];
+        final Object[] values = new Object[map.size()];
+        int i = 0;
+        for (final Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new FrozenTable<>(keys, values);
+    }
+
+    /**
+     * Creates a table from the given keys and values, which must be of
+     * the same length and must not contain duplicate keys.
+     *
+     * @param keys The keys
+     * @param values The values
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     * @return The table
+     */
+    public static <K, V> FrozenTable<K, V> of(final Object[] keys, final Object[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values must be of the same length!");
+        }
+        if (keys.length == 0) return empty();
+        return new FrozenTable<>(keys, values);
+    }
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int[] slots;
+
+    private FrozenTable(final Object[] keys, final Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.slots = keys.length > LINEAR_THRESHOLD ? index(keys) : null;
+    }
+
+    private static int[] index(final Object[] keys) {
+        // Slots hold the index of the entry plus one, so zero can signify an empty slot
+        final int[] slots = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+        final int mask = slots.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+        return slots;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the value for the given key.
+     *
+     * @param key The key
+     * @return The value, or {@code null} if the table has no such key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        if (slots == null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) return (V) values[i];
+            }
+            return null;
+        }
+
+        final int mask = slots.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            if (keys[entry - 1].equals(key)) return (V) values[entry - 1];
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Establishes whether the table contains the given key.
+     *
+     * @param key The key
+     * @return {@code true} if the table contains the key;
+     *         {@code false} otherwise
+     */
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Gets the number of entries in the table.
+     *
+     * @return The size
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the value at the given position in the table.
+     *
+     * @param index The position
+     * @return The value
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(final int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Gets an immutable view of the values of the table.
+     *
+     * @return The values
+     */
+    @SuppressWarnings("unchecked")
+    public Collection<V> values() {
+        return Collections.unmodifiableList(Arrays.asList((V[]) values));
+    }
+
+    /**
+     * Gets an immutable copy of the table, as a map.
+     *
+     * @return The map
+     */
+    @SuppressWarnings("unchecked")
+    public Map<K, V> toMap() {
+        final Map<K, V> map = new LinkedHashMap<>(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            map.put((K) keys[i], (V) values[i]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Computes the hash code of the table, as it would be for an
+     * equivalent {@link Map}.
+     *
+     * @return The hash code
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            hash += keys[i].hashCode() ^ values[i].hashCode();
+        }
+        return hash;
+    }
+
+}
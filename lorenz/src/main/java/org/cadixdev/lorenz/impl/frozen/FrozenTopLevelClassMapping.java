@@ -0,0 +1,63 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.frozen;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+
+import java.util.List;
+
+/**
+ * A read-only implementation of {@link TopLevelClassMapping}.
+ *
+ * @since 1.0.0
+ */
+public class FrozenTopLevelClassMapping
+        extends AbstractFrozenClassMapping<TopLevelClassMapping, MappingSet>
+        implements TopLevelClassMapping {
+
+    /**
+     * Creates a new frozen top-level class mapping, from the given parameters.
+     *
+     * @param mappings The mappings set, this mapping belongs to
+     * @param obfuscatedName The obfuscated name
+     * @param deobfuscatedName The de-obfuscated name
+     * @param javadoc The Javadoc of the mapping
+     */
+    public FrozenTopLevelClassMapping(final MappingSet mappings, final String obfuscatedName, final String deobfuscatedName,
+            final List<String> javadoc) {
+        super(mappings, obfuscatedName, deobfuscatedName, javadoc);
+    }
+
+    /**
+     * Creates a new frozen top-level class mapping, copying the names of
+     * the given mapping.
+     *
+     * @param mappings The mappings set, this mapping belongs to
+     * @param source The mapping to copy
+     */
+    FrozenTopLevelClassMapping(final MappingSet mappings, final TopLevelClassMapping source) {
+        this(mappings, source.getObfuscatedName(), source.getDeobfuscatedName(), source.getJavadoc());
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) return false;
+        return obj instanceof TopLevelClassMapping;
+    }
+
+}
@@ -22,16 +22,21 @@ import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.InternalAccess;
 import org.cadixdev.lorenz.model.ClassMapping;
 import org.cadixdev.lorenz.model.FieldMapping;
 import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.Mapping;
 import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.util.CompactMap;
+import org.cadixdev.lorenz.util.MappingChangedListener;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -52,11 +57,21 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
         extends AbstractMappingImpl<M, P>
         implements ClassMapping<M, P> {
 
-    private final Map<FieldSignature, FieldMapping> fields = new ConcurrentHashMap<>();
-    private final Map<String, FieldMapping> fieldsByName = new ConcurrentHashMap<>();
-    private final Map<MethodSignature, MethodMapping> methods = new ConcurrentHashMap<>();
-    private final Map<String, InnerClassMapping> innerClasses = new ConcurrentHashMap<>();
-    private boolean complete;
+    static {
+        InternalAccess.setClassMappingAccess(mapping -> mapping.publish());
+    }
+
+    // The member containers are allocated lazily, as many classes have no fields or
+    // inner classes - reads should use orEmpty(), and writes the accessor methods
+    private volatile Map<FieldSignature, FieldMapping> fields;
+    private volatile Map<String, FieldMapping> fieldsByName;
+    private volatile Map<MethodSignature, MethodMapping> methods;
+    private volatile Map<String, InnerClassMapping> innerClasses;
+    private volatile MemberIndex deobfuscatedMembers;
+    private volatile RawMemberIndex rawMembers;
+    private volatile boolean complete;
+    private volatile Links links;
+    private volatile Set<AbstractClassMappingImpl<?, ?>> dependents;
 
     /**
      * Creates a new class mapping, from the given parameters.
@@ -69,24 +84,105 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
         super(mappings, obfuscatedName, deobfuscatedName);
     }
 
+    private static <K, V> Map<K, V> orEmpty(final Map<K, V> map) {
+        return map != null ? map : Collections.emptyMap();
+    }
+
+    private <K, V> Map<K, V> newMap() {
+        // Only the ingesting thread may access the mappings during ingestion, see publish()
+        return getMappings().isIngesting() ? new HashMap<>() : new CompactMap<>();
+    }
+
+    private static <K, V> Map<K, V> publish(final Map<K, V> map) {
+        return map == null || map instanceof CompactMap ? map : new CompactMap<>(map);
+    }
+
+    /**
+     * Replaces the non-concurrent containers used during
+     * {@link MappingSet#beginIngestion() bulk ingestion} with concurrent
+     * ones, safely publishing the members of the class mapping.
+     *
+     * <p>This is called by the mapping set, through {@link InternalAccess},
+     * as ingestion ends.</p>
+     */
+    private synchronized void publish() {
+        fields = publish(fields);
+        fieldsByName = publish(fieldsByName);
+        methods = publish(methods);
+        innerClasses = publish(innerClasses);
+    }
+
+    private Map<FieldSignature, FieldMapping> fields() {
+        Map<FieldSignature, FieldMapping> fields = this.fields;
+        if (fields == null) {
+            synchronized (this) {
+                if ((fields = this.fields) == null) this.fields = fields = newMap();
+            }
+        }
+        return fields;
+    }
+
+    private Map<String, FieldMapping> fieldsByName() {
+        Map<String, FieldMapping> fieldsByName = this.fieldsByName;
+        if (fieldsByName == null) {
+            synchronized (this) {
+                if ((fieldsByName = this.fieldsByName) == null) this.fieldsByName = fieldsByName = newMap();
+            }
+        }
+        return fieldsByName;
+    }
+
+    private Map<MethodSignature, MethodMapping> methods() {
+        Map<MethodSignature, MethodMapping> methods = this.methods;
+        if (methods == null) {
+            synchronized (this) {
+                if ((methods = this.methods) == null) this.methods = methods = newMap();
+            }
+        }
+        return methods;
+    }
+
+    private Map<String, InnerClassMapping> innerClasses() {
+        Map<String, InnerClassMapping> innerClasses = this.innerClasses;
+        if (innerClasses == null) {
+            synchronized (this) {
+                if ((innerClasses = this.innerClasses) == null) this.innerClasses = innerClasses = newMap();
+            }
+        }
+        return innerClasses;
+    }
+
     @Override
     public Collection<FieldMapping> getFieldMappings() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(orEmpty(fields).values());
     }
 
     @Override
     public Map<String, FieldMapping> getFieldsByName() {
-        return Collections.unmodifiableMap(fieldsByName);
+        return Collections.unmodifiableMap(orEmpty(fieldsByName));
     }
 
     @Override
     public Optional<FieldMapping> getFieldMapping(final FieldSignature signature) {
-        return Optional.ofNullable(fields.get(signature));
+        final FieldMapping mapping = orEmpty(fields).get(signature);
+        return Optional.ofNullable(mapping != null ? mapping : inheritedField(signature));
     }
 
     @Override
     public Optional<FieldMapping> getFieldMapping(final String obfuscatedName) {
-        return Optional.ofNullable(fieldsByName.get(obfuscatedName));
+        return Optional.ofNullable(orEmpty(fieldsByName).get(obfuscatedName));
+    }
+
+    @Override
+    public FieldMapping getOrCreateFieldMapping(final FieldSignature signature) {
+        final FieldMapping mapping = orEmpty(fields).get(signature);
+        return mapping != null ? mapping : createFieldMapping(signature);
+    }
+
+    @Override
+    public FieldMapping getOrCreateFieldMapping(final String obfuscatedName) {
+        final FieldMapping mapping = orEmpty(fieldsByName).get(obfuscatedName);
+        return mapping != null ? mapping : createFieldMapping(obfuscatedName);
     }
 
     @Override
@@ -98,21 +194,58 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
 
         // Otherwise, look up the signature as-is, but attempt falling back to a signature without type
         // Note: We cannot use fieldsByName here, because we'd eventually return FieldMappings with the wrong type
-        return Optional.ofNullable(fields.computeIfAbsent(signature, (sig) -> {
+        final Map<FieldSignature, FieldMapping> fields = this.fields;
+        if (fields == null) return Optional.ofNullable(inheritedField(signature));
+        final FieldMapping declared = fields.computeIfAbsent(getMappings().getSymbolTable().intern(signature), (sig) -> {
             final FieldMapping mapping = fields.get(new FieldSignature(sig.getName()));
-            return mapping != null ?
-                    getMappings().getModelFactory().createFieldMapping(mapping.getParent(), sig, mapping.getDeobfuscatedName()) : null;
-        }));
+            if (mapping == null) return null;
+
+            final FieldMapping typed = getMappings().getModelFactory().createFieldMapping(mapping.getParent(), sig, mapping.getDeobfuscatedName());
+            memberAdded(typed);
+            return typed;
+        });
+        return Optional.ofNullable(declared != null ? declared : inheritedField(signature));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The lookup is made through an index of the members, by their
+     * obfuscated name and descriptor strings, so the descriptor needn't be
+     * parsed.</p>
+     */
+    @Override
+    public Optional<FieldMapping> getFieldMapping(final String obfuscatedName, final String obfuscatedDescriptor) {
+        final FieldMapping mapping = rawMemberIndex().getField(obfuscatedName, obfuscatedDescriptor);
+        if (mapping != null) return Optional.of(mapping);
+
+        // Linked class mappings resolve their inherited members by signature
+        if (links == null) return Optional.empty();
+        final FieldSignature signature = obfuscatedDescriptor != null ?
+                FieldSignature.of(obfuscatedName, obfuscatedDescriptor) :
+                new FieldSignature(obfuscatedName);
+        return Optional.ofNullable(inheritedField(signature));
     }
 
     @Override
     public FieldMapping createFieldMapping(final FieldSignature signature, final String deobfuscatedName) {
-        return fields.compute(signature, (sig, existingMapping) -> {
+        // Dependents are invalidated once the map is no longer locked, as invalidating them takes their
+        // locks - which completing dependents hold while looking into this class mapping
+        final boolean[] created = new boolean[1];
+        final FieldSignature key = getMappings().getSymbolTable().intern(signature);
+        final FieldMapping mapping = fields().compute(key, (sig, existingMapping) -> {
             if (existingMapping != null) return existingMapping.setDeobfuscatedName(deobfuscatedName);
-            final FieldMapping mapping = getMappings().getModelFactory().createFieldMapping(this, sig, deobfuscatedName);
-            fieldsByName.put(sig.getName(), mapping);
-            return mapping;
+            final FieldMapping newMapping = getMappings().getModelFactory().createFieldMapping(this, sig, deobfuscatedName);
+            fieldsByName().put(sig.getName(), newMapping);
+            memberAdded(newMapping);
+            created[0] = true;
+            return newMapping;
         });
+        if (created[0]) {
+            rawMemberAdded(mapping);
+            invalidateDependents();
+        }
+        return mapping;
     }
 
     @Override
@@ -122,93 +255,282 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
 
     @Override
     public boolean hasFieldMapping(final String obfuscatedName) {
-        return fieldsByName.containsKey(obfuscatedName);
+        return orEmpty(fieldsByName).containsKey(obfuscatedName);
     }
 
     @Override
     public void removeFieldMapping(final FieldSignature signature) {
-        final FieldMapping mapping = fields.remove(signature);
+        final FieldMapping mapping = orEmpty(fields).remove(signature);
         if (mapping != null) {
-            fieldsByName.values().remove(mapping);
+            orEmpty(fieldsByName).values().remove(mapping);
+            invalidateMemberIndex();
+            invalidateDependents();
         }
     }
 
     @Override
     public void removeFieldMapping(final FieldMapping mapping) {
-        fields.values().remove(mapping);
-        fieldsByName.values().remove(mapping);
+        orEmpty(fields).values().remove(mapping);
+        orEmpty(fieldsByName).values().remove(mapping);
+        invalidateMemberIndex();
+        invalidateDependents();
     }
 
     @Override
     public void removeFieldMapping(final String obfuscatedName) {
-        fields.keySet().removeIf(sig -> sig.getName().equals(obfuscatedName));
-        fieldsByName.remove(obfuscatedName);
+        orEmpty(fields).keySet().removeIf(sig -> sig.getName().equals(obfuscatedName));
+        orEmpty(fieldsByName).remove(obfuscatedName);
+        invalidateMemberIndex();
+        invalidateDependents();
+    }
+
+    @Override
+    public Optional<FieldMapping> getFieldMappingByDeobfuscatedSignature(final FieldSignature signature) {
+        for (final FieldMapping mapping : memberIndex().getFields(signature.getName())) {
+            if (!signature.getType().isPresent() || !mapping.getType().isPresent() ||
+                    signature.equals(mapping.getDeobfuscatedSignature())) {
+                return Optional.of(mapping);
+            }
+        }
+        return Optional.empty();
     }
 
     @Override
     public Collection<MethodMapping> getMethodMappings() {
-        return Collections.unmodifiableCollection(methods.values());
+        return Collections.unmodifiableCollection(orEmpty(methods).values());
     }
 
     @Override
     public Optional<MethodMapping> getMethodMapping(final MethodSignature signature) {
-        return Optional.ofNullable(methods.get(signature));
+        final MethodMapping mapping = orEmpty(methods).get(signature);
+        return Optional.ofNullable(mapping != null ? mapping : inheritedMethod(signature));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The lookup is made through an index of the members, by their
+     * obfuscated name and descriptor strings, so the descriptor needn't be
+     * parsed.</p>
+     */
+    @Override
+    public Optional<MethodMapping> getMethodMapping(final String obfuscatedName, final String obfuscatedDescriptor) {
+        final MethodMapping mapping = rawMemberIndex().getMethod(obfuscatedName, obfuscatedDescriptor);
+        if (mapping != null) return Optional.of(mapping);
+
+        // Linked class mappings resolve their inherited members by signature
+        if (links == null) return Optional.empty();
+        return Optional.ofNullable(inheritedMethod(MethodSignature.of(obfuscatedName, obfuscatedDescriptor)));
     }
 
     @Override
     public MethodMapping createMethodMapping(final MethodSignature signature, final String deobfuscatedName) {
-        return methods.compute(signature, (desc, existingMapping) -> {
+        // See createFieldMapping - dependents mustn't be invalidated while the map is locked
+        final boolean[] created = new boolean[1];
+        final MethodSignature key = getMappings().getSymbolTable().intern(signature);
+        final MethodMapping mapping = methods().compute(key, (sig, existingMapping) -> {
             if (existingMapping != null) return existingMapping.setDeobfuscatedName(deobfuscatedName);
-            return getMappings().getModelFactory().createMethodMapping(this, signature, deobfuscatedName);
+            final MethodMapping newMapping = getMappings().getModelFactory().createMethodMapping(this, sig, deobfuscatedName);
+            memberAdded(newMapping);
+            created[0] = true;
+            return newMapping;
         });
+        if (created[0]) {
+            rawMemberAdded(mapping);
+            invalidateDependents();
+        }
+        return mapping;
+    }
+
+    @Override
+    public MethodMapping getOrCreateMethodMapping(final MethodSignature signature) {
+        final MethodMapping mapping = orEmpty(methods).get(signature);
+        return mapping != null ? mapping : createMethodMapping(signature);
     }
 
     @Override
     public boolean hasMethodMapping(final MethodSignature signature) {
-        return methods.containsKey(signature);
+        return orEmpty(methods).containsKey(signature) || inheritedMethod(signature) != null;
     }
 
     @Override
     public void removeMethodMapping(final MethodSignature signature) {
-        methods.remove(signature);
+        if (orEmpty(methods).remove(signature) != null) {
+            invalidateMemberIndex();
+            invalidateDependents();
+        }
     }
 
     @Override
     public void removeMethodMapping(final MethodMapping mapping) {
-        methods.values().remove(mapping);
+        if (orEmpty(methods).values().remove(mapping)) {
+            invalidateMemberIndex();
+            invalidateDependents();
+        }
+    }
+
+    @Override
+    public Optional<MethodMapping> getMethodMappingByDeobfuscatedSignature(final MethodSignature signature) {
+        for (final MethodMapping mapping : memberIndex().getMethods(signature.getName())) {
+            if (signature.equals(mapping.getDeobfuscatedSignature())) {
+                return Optional.of(mapping);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private MemberIndex memberIndex() {
+        MemberIndex index = deobfuscatedMembers;
+        if (index == null) {
+            synchronized (this) {
+                if ((index = deobfuscatedMembers) == null) {
+                    index = new MemberIndex();
+                    for (final FieldMapping field : getFieldMappings()) {
+                        index.add(field);
+                    }
+                    for (final MethodMapping method : getMethodMappings()) {
+                        index.add(method);
+                    }
+                    deobfuscatedMembers = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private RawMemberIndex rawMemberIndex() {
+        RawMemberIndex index = rawMembers;
+        if (index == null) {
+            synchronized (this) {
+                if ((index = rawMembers) == null) {
+                    // Inherited methods may be held against the signature of an overriding method
+                    index = new RawMemberIndex();
+                    for (final Map.Entry<FieldSignature, FieldMapping> field : orEmpty(fields).entrySet()) {
+                        index.add(field.getKey(), field.getValue());
+                    }
+                    for (final Map.Entry<MethodSignature, MethodMapping> method : orEmpty(methods).entrySet()) {
+                        index.add(method.getKey(), method.getValue());
+                    }
+                    rawMembers = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private void memberAdded(final FieldMapping mapping) {
+        final MemberIndex index = deobfuscatedMembers;
+        if (index != null) index.add(mapping);
+    }
+
+    private void memberAdded(final MethodMapping mapping) {
+        final MemberIndex index = deobfuscatedMembers;
+        if (index != null) index.add(mapping);
+    }
+
+    // The raw index is updated under the lock it is built with, once the member is in the member map - so an
+    // index built before the member was added can't be published after it
+    private synchronized void rawMemberAdded(final FieldMapping mapping) {
+        final RawMemberIndex rawIndex = rawMembers;
+        if (rawIndex != null) rawIndex.add(mapping.getSignature(), mapping);
+    }
+
+    private synchronized void rawMemberAdded(final MethodMapping mapping) {
+        final RawMemberIndex rawIndex = rawMembers;
+        if (rawIndex != null) rawIndex.add(mapping.getSignature(), mapping);
+    }
+
+    /**
+     * Discards the indexes of members, should the members change in a
+     * way that can't be applied incrementally - they will be rebuilt
+     * when next needed.
+     */
+    private void invalidateMemberIndex() {
+        final MemberIndex index;
+        synchronized (this) {
+            // Cleared under the lock the indexes are built with, so they can't be republished from the old members
+            rawMembers = null;
+            index = deobfuscatedMembers;
+            deobfuscatedMembers = null;
+        }
+        if (index != null) index.detach();
     }
 
     @Override
     public Collection<InnerClassMapping> getInnerClassMappings() {
-        return Collections.unmodifiableCollection(innerClasses.values());
+        return Collections.unmodifiableCollection(orEmpty(innerClasses).values());
     }
 
     @Override
     public Optional<InnerClassMapping> getInnerClassMapping(final String obfuscatedName) {
-        return Optional.ofNullable(innerClasses.get(obfuscatedName));
+        return Optional.ofNullable(orEmpty(innerClasses).get(obfuscatedName));
     }
 
     @Override
     public InnerClassMapping createInnerClassMapping(final String obfuscatedName, final String deobfuscatedName) {
-        return innerClasses.compute(obfuscatedName, (name, existingMapping) -> {
+        return innerClasses().compute(getMappings().getSymbolTable().intern(obfuscatedName), (name, existingMapping) -> {
             if (existingMapping != null) return existingMapping.setDeobfuscatedName(deobfuscatedName);
-            return getMappings().getModelFactory().createInnerClassMapping(this, obfuscatedName, deobfuscatedName);
+            final InnerClassMapping mapping = getMappings().getModelFactory().createInnerClassMapping(this, name, deobfuscatedName);
+            InternalAccess.mappingSets().registerClassMapping(getMappings(), mapping);
+            return mapping;
         });
     }
 
+    @Override
+    public InnerClassMapping getOrCreateInnerClassMapping(final String obfuscatedName) {
+        final InnerClassMapping mapping = orEmpty(innerClasses).get(obfuscatedName);
+        return mapping != null ? mapping : createInnerClassMapping(obfuscatedName);
+    }
+
     @Override
     public boolean hasInnerClassMapping(final String obfuscatedName) {
-        return innerClasses.containsKey(obfuscatedName);
+        return orEmpty(innerClasses).containsKey(obfuscatedName);
     }
 
     @Override
     public void removeInnerClassMapping(String obfuscatedName) {
-        innerClasses.remove(obfuscatedName);
+        final InnerClassMapping mapping = orEmpty(innerClasses).remove(obfuscatedName);
+        if (mapping != null) {
+            InternalAccess.mappingSets().unregisterClassMapping(getMappings(), mapping);
+        }
     }
 
     @Override
     public void removeInnerClassMapping(final ClassMapping<?, ?> mapping) {
-        innerClasses.values().remove(mapping);
+        if (orEmpty(innerClasses).values().remove(mapping)) {
+            InternalAccess.mappingSets().unregisterClassMapping(getMappings(), mapping);
+        }
+    }
+
+    @Override
+    public M setDeobfuscatedName(final String deobfuscatedName) {
+        final M mapping = super.setDeobfuscatedName(deobfuscatedName);
+        // Renaming a class changes the de-obfuscated view of any type referencing it
+        InternalAccess.mappingSets().markModified(getMappings());
+        return mapping;
+    }
+
+    @Override
+    protected void invalidateFullDeobfuscatedName() {
+        // Should this mapping's name not be cached, then neither will any of its members
+        if (!isFullDeobfuscatedNameCached()) return;
+        super.invalidateFullDeobfuscatedName();
+
+        for (final FieldMapping field : orEmpty(fields).values()) {
+            invalidateFullDeobfuscatedName(field);
+        }
+        for (final MethodMapping method : orEmpty(methods).values()) {
+            invalidateFullDeobfuscatedName(method);
+        }
+        for (final InnerClassMapping klass : orEmpty(innerClasses).values()) {
+            invalidateFullDeobfuscatedName(klass);
+        }
+    }
+
+    private static void invalidateFullDeobfuscatedName(final Mapping<?, ?> mapping) {
+        if (mapping instanceof AbstractMappingImpl) {
+            ((AbstractMappingImpl<?, ?>) mapping).invalidateFullDeobfuscatedName();
+        }
     }
 
     @Override
@@ -224,15 +546,62 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
         if (!super.equals(obj)) return false;
         if (!(obj instanceof ClassMapping)) return false;
 
-        final ClassMapping<?, ?> that = (ClassMapping<?, ?>) obj;
-        return Objects.equals(new ArrayList<>(getFieldMappings()), new ArrayList<>(that.getFieldMappings())) &&
-                Objects.equals(new ArrayList<>(getMethodMappings()), new ArrayList<>(that.getMethodMappings())) &&
-                Objects.equals(new ArrayList<>(getInnerClassMappings()), new ArrayList<>(that.getInnerClassMappings()));
+        return membersEqual(this, (ClassMapping<?, ?>) obj);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), fields, methods, innerClasses);
+        return Objects.hash(super.hashCode(), membersHashCode(this));
+    }
+
+    /**
+     * Checks whether the given class mappings have equal members - comparing
+     * them by their signatures, and obfuscated names, so the order they were
+     * added in doesn't matter.
+     *
+     * @param mapping The first class mapping
+     * @param other The second class mapping
+     * @return {@code true} if the members are equal
+     */
+    public static boolean membersEqual(final ClassMapping<?, ?> mapping, final ClassMapping<?, ?> other) {
+        return Objects.equals(fieldsBySignature(mapping), fieldsBySignature(other)) &&
+                Objects.equals(methodsBySignature(mapping), methodsBySignature(other)) &&
+                Objects.equals(innerClassesByName(mapping), innerClassesByName(other));
+    }
+
+    /**
+     * Gets a hash code for the members of the given class mapping, that is
+     * consistent with {@link #membersEqual(ClassMapping, ClassMapping)}.
+     *
+     * @param mapping The class mapping
+     * @return The hash code
+     */
+    public static int membersHashCode(final ClassMapping<?, ?> mapping) {
+        return Objects.hash(fieldsBySignature(mapping), methodsBySignature(mapping), innerClassesByName(mapping));
+    }
+
+    private static Map<FieldSignature, FieldMapping> fieldsBySignature(final ClassMapping<?, ?> mapping) {
+        final Map<FieldSignature, FieldMapping> fields = new HashMap<>();
+        for (final FieldMapping field : mapping.getFieldMappings()) {
+            fields.put(field.getSignature(), field);
+        }
+        return fields;
+    }
+
+    private static Map<MethodSignature, MethodMapping> methodsBySignature(final ClassMapping<?, ?> mapping) {
+        final Map<MethodSignature, MethodMapping> methods = new HashMap<>();
+        for (final MethodMapping method : mapping.getMethodMappings()) {
+            methods.put(method.getSignature(), method);
+        }
+        return methods;
+    }
+
+    private static Map<String, InnerClassMapping> innerClassesByName(final ClassMapping<?, ?> mapping) {
+        final Map<String, InnerClassMapping> innerClasses = new HashMap<>();
+        for (final InnerClassMapping innerClass : mapping.getInnerClassMappings()) {
+            innerClasses.put(innerClass.getObfuscatedName(), innerClass);
+        }
+        return innerClasses;
     }
 
     @Override
@@ -242,10 +611,155 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
 
     @Override
     public void complete(final InheritanceProvider provider, final InheritanceProvider.ClassInfo info) {
-        if (complete) {
-            return;
+        // Each class mapping is completed exactly once, under its lock. As parents are only ever
+        // locked by their children, and never the reverse, racing completions can't deadlock.
+        if (complete) return;
+        synchronized (this) {
+            if (complete) return;
+            if (getMappings().isLinkedCompletion()) {
+                linkInheritance(provider, info);
+            } else {
+                completeInheritance(provider, info);
+            }
+        }
+    }
+
+    private void linkInheritance(final InheritanceProvider provider, final InheritanceProvider.ClassInfo info) {
+        final Map<String, List<MethodSignature>> nameToMethods = new HashMap<>();
+        for (final MethodSignature method : info.getMethods().keySet()) {
+            nameToMethods.computeIfAbsent(method.getName(), name -> new ArrayList<>(1)).add(method);
+        }
+
+        // Every parent is linked, not only the direct parents, so only the members each parent
+        // declares need to be searched on lookup. Parents needn't be completed for the same reason.
+        final Set<InheritanceProvider.ClassInfo> parents = info.provideParents(provider);
+        final InheritanceProvider.ClassInfo[] parentInfos = parents.toArray(new InheritanceProvider.ClassInfo[0]);
+        final Map<MethodSignature, MethodSignature> overrides = new HashMap<>();
+        for (final InheritanceProvider.ClassInfo parent : parentInfos) {
+            // Members are resolved as they are looked up, so only changes to the hierarchy of
+            // the parent need to reach this class
+            final AbstractClassMappingImpl<?, ?> parentMappings = linkedParent(parent);
+            if (parentMappings != null) parentMappings.addDependent(this);
+
+            for (final MethodSignature parentMethod : parent.getMethods().keySet()) {
+                final List<MethodSignature> methods = nameToMethods.get(parentMethod.getName());
+                if (methods == null) continue;
+
+                // Record the methods here that override the return type of a parent method
+                final MethodDescriptor parentDescriptor = parentMethod.getDescriptor();
+                for (final MethodSignature method : methods) {
+                    final MethodDescriptor descriptor = method.getDescriptor();
+                    if (method.equals(parentMethod)) continue;
+                    if (!Objects.equals(descriptor.getParamTypes(), parentDescriptor.getParamTypes())) continue;
+
+                    if (parentDescriptor.getReturnType().isAssignableFrom(descriptor.getReturnType(), provider)) {
+                        overrides.putIfAbsent(method, parentMethod);
+                    }
+                }
+            }
+        }
+
+        links = new Links(info, parentInfos, overrides.isEmpty() ? Collections.emptyMap() : overrides);
+        complete = true;
+    }
+
+    @Override
+    public void invalidateCompletion() {
+        final Set<AbstractClassMappingImpl<?, ?>> dependents;
+        synchronized (this) {
+            if (complete) {
+                complete = false;
+                links = null;
+
+                // Inherited mappings belong to the parent they were inherited from
+                orEmpty(fields).values().removeIf(mapping -> mapping.getParent() != this);
+                orEmpty(methods).values().removeIf(mapping -> mapping.getParent() != this);
+                invalidateMemberIndex();
+            }
+
+            // The dependents will register again, as they are completed
+            dependents = this.dependents;
+            this.dependents = null;
+        }
+
+        if (dependents != null) {
+            for (final AbstractClassMappingImpl<?, ?> dependent : dependents) {
+                dependent.invalidateCompletion();
+            }
+        }
+    }
+
+    private void addDependent(final AbstractClassMappingImpl<?, ?> dependent) {
+        Set<AbstractClassMappingImpl<?, ?>> dependents = this.dependents;
+        if (dependents == null) {
+            synchronized (this) {
+                if ((dependents = this.dependents) == null) this.dependents = dependents = ConcurrentHashMap.newKeySet();
+            }
+        }
+        dependents.add(dependent);
+    }
+
+    /**
+     * Invalidates the completion of the class mappings completed from this
+     * class mapping, as its members have changed.
+     */
+    private void invalidateDependents() {
+        final Set<AbstractClassMappingImpl<?, ?>> dependents = this.dependents;
+        if (dependents == null) return;
+
+        for (final AbstractClassMappingImpl<?, ?> dependent : dependents) {
+            // Linked class mappings resolve members as they are looked up, and so remain
+            // dependent only on the hierarchy
+            if (dependent.links != null) continue;
+
+            dependents.remove(dependent);
+            dependent.invalidateCompletion();
+        }
+    }
+
+    private AbstractClassMappingImpl<?, ?> linkedParent(final InheritanceProvider.ClassInfo parent) {
+        // Parents are looked up as needed, so mappings created after linking are seen
+        final ClassMapping<?, ?> mapping = getMappings().getClassMapping(parent.getName()).orElse(null);
+        return mapping instanceof AbstractClassMappingImpl ? (AbstractClassMappingImpl<?, ?>) mapping : null;
+    }
+
+    private FieldMapping inheritedField(final FieldSignature signature) {
+        final Links links = this.links;
+        if (links == null) return null;
+
+        final FieldSignature untyped = signature.getType().isPresent() ? new FieldSignature(signature.getName()) : null;
+        for (final InheritanceProvider.ClassInfo parent : links.parents) {
+            final AbstractClassMappingImpl<?, ?> parentMappings = linkedParent(parent);
+            if (parentMappings == null) continue;
+
+            final Map<FieldSignature, FieldMapping> fields = orEmpty(parentMappings.fields);
+            FieldMapping mapping = fields.get(signature);
+            if (mapping == null && untyped != null) mapping = fields.get(untyped);
+            if (mapping != null && parent.canInherit(links.info, signature)) return mapping;
+        }
+        return null;
+    }
+
+    private MethodMapping inheritedMethod(final MethodSignature signature) {
+        final Links links = this.links;
+        if (links == null) return null;
+
+        final MethodSignature overridden = links.overrides.get(signature);
+        for (final InheritanceProvider.ClassInfo parent : links.parents) {
+            final AbstractClassMappingImpl<?, ?> parentMappings = linkedParent(parent);
+            if (parentMappings == null) continue;
+
+            final Map<MethodSignature, MethodMapping> methods = orEmpty(parentMappings.methods);
+            final MethodMapping mapping = methods.get(signature);
+            if (mapping != null && parent.canInherit(links.info, signature)) return mapping;
+
+            final MethodMapping overriddenMapping = overridden != null ? methods.get(overridden) : null;
+            if (overriddenMapping != null) return overriddenMapping;
         }
+        return null;
+    }
 
+    private void completeInheritance(final InheritanceProvider provider, final InheritanceProvider.ClassInfo info) {
         final Map<String, Set<MethodSignature>> nameToMethods = new HashMap<>();
         for (final Map.Entry<MethodSignature, InheritanceType> method : info.getMethods().entrySet()) {
             final Set<MethodSignature> methods = nameToMethods.computeIfAbsent(method.getKey().getName(), name -> new HashSet<>());
@@ -255,6 +769,9 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
         for (final InheritanceProvider.ClassInfo parent : info.provideParents(provider)) {
             final ClassMapping<?, ?> parentMappings = getMappings().getOrCreateClassMapping(parent.getName());
             parentMappings.complete(provider, parent);
+            if (parentMappings instanceof AbstractClassMappingImpl) {
+                ((AbstractClassMappingImpl<?, ?>) parentMappings).addDependent(this);
+            }
 
             for (final FieldMapping mapping : parentMappings.getFieldMappings()) {
                 // If the class has its own field that satisfies the parent's signature,
@@ -264,13 +781,13 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
                 }
 
                 if (parent.canInherit(info, mapping.getSignature())) {
-                    fields.putIfAbsent(mapping.getSignature(), mapping);
+                    fields().putIfAbsent(mapping.getSignature(), mapping);
                 }
             }
 
             for (final MethodMapping mapping : parentMappings.getMethodMappings()) {
                 if (parent.canInherit(info, mapping.getSignature())) {
-                    methods.putIfAbsent(mapping.getSignature(), mapping);
+                    methods().putIfAbsent(mapping.getSignature(), mapping);
                 }
 
                 // Check if there are any methods here that override the return type of a parent
@@ -287,14 +804,148 @@ public abstract class AbstractClassMappingImpl<M extends ClassMapping<M, P>, P>
                         if (!Objects.equals(methodDescriptor.getParamTypes(), mappingDescriptor.getParamTypes())) continue;
 
                         if (mappingDescriptor.getReturnType().isAssignableFrom(methodDescriptor.getReturnType(), provider)) {
-                            methods.putIfAbsent(methodSignature, mapping);
+                            methods().putIfAbsent(methodSignature, mapping);
                         }
                     }
                 }
             }
         }
 
+        // Inherited mappings may have been added
+        invalidateMemberIndex();
         complete = true;
     }
 
+
+    /**
+     * The parents of a class mapping completed by linking, through which
+     * its inherited members are resolved.
+     *
+     * @see MappingSet#setLinkedCompletion(boolean)
+     */
+    private static final class Links {
+
+        final InheritanceProvider.ClassInfo info;
+        final InheritanceProvider.ClassInfo[] parents;
+        final Map<MethodSignature, MethodSignature> overrides;
+
+        Links(final InheritanceProvider.ClassInfo info, final InheritanceProvider.ClassInfo[] parents,
+                final Map<MethodSignature, MethodSignature> overrides) {
+            this.info = info;
+            this.parents = parents;
+            this.overrides = overrides;
+        }
+
+    }
+
+    /**
+     * An index of the members of the class mapping, by their obfuscated
+     * name and descriptor strings. As obfuscated names never change, the
+     * index only needs to be discarded as members are removed.
+     */
+    private static final class RawMemberIndex {
+
+        /**
+         * The descriptor key of fields mapped without a type.
+         */
+        private static final String NO_TYPE = "";
+
+        private final Map<String, Map<String, FieldMapping>> fields = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, MethodMapping>> methods = new ConcurrentHashMap<>();
+
+        void add(final FieldSignature signature, final FieldMapping mapping) {
+            final String descriptor = signature.getType().map(Object::toString).orElse(NO_TYPE);
+            fields.computeIfAbsent(signature.getName(), name -> new ConcurrentHashMap<>(2))
+                    .putIfAbsent(descriptor, mapping);
+        }
+
+        void add(final MethodSignature signature, final MethodMapping mapping) {
+            methods.computeIfAbsent(signature.getName(), name -> new ConcurrentHashMap<>(2))
+                    .putIfAbsent(signature.getDescriptor().toString(), mapping);
+        }
+
+        FieldMapping getField(final String name, final String descriptor) {
+            final Map<String, FieldMapping> descriptors = fields.get(name);
+            if (descriptors == null) return null;
+
+            // Fall back to the field mapping without a type
+            final FieldMapping mapping = descriptor != null ? descriptors.get(descriptor) : null;
+            return mapping != null ? mapping : descriptors.get(NO_TYPE);
+        }
+
+        MethodMapping getMethod(final String name, final String descriptor) {
+            final Map<String, MethodMapping> descriptors = methods.get(name);
+            return descriptors != null ? descriptors.get(descriptor) : null;
+        }
+
+    }
+
+    /**
+     * An index of the members of the class mapping, by their de-obfuscated
+     * names, which listens to the members to remain up to date as they are
+     * renamed.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class MemberIndex {
+
+        private final Map<String, List<FieldMapping>> fields = new ConcurrentHashMap<>();
+        private final Map<String, List<MethodMapping>> methods = new ConcurrentHashMap<>();
+        private final List<Mapping<?, ?>> members = new ArrayList<>();
+
+        private final MappingChangedListener<FieldMapping, ClassMapping> fieldListener = (mapping, newName) -> {
+            remove(fields, mapping.getDeobfuscatedName(), mapping);
+            add(fields, newName, mapping);
+        };
+        private final MappingChangedListener<MethodMapping, ClassMapping> methodListener = (mapping, newName) -> {
+            remove(methods, mapping.getDeobfuscatedName(), mapping);
+            add(methods, newName, mapping);
+        };
+
+        private static <T> void add(final Map<String, List<T>> index, final String name, final T mapping) {
+            index.merge(name, Collections.singletonList(mapping), (existing, added) -> {
+                final List<T> list = new ArrayList<>(existing.size() + 1);
+                list.addAll(existing);
+                list.add(mapping);
+                return list;
+            });
+        }
+
+        private static <T> void remove(final Map<String, List<T>> index, final String name, final T mapping) {
+            index.computeIfPresent(name, (key, existing) -> {
+                final List<T> list = new ArrayList<>(existing);
+                list.remove(mapping);
+                return list.isEmpty() ? null : list;
+            });
+        }
+
+        List<FieldMapping> getFields(final String deobfuscatedName) {
+            return fields.getOrDefault(deobfuscatedName, Collections.emptyList());
+        }
+
+        List<MethodMapping> getMethods(final String deobfuscatedName) {
+            return methods.getOrDefault(deobfuscatedName, Collections.emptyList());
+        }
+
+        synchronized void add(final FieldMapping mapping) {
+            add(fields, mapping.getDeobfuscatedName(), mapping);
+            mapping.addListener(fieldListener);
+            members.add(mapping);
+        }
+
+        synchronized void add(final MethodMapping mapping) {
+            add(methods, mapping.getDeobfuscatedName(), mapping);
+            mapping.addListener(methodListener);
+            members.add(mapping);
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        synchronized void detach() {
+            for (final Mapping member : members) {
+                member.removeListener(member instanceof FieldMapping ? fieldListener : methodListener);
+            }
+            members.clear();
+        }
+
+    }
+
 }
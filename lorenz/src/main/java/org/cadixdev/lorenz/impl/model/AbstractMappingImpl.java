@@ -20,7 +20,9 @@ import org.cadixdev.lorenz.MappingSet;
 import org.cadixdev.lorenz.model.Mapping;
 import org.cadixdev.lorenz.util.MappingChangedListener;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
@@ -39,8 +41,11 @@ public abstract class AbstractMappingImpl<M extends Mapping<M, P>, P> implements
     private final MappingSet mappings;
     private final String obfuscatedName;
     private String deobfuscatedName;
-    private final List<String> javadoc = new ArrayList<>();
-    private final List<MappingChangedListener<M, P>> listeners = new ArrayList<>();
+    private String fullObfuscatedName;
+    private String fullDeobfuscatedName;
+    // Most mappings have neither Javadoc nor listeners, so both are allocated lazily
+    private List<String> javadoc;
+    private List<MappingChangedListener<M, P>> listeners;
 
     /**
      * Creates a new de-obfuscation mapping, based on the given obfuscated name
@@ -52,8 +57,8 @@ public abstract class AbstractMappingImpl<M extends Mapping<M, P>, P> implements
      */
     protected AbstractMappingImpl(final MappingSet mappings, final String obfuscatedName, final String deobfuscatedName) {
         this.mappings = mappings;
-        this.obfuscatedName = obfuscatedName;
-        this.deobfuscatedName = deobfuscatedName;
+        this.obfuscatedName = mappings.getSymbolTable().intern(obfuscatedName);
+        this.deobfuscatedName = mappings.getSymbolTable().intern(deobfuscatedName);
     }
 
     @Override
@@ -68,22 +73,101 @@ public abstract class AbstractMappingImpl<M extends Mapping<M, P>, P> implements
 
     @Override
     public M setDeobfuscatedName(final String deobfuscatedName) {
-        for (final MappingChangedListener<M, P> listener : listeners) {
-            listener.handle((M) this, deobfuscatedName);
+        final String name = mappings.getSymbolTable().intern(deobfuscatedName);
+        if (listeners != null) {
+            for (final MappingChangedListener<M, P> listener : listeners) {
+                listener.handle((M) this, name);
+            }
         }
-        this.deobfuscatedName = deobfuscatedName;
+        this.deobfuscatedName = name;
+        this.invalidateFullDeobfuscatedName();
         return (M) this;
     }
 
+    @Override
+    public String getFullObfuscatedName() {
+        // The obfuscated names of this mapping, and its parents, can't change - so can
+        // always be cached
+        String name = fullObfuscatedName;
+        if (name == null) {
+            fullObfuscatedName = name = computeFullObfuscatedName();
+        }
+        return name;
+    }
+
+    @Override
+    public String getFullDeobfuscatedName() {
+        String name = fullDeobfuscatedName;
+        if (name == null) {
+            fullDeobfuscatedName = name = computeFullDeobfuscatedName();
+        }
+        return name;
+    }
+
+    /**
+     * Computes the fully-qualified obfuscated name of the mapping, which
+     * will be cached by {@link #getFullObfuscatedName()}.
+     *
+     * <p>By default, the mapping is taken to have no parent, and so its
+     * fully-qualified name is its obfuscated name.</p>
+     *
+     * @return The fully-qualified obfuscated name
+     * @since 1.0.0
+     */
+    protected String computeFullObfuscatedName() {
+        return getObfuscatedName();
+    }
+
+    /**
+     * Computes the fully-qualified de-obfuscated name of the mapping, which
+     * will be cached by {@link #getFullDeobfuscatedName()} until the mapping,
+     * or one of its parents, is renamed.
+     *
+     * <p>By default, the mapping is taken to have no parent, and so its
+     * fully-qualified name is its de-obfuscated name.</p>
+     *
+     * @return The fully-qualified de-obfuscated name
+     * @since 1.0.0
+     */
+    protected String computeFullDeobfuscatedName() {
+        return getDeobfuscatedName();
+    }
+
+    /**
+     * Invalidates the cached fully-qualified de-obfuscated name of the
+     * mapping, and of any mappings that belong to it.
+     *
+     * @since 1.0.0
+     */
+    protected void invalidateFullDeobfuscatedName() {
+        fullDeobfuscatedName = null;
+    }
+
+    /**
+     * Establishes whether the fully-qualified de-obfuscated name of the
+     * mapping is currently cached. As a mapping's full name is computed
+     * from its parent's, a mapping's name can only be cached when its
+     * parent's is too - so invalidation needn't visit the children of a
+     * mapping without a cached name.
+     *
+     * @return {@code true} if the name is cached;
+     *         {@code false} otherwise
+     * @since 1.0.0
+     */
+    protected boolean isFullDeobfuscatedNameCached() {
+        return fullDeobfuscatedName != null;
+    }
+
     @Override
     public M addListener(final MappingChangedListener<M, P> listener) {
+        if (listeners == null) listeners = new ArrayList<>(1);
         listeners.add(listener);
         return (M) this;
     }
 
     @Override
     public void removeListener(final MappingChangedListener<M, P> listener) {
-        listeners.remove(listener);
+        if (listeners != null) listeners.remove(listener);
     }
 
     @Override
@@ -93,7 +177,45 @@ public abstract class AbstractMappingImpl<M extends Mapping<M, P>, P> implements
 
     @Override
     public List<String> getJavadoc() {
-        return javadoc;
+        return javadoc != null ? javadoc : new JavadocView();
+    }
+
+    /**
+     * A view of the Javadoc of a mapping that doesn't yet have any, which
+     * allocates the underlying list on first modification.
+     */
+    private final class JavadocView extends AbstractList<String> {
+
+        private List<String> javadoc() {
+            if (javadoc == null) javadoc = new ArrayList<>();
+            return javadoc;
+        }
+
+        @Override
+        public String get(final int index) {
+            return (javadoc != null ? javadoc : Collections.<String>emptyList()).get(index);
+        }
+
+        @Override
+        public int size() {
+            return javadoc != null ? javadoc.size() : 0;
+        }
+
+        @Override
+        public String set(final int index, final String element) {
+            return javadoc().set(index, element);
+        }
+
+        @Override
+        public void add(final int index, final String element) {
+            javadoc().add(index, element);
+        }
+
+        @Override
+        public String remove(final int index) {
+            return javadoc().remove(index);
+        }
+
     }
 
     @Override
@@ -54,6 +54,16 @@ public abstract class AbstractMemberMappingImpl<M extends MemberMapping<M, P>, P
         return parent;
     }
 
+    @Override
+    protected String computeFullObfuscatedName() {
+        return parent.getFullObfuscatedName() + '/' + getObfuscatedName();
+    }
+
+    @Override
+    protected String computeFullDeobfuscatedName() {
+        return parent.getFullDeobfuscatedName() + '/' + getDeobfuscatedName();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), parent.getFullObfuscatedName(), parent.getFullDeobfuscatedName());
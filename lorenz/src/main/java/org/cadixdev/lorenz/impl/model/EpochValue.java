@@ -0,0 +1,40 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.impl.model;
+
+import org.cadixdev.lorenz.MappingSet;
+
+/**
+ * A value computed from the class mappings of a {@link MappingSet},
+ * alongside the {@link MappingSet#getModificationEpoch() modification epoch}
+ * it was computed in.
+ *
+ * @param <T> The type of the value
+ *
+ * @since 1.0.0
+ */
+final class EpochValue<T> {
+
+    final long epoch;
+    final T value;
+
+    EpochValue(final long epoch, final T value) {
+        this.epoch = epoch;
+        this.value = value;
+    }
+
+}
@@ -33,6 +33,7 @@ public class FieldMappingImpl
         implements FieldMapping {
 
     private final FieldSignature signature;
+    private EpochValue<FieldSignature> deobfuscatedSignature;
 
     /**
      * Creates a new field mapping, from the given parameters.
@@ -51,6 +52,23 @@ public class FieldMappingImpl
         return signature;
     }
 
+    @Override
+    public FieldSignature getDeobfuscatedSignature() {
+        final long epoch = getMappings().getModificationEpoch();
+        EpochValue<FieldSignature> memo = deobfuscatedSignature;
+        if (memo == null || memo.epoch != epoch) {
+            deobfuscatedSignature = memo = new EpochValue<>(epoch, FieldMapping.super.getDeobfuscatedSignature());
+        }
+        return memo.value;
+    }
+
+    @Override
+    public FieldMapping setDeobfuscatedName(final String deobfuscatedName) {
+        final FieldMapping mapping = super.setDeobfuscatedName(deobfuscatedName);
+        deobfuscatedSignature = null;
+        return mapping;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (!super.equals(obj)) return false;
@@ -48,6 +48,16 @@ public class InnerClassMappingImpl extends AbstractClassMappingImpl<InnerClassMa
         return parentClass;
     }
 
+    @Override
+    protected String computeFullObfuscatedName() {
+        return parentClass.getFullObfuscatedName() + '$' + getObfuscatedName();
+    }
+
+    @Override
+    protected String computeFullDeobfuscatedName() {
+        return parentClass.getFullDeobfuscatedName() + '$' + getDeobfuscatedName();
+    }
+
     @Override
     public String getSimpleObfuscatedName() {
         return stripAsciiDigits(getObfuscatedName());
@@ -21,13 +21,14 @@ import org.cadixdev.lorenz.model.ClassMapping;
 import org.cadixdev.lorenz.model.MethodMapping;
 import org.cadixdev.lorenz.model.MethodParameterMapping;
 
+import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A basic implementation of {@link MethodMapping}.
@@ -39,8 +40,13 @@ public class MethodMappingImpl
         extends AbstractMemberMappingImpl<MethodMapping, ClassMapping>
         implements MethodMapping {
 
+    private static final MethodParameterMapping[] NO_PARAMETERS = new MethodParameterMapping[0];
+
     private final MethodSignature signature;
-    private final Map<Integer, MethodParameterMapping> parameters = new ConcurrentHashMap<>();
+    private EpochValue<MethodSignature> deobfuscatedSignature;
+    private EpochValue<String> deobfuscatedDescriptor;
+    // Indexed by parameter index, only ever replaced while holding the lock
+    private volatile MethodParameterMapping[] parameters = NO_PARAMETERS;
 
     /**
      * Creates a new method mapping, from the given parameters.
@@ -59,27 +65,86 @@ public class MethodMappingImpl
         return signature;
     }
 
+    @Override
+    public MethodSignature getDeobfuscatedSignature() {
+        final long epoch = getMappings().getModificationEpoch();
+        EpochValue<MethodSignature> memo = deobfuscatedSignature;
+        if (memo == null || memo.epoch != epoch) {
+            deobfuscatedSignature = memo = new EpochValue<>(epoch, MethodMapping.super.getDeobfuscatedSignature());
+        }
+        return memo.value;
+    }
+
+    @Override
+    public String getDeobfuscatedDescriptor() {
+        // The descriptor doesn't depend on the name of the method, so needn't be cleared on rename
+        final long epoch = getMappings().getModificationEpoch();
+        EpochValue<String> memo = deobfuscatedDescriptor;
+        if (memo == null || memo.epoch != epoch) {
+            deobfuscatedDescriptor = memo = new EpochValue<>(epoch, getMappings().deobfuscate(getDescriptor()).toString());
+        }
+        return memo.value;
+    }
+
+    @Override
+    public MethodMapping setDeobfuscatedName(final String deobfuscatedName) {
+        final MethodMapping mapping = super.setDeobfuscatedName(deobfuscatedName);
+        deobfuscatedSignature = null;
+        return mapping;
+    }
+
     @Override
     public Collection<MethodParameterMapping> getParameterMappings() {
-        return Collections.unmodifiableCollection(parameters.values());
+        return new ParameterView(parameters);
     }
 
     @Override
     public MethodParameterMapping createParameterMapping(final int index, final String deobfuscatedName) {
-        return parameters.compute(index, (i, mapping) -> {
-            if (mapping != null) return mapping.setDeobfuscatedName(deobfuscatedName);
-            return getMappings().getModelFactory().createMethodParameterMapping(this, i, deobfuscatedName);
-        });
+        if (index < 0) {
+            throw new IllegalArgumentException("Parameter index cannot be negative!");
+        }
+
+        final MethodParameterMapping existing;
+        synchronized (this) {
+            MethodParameterMapping[] parameters = this.parameters;
+            if (index >= parameters.length || (existing = parameters[index]) == null) {
+                if (index >= parameters.length) {
+                    // Size from the descriptor, which suffices for most methods - but indices may
+                    // be local variable slots, so grow beyond it as needed
+                    final int size = Math.max(index + 1, getDescriptor().getParamTypes().size());
+                    parameters = Arrays.copyOf(parameters, size);
+                }
+                else {
+                    parameters = parameters.clone();
+                }
+
+                final MethodParameterMapping mapping =
+                        getMappings().getModelFactory().createMethodParameterMapping(this, index, deobfuscatedName);
+                parameters[index] = mapping;
+                this.parameters = parameters;
+                return mapping;
+            }
+        }
+        return existing.setDeobfuscatedName(deobfuscatedName);
     }
 
     @Override
     public Optional<MethodParameterMapping> getParameterMapping(final int index) {
-        return Optional.ofNullable(parameters.get(index));
+        final MethodParameterMapping[] parameters = this.parameters;
+        return Optional.ofNullable(index >= 0 && index < parameters.length ? parameters[index] : null);
+    }
+
+    @Override
+    public MethodParameterMapping getOrCreateParameterMapping(final int index) {
+        final MethodParameterMapping[] parameters = this.parameters;
+        if (index >= 0 && index < parameters.length && parameters[index] != null) return parameters[index];
+        return createParameterMapping(index, String.valueOf(index));
     }
 
     @Override
     public boolean hasParameterMapping(final int index) {
-        return parameters.containsKey(index);
+        final MethodParameterMapping[] parameters = this.parameters;
+        return index >= 0 && index < parameters.length && parameters[index] != null;
     }
 
     @Override
@@ -104,4 +169,52 @@ public class MethodMappingImpl
         return Objects.hash(super.hashCode(), signature);
     }
 
+    /**
+     * An unmodifiable view of the parameter mappings present in a
+     * snapshot of the parameter table, in index order.
+     */
+    private static final class ParameterView extends AbstractCollection<MethodParameterMapping> {
+
+        private final MethodParameterMapping[] parameters;
+
+        ParameterView(final MethodParameterMapping[] parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        public Iterator<MethodParameterMapping> iterator() {
+            return new Iterator<MethodParameterMapping>() {
+                private int next = advance(0);
+
+                private int advance(int index) {
+                    while (index < parameters.length && parameters[index] == null) index++;
+                    return index;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < parameters.length;
+                }
+
+                @Override
+                public MethodParameterMapping next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    final MethodParameterMapping mapping = parameters[next];
+                    next = advance(next + 1);
+                    return mapping;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (final MethodParameterMapping parameter : parameters) {
+                if (parameter != null) size++;
+            }
+            return size;
+        }
+
+    }
+
 }
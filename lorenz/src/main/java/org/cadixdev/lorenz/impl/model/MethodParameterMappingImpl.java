@@ -49,12 +49,12 @@ public class MethodParameterMappingImpl
     }
 
     @Override
-    public String getFullObfuscatedName() {
+    protected String computeFullObfuscatedName() {
         return getObfuscatedName();
     }
 
     @Override
-    public String getFullDeobfuscatedName() {
+    protected String computeFullDeobfuscatedName() {
         return getDeobfuscatedName();
     }
 
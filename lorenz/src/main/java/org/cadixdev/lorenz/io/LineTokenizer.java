@@ -0,0 +1,441 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.io;
+
+import org.cadixdev.lorenz.util.SymbolTable;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A tokenizer for line-based text formats, that reads the lines into a
+ * reusable buffer, and the fields of each line through a cursor - creating
+ * strings only for the fields that are read as strings.
+ *
+ * <p>The fields of a line are separated by a single separator, so fields
+ * may be empty - in the manner of {@link java.util.regex.Pattern#split(CharSequence)}.
+ * Reading fields through a {@link SymbolTable} only creates strings for
+ * names that the table doesn't already hold.</p>
+ *
+ * <p>Line tokenizers aren't safe for use by multiple threads.</p>
+ *
+ * @since 1.0.0
+ */
+public class LineTokenizer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Creates a line tokenizer, positioned at the given line.
+     *
+     * @param line The line
+     * @param separator The separator between fields
+     * @return The line tokenizer
+     */
+    public static LineTokenizer of(final String line, final char separator) {
+        final LineTokenizer tokenizer = new LineTokenizer(null, separator, line.toCharArray());
+        tokenizer.setLine(0, line.length());
+        return tokenizer;
+    }
+
+    private final Reader reader;
+    private final char separator;
+    private final Field field = new Field();
+    private char[] buffer;
+
+    /**
+     * The number of characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The start of the next line, in the buffer.
+     */
+    private int next;
+
+    /**
+     * Whether the previous line ended with a carriage return, so a line
+     * feed at the start of the next line is part of its terminator.
+     */
+    private boolean skipLineFeed;
+    private boolean eof;
+
+    private int start;
+    private int end;
+    private int position;
+
+    /**
+     * Creates a line tokenizer, for the given {@link Reader}.
+     *
+     * @param reader The reader
+     * @param separator The separator between fields
+     */
+    public LineTokenizer(final Reader reader, final char separator) {
+        this(reader, separator, new char[BUFFER_SIZE]);
+    }
+
+    private LineTokenizer(final Reader reader, final char separator, final char[] buffer) {
+        this.reader = reader;
+        this.separator = separator;
+        this.buffer = buffer;
+        this.limit = reader == null ? buffer.length : 0;
+        this.next = this.limit;
+        this.eof = reader == null;
+    }
+
+    /**
+     * Advances to the next line, terminated by a line feed, a carriage
+     * return, or both.
+     *
+     * @return {@code true} should there be another line, {@code false}
+     *         at the end of the input
+     * @throws IOException Should the input fail to be read
+     */
+    public boolean nextLine() throws IOException {
+        if (skipLineFeed) {
+            if (next == limit) fill();
+            if (next < limit && buffer[next] == '\n') next++;
+            skipLineFeed = false;
+        }
+
+        int scan = next;
+        while (true) {
+            for (; scan < limit; scan++) {
+                final char c = buffer[scan];
+                if (c == '\n' || c == '\r') {
+                    setLine(next, scan);
+                    next = scan + 1;
+                    skipLineFeed = c == '\r';
+                    return true;
+                }
+            }
+
+            if (eof) {
+                if (next == limit) return false;
+                setLine(next, limit);
+                next = limit;
+                return true;
+            }
+            scan -= fill();
+        }
+    }
+
+    /**
+     * Reads more of the input into the buffer, moving the current line
+     * to the start of the buffer - or growing the buffer, should it be
+     * full.
+     *
+     * @return The distance the current line was moved by
+     * @throws IOException Should the input fail to be read
+     */
+    private int fill() throws IOException {
+        final int moved = next;
+        if (moved > 0) {
+            System.arraycopy(buffer, moved, buffer, 0, limit - moved);
+            limit -= moved;
+            next = 0;
+        } else if (limit == buffer.length) {
+            final char[] grown = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+        }
+
+        final int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read == -1) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+        return moved;
+    }
+
+    private void setLine(final int start, final int end) {
+        this.start = start;
+        this.end = end;
+        this.position = start;
+    }
+
+    /**
+     * Skips the tabs at the start of the line.
+     *
+     * @return The number of tabs skipped
+     */
+    public int skipIndent() {
+        int indent = 0;
+        while (start < end && buffer[start] == '\t') {
+            start++;
+            indent++;
+        }
+        position = Math.max(position, start);
+        return indent;
+    }
+
+    /**
+     * Checks whether the line starts with the given character.
+     *
+     * @param c The character
+     * @return {@code true} should the line start with the character
+     */
+    public boolean startsWith(final char c) {
+        return start < end && buffer[start] == c;
+    }
+
+    /**
+     * Removes the comment from the line, should it have one - that is,
+     * everything from the first instance of the given character.
+     *
+     * @param comment The character that begins a comment
+     */
+    public void stripComment(final char comment) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == comment) {
+                end = i;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Removes the whitespace from the start, and end, of the line - in
+     * the manner of {@link String#trim()}.
+     */
+    public void trim() {
+        while (start < end && buffer[start] <= ' ') start++;
+        while (end > start && buffer[end - 1] <= ' ') end--;
+        position = Math.max(position, start);
+    }
+
+    /**
+     * Gets the length of the line.
+     *
+     * @return The length
+     */
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * Checks whether the line is empty.
+     *
+     * @return {@code true} should the line be empty
+     */
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * Counts the fields of the line, not including any empty fields at its
+     * end - in the manner of {@link java.util.regex.Pattern#split(CharSequence)}.
+     *
+     * @return The number of fields
+     */
+    public int countFields() {
+        int last = end - 1;
+        while (last >= start && buffer[last] == separator) last--;
+        if (last < start) return isEmpty() ? 1 : 0;
+
+        int count = 1;
+        for (int i = start; i < last; i++) {
+            if (buffer[i] == separator) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Moves the cursor to the start of the given field of the line.
+     *
+     * @param index The index of the field
+     */
+    public void seek(final int index) {
+        position = start;
+        for (int i = 0; i < index && position <= end; i++) {
+            position = fieldEnd() + 1;
+        }
+    }
+
+    /**
+     * Reads the next field, as a string.
+     *
+     * @return The field
+     * @throws IllegalArgumentException Should there be no fields left
+     */
+    public String next() {
+        final int fieldEnd = requireField();
+        final String value = new String(buffer, position, fieldEnd - position);
+        position = fieldEnd + 1;
+        return value;
+    }
+
+    /**
+     * Reads the next field, as the canonical instance held by the given
+     * symbol table.
+     *
+     * @param symbols The symbol table
+     * @return The field
+     * @throws IllegalArgumentException Should there be no fields left
+     * @see SymbolTable#intern(CharSequence)
+     */
+    public String next(final SymbolTable symbols) {
+        final int fieldEnd = requireField();
+        final String value = symbols.intern(field.set(position, fieldEnd));
+        position = fieldEnd + 1;
+        return value;
+    }
+
+    /**
+     * Reads the next field, up to the last instance of the given character
+     * within it, as the canonical instance held by the given symbol table -
+     * leaving the rest of the field to be read next.
+     *
+     * @param c The character
+     * @param symbols The symbol table
+     * @return The start of the field
+     * @throws IllegalArgumentException Should there be no fields left, or
+     *                                  the field not contain the character
+     */
+    public String nextBeforeLast(final char c, final SymbolTable symbols) {
+        final int index = lastIndexOf(c, requireField());
+        if (index == -1) throw fail();
+
+        final String value = symbols.intern(field.set(position, index));
+        position = index + 1;
+        return value;
+    }
+
+    /**
+     * Skips the next field.
+     */
+    public void skip() {
+        position = fieldEnd() + 1;
+    }
+
+    /**
+     * Skips the next field, should it be the given value.
+     *
+     * @param value The value
+     * @return {@code true} should the field have been skipped
+     */
+    public boolean skip(final String value) {
+        if (position > end) return false;
+
+        final int fieldEnd = fieldEnd();
+        if (fieldEnd - position != value.length()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (buffer[position + i] != value.charAt(i)) return false;
+        }
+        position = fieldEnd + 1;
+        return true;
+    }
+
+    /**
+     * Skips the next field, up to and including the last instance of the
+     * given character within it - leaving the rest of the field to be read
+     * next.
+     *
+     * @param c The character
+     */
+    public void skipBeforeLast(final char c) {
+        if (position > end) return;
+
+        final int index = lastIndexOf(c, fieldEnd());
+        if (index != -1) position = index + 1;
+    }
+
+    /**
+     * Reads the rest of the line, from the cursor, as a string.
+     *
+     * @return The rest of the line
+     */
+    public String rest() {
+        if (position > end) return "";
+
+        final String value = new String(buffer, position, end - position);
+        position = end + 1;
+        return value;
+    }
+
+    private int fieldEnd() {
+        for (int i = position; i < end; i++) {
+            if (buffer[i] == separator) return i;
+        }
+        return end;
+    }
+
+    private int requireField() {
+        if (position > end) throw fail();
+        return fieldEnd();
+    }
+
+    private int lastIndexOf(final char c, final int fieldEnd) {
+        for (int i = fieldEnd - 1; i >= position; i--) {
+            if (buffer[i] == c) return i;
+        }
+        return -1;
+    }
+
+    private IllegalArgumentException fail() {
+        return new IllegalArgumentException("Failed to process line: `" + this + "`!");
+    }
+
+    /**
+     * Gets the line, as a string.
+     *
+     * @return The line
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, start, end - start);
+    }
+
+    /**
+     * A view of a field, within the buffer.
+     */
+    private final class Field implements CharSequence {
+
+        private int from;
+        private int to;
+
+        Field set(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return to - from;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return buffer[from + index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new String(buffer, from + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, from, to - from);
+        }
+
+    }
+
+}
@@ -100,7 +100,9 @@ public interface MappingFormat {
      * @throws IOException Should an I/O issue occur
      */
     default MappingSet read(final Path path) throws IOException {
-        return read(new MappingSet(), path);
+        try (final MappingsReader reader = createReader(path)) {
+            return reader.read();
+        }
     }
 
     /**
@@ -37,6 +37,7 @@ public abstract class TextMappingsReader extends MappingsReader {
     protected static final Pattern TAB = Pattern.compile("\t", Pattern.LITERAL);
 
     protected final BufferedReader reader;
+    private final char separator;
 
     /**
      * Creates a new mappings reader, for the given {@link Reader}.
@@ -44,17 +45,91 @@ public abstract class TextMappingsReader extends MappingsReader {
      * @param reader The reader
      */
     protected TextMappingsReader(final Reader reader) {
+        this(reader, ' ');
+    }
+
+    /**
+     * Creates a new mappings reader, for the given {@link Reader}, whose
+     * lines are tokenized using the given separator.
+     *
+     * @param reader The reader
+     * @param separator The separator between the fields of a line
+     * @since 1.0.0
+     */
+    protected TextMappingsReader(final Reader reader, final char separator) {
         this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.separator = separator;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As the mapping set is created by the reader, and can't be seen by
+     * other threads, it is read as a {@link MappingSet#beginIngestion() bulk
+     * ingestion}.</p>
+     */
+    @Override
+    public MappingSet read() throws IOException {
+        final MappingSet mappings = new MappingSet();
+        mappings.beginIngestion();
+        try {
+            return read(mappings);
+        } finally {
+            mappings.endIngestion();
+        }
     }
 
     @Override
     public MappingSet read(final MappingSet mappings) throws IOException {
-        reader.lines().forEach(line -> readLine(mappings, line));
+        readLines(mappings);
         return mappings;
     }
 
+    /**
+     * Reads each of the remaining lines, into the given
+     * {@link MappingSet}.
+     *
+     * @param mappings The mapping set
+     * @throws IOException Should the lines fail to be read
+     * @since 1.0.0
+     */
+    protected void readLines(final MappingSet mappings) throws IOException {
+        final LineTokenizer tokenizer = new LineTokenizer(reader, separator);
+        while (tokenizer.nextLine()) {
+            readLine(mappings, tokenizer);
+        }
+    }
+
+    /**
+     * Reads the current line of the given tokenizer, into the given
+     * {@link MappingSet}.
+     *
+     * <p>By default, the line is read as a string, by
+     * {@link #readLine(MappingSet, String)} - readers that tokenize the line
+     * themselves avoid creating strings for the fields they don't keep.</p>
+     *
+     * @param mappings The mapping set
+     * @param line The tokenizer, positioned at the line
+     * @since 1.0.0
+     */
+    protected void readLine(final MappingSet mappings, final LineTokenizer line) {
+        readLine(mappings, line.toString());
+    }
+
     protected abstract void readLine(final MappingSet mappings, final String line);
 
+    /**
+     * Creates a tokenizer for the given line, using the separator of the
+     * reader.
+     *
+     * @param line The line
+     * @return The tokenizer, positioned at the line
+     * @since 1.0.0
+     */
+    protected LineTokenizer tokenize(final String line) {
+        return LineTokenizer.of(line, separator);
+    }
+
     @Override
     public void close() throws IOException {
         reader.close();
@@ -126,6 +126,26 @@ public interface ClassMapping<M extends ClassMapping<M, P>, P> extends Mapping<M
      */
     Optional<FieldMapping> getFieldMapping(final String obfuscatedName);
 
+    /**
+     * Gets a field mapping of the given obfuscated name and descriptor,
+     * should it exist - falling back to a field mapping of the same name
+     * without a type, as {@link #computeFieldMapping(FieldSignature)}
+     * would, though without creating a typed field mapping.
+     *
+     * @param obfuscatedName The obfuscated name of the field mapping
+     * @param obfuscatedDescriptor The obfuscated descriptor of the field
+     *                             mapping, or {@code null} if unknown
+     * @return The field mapping, wrapped in an {@link Optional}
+     * @since 1.0.0
+     */
+    default Optional<FieldMapping> getFieldMapping(final String obfuscatedName, final String obfuscatedDescriptor) {
+        if (obfuscatedDescriptor != null) {
+            final Optional<FieldMapping> mapping = getFieldMapping(FieldSignature.of(obfuscatedName, obfuscatedDescriptor));
+            if (mapping.isPresent()) return mapping;
+        }
+        return getFieldMapping(new FieldSignature(obfuscatedName));
+    }
+
     /**
      * Attempts to locate a field mapping for the given obfuscated field
      * signature. Unlike {@link #getFieldMapping(FieldSignature)} this method
@@ -144,6 +164,26 @@ public interface ClassMapping<M extends ClassMapping<M, P>, P> extends Mapping<M
      */
     Optional<FieldMapping> computeFieldMapping(final FieldSignature signature);
 
+    /**
+     * Gets a field mapping of the given de-obfuscated signature, should it
+     * exist. If the given signature has no type, or a field mapping was
+     * created without type, only the name will be compared.
+     *
+     * <p>The default implementation searches all of the field mappings of
+     * the class - implementations are encouraged to index them.</p>
+     *
+     * @param signature The de-obfuscated signature of the field
+     * @return The field mapping, wrapped in an {@link Optional}
+     * @since 1.0.0
+     */
+    default Optional<FieldMapping> getFieldMappingByDeobfuscatedSignature(final FieldSignature signature) {
+        return getFieldMappings().stream()
+                .filter(mapping -> mapping.getDeobfuscatedName().equals(signature.getName()))
+                .filter(mapping -> !signature.getType().isPresent() || !mapping.getType().isPresent() ||
+                        signature.equals(mapping.getDeobfuscatedSignature()))
+                .findFirst();
+    }
+
     /**
      * Creates a new field mapping, attached to this class mapping, using
      * the given signature and de-obfuscated name.
@@ -319,6 +359,24 @@ public interface ClassMapping<M extends ClassMapping<M, P>, P> extends Mapping<M
         return getMethodMapping(MethodSignature.of(obfuscatedName, obfuscatedDescriptor));
     }
 
+    /**
+     * Gets the method mapping of the given de-obfuscated signature, should
+     * it exist.
+     *
+     * <p>The default implementation searches all of the method mappings of
+     * the class - implementations are encouraged to index them.</p>
+     *
+     * @param signature The de-obfuscated signature of the method
+     * @return The method mapping, wrapped in an {@link Optional}
+     * @since 1.0.0
+     */
+    default Optional<MethodMapping> getMethodMappingByDeobfuscatedSignature(final MethodSignature signature) {
+        return getMethodMappings().stream()
+                .filter(mapping -> mapping.getDeobfuscatedName().equals(signature.getName()))
+                .filter(mapping -> signature.equals(mapping.getDeobfuscatedSignature()))
+                .findFirst();
+    }
+
     /**
      * Creates a new method mapping, attached to this class mapping, using
      * the given method signature and de-obfuscated name.
@@ -519,6 +577,20 @@ public interface ClassMapping<M extends ClassMapping<M, P>, P> extends Mapping<M
                 getInnerClassMappings().stream().anyMatch(ClassMapping::hasMappings);
     }
 
+    /**
+     * Marks the class mapping as incomplete, discarding the mappings it
+     * inherited - along with every class mapping that was completed using
+     * it, so they are completed afresh as they are next completed.
+     *
+     * <p>Changes to the members of a class mapping invalidate the class
+     * mappings completed from it, automatically. This needs only be called
+     * should the hierarchy of the class itself change.</p>
+     *
+     * @since 1.0.0
+     */
+    default void invalidateCompletion() {
+    }
+
     @Override
     default Optional<InheritanceProvider.ClassInfo> provideInheritance(final InheritanceProvider provider, final Object context) {
         return provider.provide(getFullObfuscatedName(), context);
@@ -0,0 +1,462 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A thread-safe {@link ConcurrentMap} that is optimised for holding few
+ * entries.
+ *
+ * <p>Until the map grows beyond its threshold, entries are stored inline
+ * in a single copy-on-write array - which is searched linearly by
+ * lock-free reads, and replaced under the map's lock by writes. Once the
+ * threshold is exceeded, the entries are moved into a
+ * {@link ConcurrentHashMap}, which is used from then on.</p>
+ *
+ * <p>As with {@link ConcurrentHashMap}, the functions given to the
+ * {@code compute} methods are invoked at most once, atomically. Neither
+ * {@code null} keys nor {@code null} values are supported.</p>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ *
+ * @since 1.0.0
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    /**
+     * The default number of entries, above which a map will be promoted to
+     * a {@link ConcurrentHashMap}.
+     */
+    public static final int DEFAULT_THRESHOLD = 8;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final int threshold;
+
+    /**
+     * The inline entries, as alternating keys and values.
+     */
+    private volatile Object[] entries = EMPTY;
+    private volatile ConcurrentHashMap<K, V> map;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Creates an empty map, using the {@link #DEFAULT_THRESHOLD default threshold}.
+     */
+    public CompactMap() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates an empty map, with the given threshold.
+     *
+     * @param threshold The number of entries, above which the map will be
+     *                  promoted to a {@link ConcurrentHashMap}
+     */
+    public CompactMap(final int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Creates a map holding the entries of the given map, using the
+     * {@link #DEFAULT_THRESHOLD default threshold}.
+     *
+     * @param map The map to copy
+     */
+    public CompactMap(final Map<? extends K, ? extends V> map) {
+        this(DEFAULT_THRESHOLD);
+        if (map.size() > threshold) {
+            this.map = new ConcurrentHashMap<>(map);
+            return;
+        }
+
+        final Object[] entries = new Object[map.size() * 2];
+        int i = 0;
+        for (final Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            entries[i++] = Objects.requireNonNull(entry.getKey());
+            entries[i++] = Objects.requireNonNull(entry.getValue());
+        }
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the underlying hash map, should the map have been promoted.
+     *
+     * <p>Note that the inline entries must be read <em>before</em> this
+     * is called - as promotion clears the inline entries after the hash
+     * map has been published.</p>
+     *
+     * @return The hash map, or {@code null}
+     */
+    private ConcurrentHashMap<K, V> promoted() {
+        return map;
+    }
+
+    private static int indexOf(final Object[] entries, final Object key) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        final Object[] entries = this.entries;
+        final ConcurrentHashMap<K, V> map = promoted();
+        return map != null ? map.size() : entries.length >> 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        final Object[] entries = this.entries;
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.get(key);
+
+        final int index = indexOf(entries, key);
+        return index == -1 ? null : (V) entries[index + 1];
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    // Writes
+    //
+    // Each write first checks whether the map has been promoted, delegating
+    // if so, and otherwise re-checks under the lock - as the map may be
+    // promoted while waiting for it.
+
+    /**
+     * Sets the value for the given key, whilst holding the lock and not
+     * promoted.
+     *
+     * @param index The index of the key, or {@code -1} if not present
+     * @param key The key
+     * @param value The value, or {@code null} to remove the entry
+     */
+    @SuppressWarnings("unchecked")
+    private void set(final int index, final K key, final V value) {
+        final Object[] entries = this.entries;
+
+        if (index != -1) {
+            if (value == null) {
+                final Object[] copy = new Object[entries.length - 2];
+                System.arraycopy(entries, 0, copy, 0, index);
+                System.arraycopy(entries, index + 2, copy, index, entries.length - index - 2);
+                this.entries = copy;
+            }
+            else {
+                final Object[] copy = entries.clone();
+                copy[index + 1] = value;
+                this.entries = copy;
+            }
+            return;
+        }
+        if (value == null) return;
+
+        if ((entries.length >> 1) >= threshold) {
+            final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<>();
+            for (int i = 0; i < entries.length; i += 2) {
+                map.put((K) entries[i], (V) entries[i + 1]);
+            }
+            map.put(key, value);
+
+            // Publish the hash map before clearing the inline entries, see promoted()
+            this.map = map;
+            this.entries = EMPTY;
+            return;
+        }
+
+        final Object[] copy = new Object[entries.length + 2];
+        System.arraycopy(entries, 0, copy, 0, entries.length);
+        copy[entries.length] = key;
+        copy[entries.length + 1] = value;
+        this.entries = copy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(final K key, final V value) {
+        Objects.requireNonNull(value);
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.put(key, value);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.put(key, value);
+
+            final int index = indexOf(entries, key);
+            final V previous = index == -1 ? null : (V) entries[index + 1];
+            set(index, key, value);
+            return previous;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(final K key, final V value) {
+        Objects.requireNonNull(value);
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.putIfAbsent(key, value);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.putIfAbsent(key, value);
+
+            final int index = indexOf(entries, key);
+            if (index != -1) return (V) entries[index + 1];
+            set(index, key, value);
+            return null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(final Object key) {
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.remove(key);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.remove(key);
+
+            final int index = indexOf(entries, key);
+            if (index == -1) return null;
+            final V previous = (V) entries[index + 1];
+            set(index, null, null);
+            return previous;
+        }
+    }
+
+    @Override
+    public boolean remove(final Object key, final Object value) {
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.remove(key, value);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.remove(key, value);
+
+            final int index = indexOf(entries, key);
+            if (index == -1 || !entries[index + 1].equals(value)) return false;
+            set(index, null, null);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean replace(final K key, final V oldValue, final V newValue) {
+        Objects.requireNonNull(newValue);
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.replace(key, oldValue, newValue);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.replace(key, oldValue, newValue);
+
+            final int index = indexOf(entries, key);
+            if (index == -1 || !entries[index + 1].equals(oldValue)) return false;
+            set(index, key, newValue);
+            return true;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V replace(final K key, final V value) {
+        Objects.requireNonNull(value);
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.replace(key, value);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.replace(key, value);
+
+            final int index = indexOf(entries, key);
+            if (index == -1) return null;
+            final V previous = (V) entries[index + 1];
+            set(index, key, value);
+            return previous;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.computeIfAbsent(key, mappingFunction);
+
+        // Avoid taking the lock, should the key already be present
+        final V existing = get(key);
+        if (existing != null) return existing;
+
+        synchronized (this) {
+            if (this.map != null) return this.map.computeIfAbsent(key, mappingFunction);
+
+            final int index = indexOf(entries, key);
+            if (index != -1) return (V) entries[index + 1];
+
+            final V value = mappingFunction.apply(key);
+            set(-1, key, value);
+            return value;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V computeIfPresent(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.computeIfPresent(key, remappingFunction);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.computeIfPresent(key, remappingFunction);
+
+            final int index = indexOf(entries, key);
+            if (index == -1) return null;
+
+            final V value = remappingFunction.apply(key, (V) entries[index + 1]);
+            set(index, key, value);
+            return value;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.compute(key, remappingFunction);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.compute(key, remappingFunction);
+
+            final int index = indexOf(entries, key);
+            final V value = remappingFunction.apply(key, index == -1 ? null : (V) entries[index + 1]);
+            set(index, key, value);
+            return value;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) return map.merge(key, value, remappingFunction);
+
+        synchronized (this) {
+            if (this.map != null) return this.map.merge(key, value, remappingFunction);
+
+            final int index = indexOf(entries, key);
+            final V merged = index == -1 ? value : remappingFunction.apply((V) entries[index + 1], value);
+            set(index, key, merged);
+            return merged;
+        }
+    }
+
+    @Override
+    public void clear() {
+        final ConcurrentHashMap<K, V> map = promoted();
+        if (map != null) {
+            map.clear();
+            return;
+        }
+
+        synchronized (this) {
+            if (this.map != null) {
+                this.map.clear();
+                return;
+            }
+            entries = EMPTY;
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    /**
+     * A live view of the entries of the map. Iteration over the inline
+     * entries works over a snapshot, as with copy-on-write collections.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            final Object[] entries = CompactMap.this.entries;
+            final ConcurrentHashMap<K, V> map = promoted();
+            if (map != null) return map.entrySet().iterator();
+            return new InlineIterator(entries);
+        }
+
+        @Override
+        public int size() {
+            return CompactMap.this.size();
+        }
+
+    }
+
+    private final class InlineIterator implements Iterator<Entry<K, V>> {
+
+        private final Object[] entries;
+        private int next;
+        private K last;
+
+        InlineIterator(final Object[] entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < entries.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            last = (K) entries[next];
+            final Entry<K, V> entry = new SimpleImmutableEntry<>(last, (V) entries[next + 1]);
+            next += 2;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) throw new IllegalStateException();
+            CompactMap.this.remove(last);
+            last = null;
+        }
+
+    }
+
+}
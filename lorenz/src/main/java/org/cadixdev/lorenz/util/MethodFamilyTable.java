@@ -0,0 +1,348 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.util;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.InheritanceType;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.frozen.FrozenTable;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.InnerClassMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.TopLevelClassMapping;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A precomputed table of the de-obfuscated names of method families,
+ * across a class hierarchy.
+ *
+ * <p>A method family is a set of methods that override one another -
+ * and so must share a name. Families are found up-front, by uniting
+ * each method with the methods it overrides (using a union-find over
+ * every method declared within the hierarchy), and each family is then
+ * given the name of its first mapped member, preferring members declared
+ * by parent classes. As such, a mapping only needs to exist for one
+ * method of a family.</p>
+ *
+ * <p>Unlike {@link ClassMapping#complete(InheritanceProvider) completion},
+ * which copies the inherited mappings into every subclass, the table only
+ * records the methods each class declares - so it grows with the number
+ * of methods in the hierarchy, rather than with its depth. Inherited
+ * methods are resolved by walking the parents of a class, until a
+ * declaration is found. Every declaration is recorded, including those
+ * that can't be overridden, so a method is never given the name of a
+ * parent method it doesn't override. As with the resolution of methods
+ * by the JVM, the superclasses are searched before the interfaces.</p>
+ *
+ * <p>Methods that share a name and parameter types are considered to
+ * override one another, regardless of their return types - which
+ * accounts for covariant returns, and their bridge methods. The table is
+ * immutable, and may be freely shared between threads.</p>
+ *
+ * <p>The table is a standalone query - for tools that need the names of
+ * inherited methods without completing the mappings - and isn't used by
+ * {@link org.cadixdev.lorenz.asm.LorenzRemapper} or
+ * {@link org.cadixdev.lorenz.asm.RemapTable}, which resolve inherited
+ * methods themselves.</p>
+ *
+ * @since 1.0.0
+ */
+public final class MethodFamilyTable {
+
+    /**
+     * Builds the method family table for the class mappings of the given
+     * mapping set, and their parents.
+     *
+     * @param mappings The mappings
+     * @param provider The inheritance provider
+     * @return The method family table
+     */
+    public static MethodFamilyTable build(final MappingSet mappings, final InheritanceProvider provider) {
+        final List<String> classes = new ArrayList<>();
+        for (final TopLevelClassMapping klass : mappings.getTopLevelClassMappings()) {
+            collect(klass, classes);
+        }
+        return build(mappings, provider, classes);
+    }
+
+    /**
+     * Builds the method family table for the given classes, and their
+     * parents.
+     *
+     * <p>Classes without mappings must be included for their methods to
+     * take the names of the methods they override - for example, all of
+     * the classes of the jar being remapped.</p>
+     *
+     * @param mappings The mappings
+     * @param provider The inheritance provider
+     * @param classes The names of the classes
+     * @return The method family table
+     */
+    public static MethodFamilyTable build(final MappingSet mappings, final InheritanceProvider provider,
+            final Collection<String> classes) {
+        return new Builder(mappings, provider).build(classes);
+    }
+
+    private static void collect(final ClassMapping<?, ?> klass, final List<String> classes) {
+        classes.add(klass.getFullObfuscatedName());
+        for (final InnerClassMapping inner : klass.getInnerClassMappings()) {
+            collect(inner, classes);
+        }
+    }
+
+    private static final String[] NO_INTERFACES = new String[0];
+
+    private final Map<String, FrozenTable<MethodSignature, Optional<String>>> names;
+    private final Map<String, String> superNames;
+    private final Map<String, String[]> interfaces;
+    private final int familyCount;
+
+    private MethodFamilyTable(final Map<String, FrozenTable<MethodSignature, Optional<String>>> names,
+            final Map<String, String> superNames, final Map<String, String[]> interfaces, final int familyCount) {
+        this.names = names;
+        this.superNames = superNames;
+        this.interfaces = interfaces;
+        this.familyCount = familyCount;
+    }
+
+    /**
+     * Gets the de-obfuscated name of the given method, should its family
+     * be mapped.
+     *
+     * @param owner The obfuscated name of the class the method is
+     *              referenced through
+     * @param signature The obfuscated signature of the method
+     * @return The de-obfuscated name, wrapped in an {@link Optional}
+     */
+    public Optional<String> getDeobfuscatedName(final String owner, final MethodSignature signature) {
+        // Inherited methods are found through the nearest superclass to declare them - mapped or not
+        boolean hasInterfaces = false;
+        String klass = owner;
+        for (int depth = 0; klass != null && depth <= superNames.size(); depth++) {
+            final Optional<String> name = getDeclaredName(klass, signature);
+            if (name != null) return name;
+
+            hasInterfaces |= interfaces.containsKey(klass);
+            klass = superNames.get(klass);
+        }
+        if (!hasInterfaces) return Optional.empty();
+
+        // Only then through the interfaces, which are the only lookups to need a queue
+        final Set<String> visited = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        klass = owner;
+        for (int depth = 0; klass != null && depth <= superNames.size(); depth++) {
+            final String[] klassInterfaces = interfaces.get(klass);
+            if (klassInterfaces != null) Collections.addAll(queue, klassInterfaces);
+            klass = superNames.get(klass);
+        }
+        while (!queue.isEmpty()) {
+            final String iface = queue.poll();
+            if (!visited.add(iface)) continue;
+
+            final Optional<String> name = getDeclaredName(iface, signature);
+            if (name != null) return name;
+
+            final String[] parents = interfaces.get(iface);
+            if (parents != null) Collections.addAll(queue, parents);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<String> getDeclaredName(final String klass, final MethodSignature signature) {
+        final FrozenTable<MethodSignature, Optional<String>> declared = names.get(klass);
+        return declared != null ? declared.get(signature) : null;
+    }
+
+    /**
+     * Gets the number of method families, with a mapped name, within the
+     * table.
+     *
+     * @return The number of mapped families
+     */
+    public int getFamilyCount() {
+        return familyCount;
+    }
+
+    /**
+     * Builds the table, from the class information of the hierarchy.
+     */
+    private static final class Builder {
+
+        private final MappingSet mappings;
+        private final InheritanceProvider provider;
+
+        // The classes of the hierarchy, with parents before their children
+        private final Map<String, InheritanceProvider.ClassInfo> classes = new LinkedHashMap<>();
+        private final Map<String, Map<MethodSignature, Integer>> declared = new HashMap<>();
+        private final Map<String, Map<MethodSignature, Integer>> overridable = new HashMap<>();
+        private final List<String> owners = new ArrayList<>();
+        private final List<MethodSignature> signatures = new ArrayList<>();
+        private int[] families;
+
+        Builder(final MappingSet mappings, final InheritanceProvider provider) {
+            this.mappings = mappings;
+            this.provider = provider;
+        }
+
+        MethodFamilyTable build(final Collection<String> classNames) {
+            for (final String name : classNames) {
+                provider.provide(name).ifPresent(this::visit);
+            }
+
+            // Number every method, noting those that can be overridden
+            for (final InheritanceProvider.ClassInfo info : classes.values()) {
+                final Map<MethodSignature, Integer> methods = new HashMap<>();
+                final Map<MethodSignature, Integer> overridableMethods = new HashMap<>();
+                for (final Map.Entry<MethodSignature, InheritanceType> method : info.getMethods().entrySet()) {
+                    methods.put(method.getKey(), owners.size());
+                    final String methodName = method.getKey().getName();
+                    if (method.getValue() != InheritanceType.NONE && !methodName.equals("<init>") && !methodName.equals("<clinit>")) {
+                        overridableMethods.put(method.getKey(), owners.size());
+                    }
+                    owners.add(info.getName());
+                    signatures.add(method.getKey());
+                }
+                declared.put(info.getName(), methods);
+                overridable.put(info.getName(), overridableMethods);
+            }
+
+            families = new int[owners.size()];
+            for (int i = 0; i < families.length; i++) families[i] = i;
+
+            // Unite the methods visible from each class, that share a name and parameters
+            for (final InheritanceProvider.ClassInfo info : classes.values()) {
+                final Map<String, Integer> visible = new HashMap<>();
+                for (final Map.Entry<MethodSignature, Integer> method : overridable.get(info.getName()).entrySet()) {
+                    unite(visible, method.getKey(), method.getValue());
+                }
+                for (final InheritanceProvider.ClassInfo parent : info.provideParents(provider)) {
+                    final Map<MethodSignature, Integer> parentMethods = overridable.get(parent.getName());
+                    if (parentMethods == null) continue;
+
+                    for (final Map.Entry<MethodSignature, Integer> method : parentMethods.entrySet()) {
+                        if (parent.canInherit(info, method.getKey())) {
+                            unite(visible, method.getKey(), method.getValue());
+                        }
+                    }
+                }
+            }
+
+            // Name each family after its first mapped member - as parents are numbered
+            // before their children, the outer-most mapping wins
+            final String[] familyNames = new String[families.length];
+            int familyCount = 0;
+            for (int i = 0; i < families.length; i++) {
+                final int family = find(i);
+                if (familyNames[family] != null) continue;
+
+                final String name = mappedName(owners.get(i), signatures.get(i));
+                if (name != null) {
+                    familyNames[family] = name;
+                    familyCount++;
+                }
+            }
+
+            // Unmapped declarations are recorded too, so lookups stop at the first class to declare a method
+            final Map<String, FrozenTable<MethodSignature, Optional<String>>> names = new HashMap<>();
+            final Map<String, String> superNames = new HashMap<>(classes.size() * 2);
+            final Map<String, String[]> interfaces = new HashMap<>(classes.size() * 2);
+            for (final InheritanceProvider.ClassInfo info : classes.values()) {
+                final Map<MethodSignature, Integer> methods = declared.get(info.getName());
+                if (!methods.isEmpty()) {
+                    final Map<MethodSignature, Optional<String>> declaredNames = new HashMap<>(methods.size() * 2);
+                    for (final Map.Entry<MethodSignature, Integer> method : methods.entrySet()) {
+                        declaredNames.put(method.getKey(), Optional.ofNullable(familyNames[find(method.getValue())]));
+                    }
+                    names.put(info.getName(), FrozenTable.of(declaredNames));
+                }
+
+                if (!info.getSuperName().isEmpty()) superNames.put(info.getName(), info.getSuperName());
+                if (!info.getInterfaces().isEmpty()) {
+                    interfaces.put(info.getName(), info.getInterfaces().toArray(NO_INTERFACES));
+                }
+            }
+            return new MethodFamilyTable(names, superNames, interfaces, familyCount);
+        }
+
+        private void visit(final InheritanceProvider.ClassInfo info) {
+            if (classes.containsKey(info.getName())) return;
+
+            // Claim the class before visiting its parents, should the hierarchy be cyclic
+            classes.put(info.getName(), null);
+            final List<String> parentNames = new ArrayList<>(info.getInterfaces());
+            if (!info.getSuperName().isEmpty()) parentNames.add(0, info.getSuperName());
+            for (final String parent : parentNames) {
+                provider.provide(parent).ifPresent(this::visit);
+            }
+
+            // Re-insert, so the class follows its parents
+            classes.remove(info.getName());
+            classes.put(info.getName(), info);
+        }
+
+        private void unite(final Map<String, Integer> visible, final MethodSignature signature, final int method) {
+            final String descriptor = signature.getDescriptor().toString();
+            final String key = signature.getName() + descriptor.substring(0, descriptor.indexOf(')') + 1);
+            final Integer existing = visible.putIfAbsent(key, method);
+            if (existing != null) union(existing, method);
+        }
+
+        private int find(int method) {
+            while (families[method] != method) {
+                // Path halving
+                families[method] = families[families[method]];
+                method = families[method];
+            }
+            return method;
+        }
+
+        private void union(final int a, final int b) {
+            final int rootA = find(a);
+            final int rootB = find(b);
+            if (rootA == rootB) return;
+
+            // The lower number is kept as the root, so roots belong to the outer-most classes
+            if (rootA < rootB) families[rootB] = rootA;
+            else families[rootA] = rootB;
+        }
+
+        private String mappedName(final String owner, final MethodSignature signature) {
+            final ClassMapping<?, ?> klass = mappings.getClassMapping(owner).orElse(null);
+            if (klass == null) return null;
+
+            final MethodMapping method = klass.getMethodMapping(signature).orElse(null);
+            return method != null && method.hasDeobfuscatedName() ? method.getDeobfuscatedName() : null;
+        }
+
+    }
+
+}
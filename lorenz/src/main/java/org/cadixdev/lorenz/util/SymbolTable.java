@@ -0,0 +1,168 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.util;
+
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A table of canonical instances of names, and descriptors, used to
+ * ensure identical names share a single instance.
+ *
+ * <p>Obfuscated and de-obfuscated names repeat considerably across the
+ * classes of a mapping set (and between related mapping sets), so routing
+ * names through a symbol table can greatly reduce the memory used. Each
+ * {@link org.cadixdev.lorenz.MappingSet} has a symbol table, which may be
+ * shared between sets - for example when loading several versions of the
+ * same mappings.</p>
+ *
+ * <p>Symbol tables are safe for use by multiple threads.</p>
+ *
+ * @since 1.0.0
+ */
+public class SymbolTable {
+
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final Map<MethodDescriptor, MethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the canonical instance of the given name.
+     *
+     * @param name The name, may be {@code null}
+     * @return The canonical instance
+     */
+    public String intern(final String name) {
+        if (name == null) return null;
+
+        final String existing = names.get(name);
+        if (existing != null) return existing;
+
+        final String raced = names.putIfAbsent(name, name);
+        return raced != null ? raced : name;
+    }
+
+    /**
+     * Gets the canonical instance of the name held by the given characters.
+     *
+     * <p>Should the name already be held by the symbol table, no string
+     * is created for it - which allows names to be read from a reusable
+     * buffer, such as that of a {@link org.cadixdev.lorenz.io.LineTokenizer},
+     * creating strings only for the names that are new.</p>
+     *
+     * @param name The characters of the name, may be {@code null}
+     * @return The canonical instance
+     */
+    public String intern(final CharSequence name) {
+        if (name == null) return null;
+        if (name instanceof String) return intern((String) name);
+
+        final String existing = names.get(new Probe(name));
+        if (existing != null) return existing;
+        return intern(name.toString());
+    }
+
+    /**
+     * Gets the canonical instance of the given method descriptor.
+     *
+     * @param descriptor The descriptor
+     * @return The canonical instance
+     */
+    public MethodDescriptor intern(final MethodDescriptor descriptor) {
+        final MethodDescriptor existing = descriptors.get(descriptor);
+        if (existing != null) return existing;
+
+        final MethodDescriptor raced = descriptors.putIfAbsent(descriptor, descriptor);
+        return raced != null ? raced : descriptor;
+    }
+
+    /**
+     * Gets a field signature, equal to the given signature, that uses
+     * the canonical instance of its name.
+     *
+     * @param signature The signature
+     * @return The signature using canonical instances
+     */
+    public FieldSignature intern(final FieldSignature signature) {
+        final String name = intern(signature.getName());
+        if (name == signature.getName()) return signature;
+
+        return signature.getType()
+                .map(type -> new FieldSignature(name, type))
+                .orElseGet(() -> new FieldSignature(name));
+    }
+
+    /**
+     * Gets a method signature, equal to the given signature, that uses
+     * the canonical instances of its name and descriptor.
+     *
+     * @param signature The signature
+     * @return The signature using canonical instances
+     */
+    public MethodSignature intern(final MethodSignature signature) {
+        final String name = intern(signature.getName());
+        final MethodDescriptor descriptor = intern(signature.getDescriptor());
+        if (name == signature.getName() && descriptor == signature.getDescriptor()) return signature;
+
+        return new MethodSignature(name, descriptor);
+    }
+
+    /**
+     * Gets the number of names held by the symbol table.
+     *
+     * @return The number of names
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * A key to look up names by, that is equal to any string of the same
+     * characters.
+     */
+    private static final class Probe {
+
+        private final CharSequence chars;
+        private final int hash;
+
+        Probe(final CharSequence chars) {
+            this.chars = chars;
+
+            // The same hash as the equal string
+            int hash = 0;
+            for (int i = 0; i < chars.length(); i++) {
+                hash = 31 * hash + chars.charAt(i);
+            }
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof String && ((String) obj).contentEquals(chars);
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.test
+
+import org.cadixdev.lorenz.util.CompactMap
+import spock.lang.Specification
+
+class CompactMapSpec extends Specification {
+
+    def 'behaves as a map'(final int size) {
+        given:
+        def map = new CompactMap<String, Integer>(4)
+        def expected = [:]
+
+        when:
+        for (int i = 0; i < size; i++) {
+            map.put('k' + i, i)
+            expected.put('k' + i, i)
+        }
+        map.compute('k0') { k, v -> v == null ? -1 : v + 100 }
+        expected.compute('k0') { k, v -> v == null ? -1 : v + 100 }
+        map.values().remove(1)
+        expected.values().remove(1)
+        map.keySet().removeIf { it == 'k2' }
+        expected.keySet().removeIf { it == 'k2' }
+
+        then:
+        map == expected
+        map.hashCode() == expected.hashCode()
+        map.size() == expected.size()
+        expected.every { k, v -> map.get(k) == v }
+        !map.containsKey('missing')
+
+        where:
+        size << [0, 1, 3, 4, 5, 20]
+    }
+
+    def 'invokes compute functions once'() {
+        given:
+        def map = new CompactMap<String, Integer>()
+        def calls = 0
+
+        when:
+        map.computeIfAbsent('a') { calls++; 1 }
+        map.computeIfAbsent('a') { calls++; 2 }
+
+        then:
+        calls == 1
+        map.get('a') == 1
+    }
+
+}
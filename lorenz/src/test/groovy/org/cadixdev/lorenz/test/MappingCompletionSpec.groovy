@@ -22,6 +22,8 @@ import org.cadixdev.bombe.type.signature.MethodSignature
 import org.cadixdev.lorenz.MappingSet
 import spock.lang.Specification
 
+import java.util.concurrent.Executors
+
 class MappingCompletionSpec extends Specification {
 
     def 'override'(final String desc) {
@@ -81,6 +83,95 @@ class MappingCompletionSpec extends Specification {
         '(La;)V' | '(Lc;)V'
     }
 
+    def 'linked completion'(final String aDesc, final String bDesc) {
+        given:
+        def mapping = basicMapping(aDesc)
+        mapping.mappings.linkedCompletion = true
+        def inheritanceProvider = basicInheritanceProvider(aDesc, bDesc)
+
+        when:
+        mapping.complete(inheritanceProvider)
+
+        then:
+        mapping.complete
+        mapping.methodMappings.isEmpty()
+        mapping.getMethodMapping('gh', bDesc).get().deobfuscatedName == 'run'
+
+        when:
+        mapping.mappings.getClassMapping('a').get().getMethodMapping('gh', aDesc).get().deobfuscatedName = 'execute'
+
+        then:
+        mapping.getMethodMapping('gh', bDesc).get().deobfuscatedName == 'execute'
+
+        where:
+        aDesc | bDesc
+        '()V' | '()V'
+        '()La;' | '()Lb;'
+    }
+
+        def 'invalidate completion'() {
+        given:
+        def mapping = basicMapping('()V')
+        def parent = mapping.mappings.getClassMapping('a').get()
+        def inheritanceProvider = basicInheritanceProvider('()V', '()V')
+        mapping.complete(inheritanceProvider)
+
+        when:
+        parent.removeMethodMapping(MethodSignature.of('gh', '()V'))
+
+        then:
+        !mapping.complete
+        !mapping.getMethodMapping('gh', '()V').isPresent()
+
+        when:
+        parent.getOrCreateMethodMapping('gh', '()V').deobfuscatedName = 'go'
+        mapping.complete(inheritanceProvider)
+
+        then:
+        mapping.complete
+        mapping.getMethodMapping('gh', '()V').get().deobfuscatedName == 'go'
+
+        when:
+        parent.invalidateCompletion()
+
+        then:
+        !mapping.complete
+    }
+
+        def 'complete all'() {
+        given:
+        def mappings = new MappingSet()
+        mappings.getOrCreateTopLevelClassMapping('c0').getOrCreateMethodMapping('gh', '()V')
+                .setDeobfuscatedName('run')
+        (1..<64).each { mappings.getOrCreateTopLevelClassMapping("c$it") }
+        def executor = Executors.newFixedThreadPool(4)
+
+        when:
+        // Each class extends the class before it, and the even classes are parents of the next two
+        mappings.completeAll(new InheritanceProvider() {
+            @Override
+            Optional<InheritanceProvider.ClassInfo> provide(final String klass) {
+                if (!klass.startsWith('c')) return Optional.empty()
+                def index = klass.substring(1) as int
+                def interfaces = index > 1 && index % 2 == 1 ? ["c${index - 1}".toString()] : []
+                return Optional.of(new InheritanceProvider.ClassInfo.Impl(
+                        klass, index % 2 == 0,
+                        index == 0 ? 'java/lang/Object' : "c${index - 1}".toString(), interfaces,
+                        Collections.emptyMap(), Collections.emptyMap(),
+                        Collections.singletonMap(MethodSignature.of('gh', '()V'), InheritanceType.PUBLIC)
+                ))
+            }
+        }, executor)
+
+        then:
+        mappings.topLevelClassMappings.every {
+            it.complete && it.getMethodMapping('gh', '()V').get().deobfuscatedName == 'run'
+        }
+
+        cleanup:
+        executor.shutdown()
+    }
+
     static def basicMapping(final String aDesc) {
         return new MappingSet().with {
             it.getOrCreateTopLevelClassMapping('a').with {
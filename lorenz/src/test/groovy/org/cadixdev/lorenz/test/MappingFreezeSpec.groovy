@@ -0,0 +1,126 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.test
+
+import org.cadixdev.lorenz.MappingSet
+import spock.lang.Specification
+
+class MappingFreezeSpec extends Specification {
+
+    private static MappingSet basicMappings() {
+        def mappings = new MappingSet()
+        def klass = mappings.getOrCreateTopLevelClassMapping('ab')
+                .setDeobfuscatedName('demo/Demo')
+        klass.getOrCreateFieldMapping('ui')
+                .setDeobfuscatedName('log')
+        klass.getOrCreateMethodMapping('jj', '(Lab;I)V')
+                .setDeobfuscatedName('run')
+                .getOrCreateParameterMapping(1)
+                .setDeobfuscatedName('count')
+        klass.getOrCreateInnerClassMapping('gh')
+                .setDeobfuscatedName('Boop')
+                .getOrCreateInnerClassMapping('1')
+        return mappings
+    }
+
+    def 'freezes mappings'() {
+        given:
+        def mappings = basicMappings()
+
+        when:
+        def frozen = mappings.freeze()
+
+        then:
+        frozen == mappings
+        mappings == frozen
+        frozen.getTopLevelClassMapping('ab').get().deobfuscatedName == 'demo/Demo'
+        frozen.getClassMapping('ab$gh').get().fullDeobfuscatedName == 'demo/Demo$Boop'
+        frozen.getClassMapping('ab$gh$1').get().fullDeobfuscatedName == 'demo/Demo$Boop$1'
+        !frozen.getClassMapping('ab$gk').isPresent()
+        frozen.getTopLevelClassMapping('ab').get().getFieldMapping('ui').get().deobfuscatedName == 'log'
+
+        def method = frozen.getClassMapping('ab').get().getMethodMapping('jj', '(Lab;I)V').get()
+        method.deobfuscatedName == 'run'
+        method.deobfuscatedDescriptor == '(Ldemo/Demo;I)V'
+        method.getParameterMapping(1).get().deobfuscatedName == 'count'
+        !method.getParameterMapping(0).isPresent()
+        !method.getParameterMapping(5).isPresent()
+    }
+
+    def 'is a snapshot'() {
+        given:
+        def mappings = basicMappings()
+        def frozen = mappings.freeze()
+
+        when:
+        mappings.getOrCreateTopLevelClassMapping('ab').setDeobfuscatedName('Renamed')
+
+        then:
+        frozen.getTopLevelClassMapping('ab').get().deobfuscatedName == 'demo/Demo'
+    }
+
+    def 'cannot be modified'() {
+        given:
+        def frozen = basicMappings().freeze()
+
+        when:
+        modification(frozen)
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        where:
+        modification << [
+                { MappingSet it -> it.createTopLevelClassMapping('cd', 'Other') },
+                { MappingSet it -> it.getOrCreateClassMapping('cd').setDeobfuscatedName('Other') },
+                { MappingSet it -> it.removeClassMapping('ab') },
+                { MappingSet it -> it.getClassMapping('ab').get().setDeobfuscatedName('Other') },
+                { MappingSet it -> it.getClassMapping('ab').get().getOrCreateFieldMapping('xx') },
+                { MappingSet it -> it.getClassMapping('ab').get().getOrCreateMethodMapping('xx', '()V') },
+        ]
+    }
+
+    def 'gives unmapped classes transient identity mappings'() {
+        given:
+        def frozen = basicMappings().freeze()
+
+        when:
+        def unmapped = frozen.getOrCreateClassMapping('cd')
+        def inner = frozen.getOrCreateClassMapping('ab$xy')
+
+        then:
+        unmapped.fullDeobfuscatedName == 'cd'
+        inner.fullDeobfuscatedName == 'demo/Demo$xy'
+        !frozen.hasTopLevelClassMapping('cd')
+        !frozen.getClassMapping('ab$xy').present
+    }
+
+    def 'produces mutable copies'() {
+        given:
+        def frozen = basicMappings().freeze()
+
+        when:
+        def copy = frozen.copy()
+        def reversed = frozen.reverse()
+
+        then:
+        copy == frozen
+        copy.getOrCreateTopLevelClassMapping('cd')
+        reversed.getClassMapping('demo/Demo$Boop').get().deobfuscatedName == 'gh'
+    }
+
+}
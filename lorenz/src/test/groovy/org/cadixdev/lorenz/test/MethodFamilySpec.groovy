@@ -0,0 +1,136 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.test
+
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.type.signature.MethodSignature
+import org.cadixdev.lorenz.MappingSet
+import org.cadixdev.lorenz.util.MethodFamilyTable
+import spock.lang.Specification
+
+class MethodFamilySpec extends Specification {
+
+    private static final def RUN = MethodSignature.of('m', '()V')
+    private static final def VALUE = MethodSignature.of('v', '()La;')
+    private static final def SECRET = MethodSignature.of('p', '()V')
+
+    def 'method families'() {
+        given:
+        def mappings = new MappingSet()
+        mappings.getOrCreateTopLevelClassMapping('a').with {
+            it.getOrCreateMethodMapping(RUN).deobfuscatedName = 'run'
+            it.getOrCreateMethodMapping(VALUE).deobfuscatedName = 'value'
+            it.getOrCreateMethodMapping(SECRET).deobfuscatedName = 'secret'
+        }
+
+        when:
+        // b extends a, implementing i through a - c extends b, and d extends c
+        def table = MethodFamilyTable.build(mappings, provider([
+                i: info('i', true, null, [], [(RUN): InheritanceType.PUBLIC]),
+                a: info('a', false, 'java/lang/Object', [], [
+                        (RUN): InheritanceType.PUBLIC,
+                        (VALUE): InheritanceType.PUBLIC,
+                        (SECRET): InheritanceType.NONE
+                ]),
+                b: info('b', false, 'a', ['i'], [:]),
+                c: info('c', false, 'b', [], [
+                        (RUN): InheritanceType.PUBLIC,
+                        (MethodSignature.of('v', '()Lb;')): InheritanceType.PUBLIC,
+                        (SECRET): InheritanceType.PUBLIC
+                ]),
+                d: info('d', false, 'c', [], [:])
+        ]), ['d'])
+
+        then:
+        table.familyCount == 3
+        table.getDeobfuscatedName('a', SECRET).get() == 'secret'
+        table.getDeobfuscatedName('i', RUN).get() == 'run'
+        table.getDeobfuscatedName('c', RUN).get() == 'run'
+        table.getDeobfuscatedName('d', RUN).get() == 'run'
+        table.getDeobfuscatedName('d', MethodSignature.of('v', '()Lb;')).get() == 'value'
+        !table.getDeobfuscatedName('c', SECRET).isPresent()
+        !table.getDeobfuscatedName('d', MethodSignature.of('m', '(I)V')).isPresent()
+        !table.getDeobfuscatedName('e', RUN).isPresent()
+    }
+
+    def 'methods that do not override are not renamed'() {
+        given:
+        def mappings = new MappingSet()
+        mappings.getOrCreateTopLevelClassMapping('x/a').with {
+            it.getOrCreateMethodMapping(RUN).deobfuscatedName = 'run'
+            it.getOrCreateMethodMapping(SECRET).deobfuscatedName = 'secret'
+        }
+
+        when:
+        // x/b extends x/a, re-declaring p privately - y/c extends x/b, from another package
+        def table = MethodFamilyTable.build(mappings, provider([
+                'x/a': info('x/a', false, 'java/lang/Object', [], [
+                        (RUN): InheritanceType.PACKAGE_PRIVATE,
+                        (SECRET): InheritanceType.PUBLIC
+                ]),
+                'x/b': info('x/b', false, 'x/a', [], [(SECRET): InheritanceType.NONE]),
+                'y/c': info('y/c', false, 'x/b', [], [(RUN): InheritanceType.PACKAGE_PRIVATE]),
+                'y/d': info('y/d', false, 'y/c', [], [:])
+        ]), ['y/d'])
+
+        then:
+        table.getDeobfuscatedName('x/a', SECRET).get() == 'secret'
+        table.getDeobfuscatedName('x/b', RUN).get() == 'run'
+        !table.getDeobfuscatedName('x/b', SECRET).isPresent()
+        !table.getDeobfuscatedName('y/d', SECRET).isPresent()
+        !table.getDeobfuscatedName('y/c', RUN).isPresent()
+        !table.getDeobfuscatedName('y/d', RUN).isPresent()
+    }
+
+    def 'superclasses are searched before interfaces'() {
+        given:
+        def mappings = new MappingSet()
+        mappings.getOrCreateTopLevelClassMapping('i').getOrCreateMethodMapping(RUN).deobfuscatedName = 'run'
+
+        when:
+        // b implements i and extends a, which declares m itself - java/lang/Object has no superclass
+        def table = MethodFamilyTable.build(mappings, provider([
+                'java/lang/Object': info('java/lang/Object', false, null, [], [:]),
+                i: info('i', true, 'java/lang/Object', [], [(RUN): InheritanceType.PUBLIC]),
+                a: info('a', false, 'java/lang/Object', [], [(RUN): InheritanceType.PUBLIC]),
+                b: info('b', false, 'a', ['i'], [:])
+        ]), ['b'])
+
+        then:
+        table.getDeobfuscatedName('i', RUN).get() == 'run'
+        table.getDeobfuscatedName('b', RUN).get() == 'run'
+    }
+
+    static def info(final String name, final boolean isInterface, final String superName, final List<String> interfaces,
+                    final Map<MethodSignature, InheritanceType> methods) {
+        return new InheritanceProvider.ClassInfo.Impl(
+                name, isInterface, superName, interfaces,
+                Collections.emptyMap(), Collections.emptyMap(), methods
+        )
+    }
+
+    static def provider(final Map<String, InheritanceProvider.ClassInfo> classes) {
+        return new InheritanceProvider() {
+            @Override
+            Optional<InheritanceProvider.ClassInfo> provide(final String klass) {
+                return Optional.ofNullable(classes[klass])
+            }
+        }
+    }
+
+}
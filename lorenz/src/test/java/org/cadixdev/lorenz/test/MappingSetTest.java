@@ -19,12 +19,28 @@ package org.cadixdev.lorenz.test;
 import org.cadixdev.bombe.type.ArrayType;
 import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.ObjectType;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.impl.MappingSetModelFactoryImpl;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.lorenz.model.MethodParameterMapping;
 import org.cadixdev.lorenz.model.TopLevelClassMapping;
+import org.cadixdev.lorenz.util.SymbolTable;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class MappingSetTest {
 
@@ -144,6 +160,237 @@ public final class MappingSetTest {
         assertEquals(deobf, mappings.deobfuscate(obf));
     }
 
+    @Test
+    @DisplayName("locate nested inner class")
+    public void locateNestedInnerClass() {
+        final MappingSet mappings = new MappingSet();
+        final ClassMapping<?, ?> inner = mappings.getOrCreateClassMapping("pkg/a$b$c");
+
+        assertSame(inner, mappings.getClassMapping("pkg/a$b$c").orElse(null));
+        assertSame(inner, mappings.getClassMapping("pkg.a$b$c").orElse(null));
+        assertSame(inner, mappings.computeClassMapping("pkg/a$b$c").orElse(null));
+        assertFalse(mappings.getClassMapping("pkg/a$b$d").isPresent());
+
+        mappings.removeClassMapping("pkg/a$b");
+
+        assertFalse(mappings.getClassMapping("pkg/a$b$c").isPresent());
+        assertFalse(mappings.getClassMapping("pkg/a$b").isPresent());
+        assertTrue(mappings.getClassMapping("pkg/a").isPresent());
+    }
+
+    @Test
+    @DisplayName("full names follow renames")
+    public void fullNamesFollowRenames() {
+        final MappingSet mappings = new MappingSet();
+        final TopLevelClassMapping outer = mappings.getOrCreateTopLevelClassMapping("a");
+        final ClassMapping<?, ?> inner = outer.getOrCreateInnerClassMapping("b");
+        final MethodMapping method = inner.getOrCreateMethodMapping("c", "()V");
+
+        assertEquals("a$b/c", method.getFullObfuscatedName());
+        assertEquals("a$b/c", method.getFullDeobfuscatedName());
+
+        outer.setDeobfuscatedName("Outer");
+        assertEquals("Outer$b/c", method.getFullDeobfuscatedName());
+
+        inner.setDeobfuscatedName("Inner");
+        method.setDeobfuscatedName("run");
+        assertEquals("Outer$Inner", inner.getFullDeobfuscatedName());
+        assertEquals("Outer$Inner/run", method.getFullDeobfuscatedName());
+        assertEquals("a$b/c", method.getFullObfuscatedName());
+    }
+
+    @Test
+    @DisplayName("de-obfuscated signatures follow changes")
+    public void deobfSignaturesFollowChanges() {
+        final MappingSet mappings = new MappingSet();
+        final MethodMapping method = mappings.getOrCreateTopLevelClassMapping("a")
+                .getOrCreateMethodMapping("c", "(Lb;Lb$c;)La;");
+
+        assertEquals("(Lb;Lb$c;)La;", method.getDeobfuscatedDescriptor());
+        assertSame(method.getDeobfuscatedSignature(), method.getDeobfuscatedSignature());
+
+        mappings.getOrCreateTopLevelClassMapping("b").setDeobfuscatedName("Demo");
+        assertEquals("(LDemo;LDemo$c;)La;", method.getDeobfuscatedDescriptor());
+
+        mappings.getOrCreateClassMapping("b$c").setDeobfuscatedName("Inner");
+        method.setDeobfuscatedName("run");
+        assertEquals("(LDemo;LDemo$Inner;)La;", method.getDeobfuscatedDescriptor());
+        assertEquals("run", method.getDeobfuscatedSignature().getName());
+
+        mappings.removeClassMapping("b");
+        assertEquals("(Lb;Lb$c;)La;", method.getDeobfuscatedDescriptor());
+    }
+
+    @Test
+    @DisplayName("identity mappings keep the modification epoch")
+    public void identityMappingsKeepEpoch() {
+        final MappingSet mappings = new MappingSet();
+        final long epoch = mappings.getModificationEpoch();
+
+        mappings.getOrCreateClassMapping("java/lang/Object");
+        mappings.getOrCreateClassMapping("a$b");
+        assertEquals(epoch, mappings.getModificationEpoch());
+        assertTrue(mappings.hasTopLevelClassMapping("java.lang.Object"));
+
+        mappings.createTopLevelClassMapping("c", "Demo");
+        assertNotEquals(epoch, mappings.getModificationEpoch());
+    }
+
+    @Test
+    @DisplayName("share names through symbol table")
+    public void shareNamesThroughSymbolTable() {
+        final SymbolTable symbols = new SymbolTable();
+        final MappingSet first = new MappingSet(MappingSetModelFactoryImpl.INSTANCE, symbols);
+        final MappingSet second = new MappingSet(MappingSetModelFactoryImpl.INSTANCE, symbols);
+
+        final MethodMapping firstMethod = first.getOrCreateTopLevelClassMapping(new String("a"))
+                .getOrCreateMethodMapping(new String("b"), "()V")
+                .setDeobfuscatedName(new String("run"));
+        final MethodMapping secondMethod = second.getOrCreateTopLevelClassMapping(new String("a"))
+                .getOrCreateMethodMapping(new String("b"), "()V")
+                .setDeobfuscatedName(new String("run"));
+
+        assertSame(firstMethod.getParent().getObfuscatedName(), secondMethod.getParent().getObfuscatedName());
+        assertSame(firstMethod.getObfuscatedName(), secondMethod.getObfuscatedName());
+        assertSame(firstMethod.getDeobfuscatedName(), secondMethod.getDeobfuscatedName());
+        assertSame(firstMethod.getDescriptor(), secondMethod.getDescriptor());
+        assertSame(symbols, first.copy().getSymbolTable());
+    }
+
+    @Test
+    @DisplayName("locate by de-obfuscated name")
+    public void locateByDeobfName() {
+        final MappingSet mappings = new MappingSet();
+        final TopLevelClassMapping outer = mappings.getOrCreateTopLevelClassMapping("pkg/a")
+                .setDeobfuscatedName("pkg/Outer");
+        final ClassMapping<?, ?> inner = outer.getOrCreateInnerClassMapping("b");
+        final MethodMapping method = inner.getOrCreateMethodMapping("c", "(Lpkg/a;)V");
+
+        assertSame(inner, mappings.getClassMappingByDeobfuscatedName("pkg/Outer$b").orElse(null));
+        assertSame(inner, mappings.getClassMappingByDeobfuscatedName("pkg.Outer$b").orElse(null));
+        assertSame(method, inner.getMethodMappingByDeobfuscatedSignature(
+                new MethodSignature("c", MethodDescriptor.of("(Lpkg/Outer;)V"))).orElse(null));
+
+        outer.setDeobfuscatedName("pkg/Renamed");
+        inner.setDeobfuscatedName("Inner");
+        method.setDeobfuscatedName("run");
+        final FieldMapping field = inner.getOrCreateFieldMapping("d").setDeobfuscatedName("value");
+
+        assertFalse(mappings.getClassMappingByDeobfuscatedName("pkg/Outer$b").isPresent());
+        assertSame(outer, mappings.getClassMappingByDeobfuscatedName("pkg/Renamed").orElse(null));
+        assertSame(inner, mappings.getClassMappingByDeobfuscatedName("pkg/Renamed$Inner").orElse(null));
+        assertFalse(inner.getMethodMappingByDeobfuscatedSignature(
+                new MethodSignature("c", MethodDescriptor.of("(Lpkg/Renamed;)V"))).isPresent());
+        assertSame(method, inner.getMethodMappingByDeobfuscatedSignature(
+                new MethodSignature("run", MethodDescriptor.of("(Lpkg/Renamed;)V"))).orElse(null));
+        assertSame(field, inner.getFieldMappingByDeobfuscatedSignature(new FieldSignature("value")).orElse(null));
+
+        inner.removeMethodMapping(method);
+        mappings.removeClassMapping("pkg/a");
+
+        assertFalse(inner.getMethodMappingByDeobfuscatedSignature(
+                new MethodSignature("run", MethodDescriptor.of("(Lpkg/Renamed;)V"))).isPresent());
+        assertFalse(mappings.getClassMappingByDeobfuscatedName("pkg/Renamed$Inner").isPresent());
+    }
+
+    @Test
+    @DisplayName("store parameters by index")
+    public void storeParametersByIndex() {
+        final MethodMapping method = new MappingSet().getOrCreateTopLevelClassMapping("a")
+                .getOrCreateMethodMapping("b", "(JI)V");
+
+        assertTrue(method.getParameterMappings().isEmpty());
+        assertFalse(method.getParameterMapping(0).isPresent());
+
+        // Indices may be local variable slots, beyond the parameter count
+        final MethodParameterMapping third = method.createParameterMapping(3, "count");
+        final MethodParameterMapping first = method.createParameterMapping(1, "time");
+
+        assertSame(first, method.getParameterMapping(1).orElse(null));
+        assertSame(third, method.createParameterMapping(3, "size"));
+        assertEquals("size", third.getDeobfuscatedName());
+        assertFalse(method.hasParameterMapping(2));
+        assertFalse(method.hasParameterMapping(-1));
+        assertEquals(Arrays.asList(first, third), new ArrayList<>(method.getParameterMappings()));
+    }
+
+    @Test
+    @DisplayName("ingest mappings in bulk")
+    public void ingestInBulk() {
+        final MappingSet mappings = new MappingSet();
+        mappings.beginIngestion();
+        mappings.beginIngestion();
+        final ClassMapping<?, ?> inner = mappings.getOrCreateClassMapping("a$b");
+        for (int i = 0; i < 16; i++) {
+            inner.getOrCreateFieldMapping("f" + i).setDeobfuscatedName("field" + i);
+        }
+        final MethodMapping method = inner.getOrCreateMethodMapping("c", "()V");
+        mappings.endIngestion();
+        assertTrue(mappings.isIngesting());
+        mappings.endIngestion();
+
+        assertFalse(mappings.isIngesting());
+        assertThrows(IllegalStateException.class, mappings::endIngestion);
+        assertSame(inner, mappings.getOrCreateClassMapping("a$b"));
+        assertSame(method, inner.getOrCreateMethodMapping("c", "()V"));
+        assertEquals(16, inner.getFieldMappings().size());
+        assertEquals("field7", inner.getOrCreateFieldMapping("f7").getDeobfuscatedName());
+
+        // The published containers remain writable
+        inner.getOrCreateFieldMapping("g");
+        assertEquals(17, inner.getFieldsByName().size());
+    }
+
+    @Test
+    @DisplayName("look up members by raw strings")
+    public void lookUpMembersByRawStrings() {
+        final MappingSet mappings = new MappingSet();
+        final TopLevelClassMapping klass = mappings.getOrCreateTopLevelClassMapping("a");
+        final FieldMapping typed = klass.createFieldMapping(FieldSignature.of("b", "I"), "count");
+        final FieldMapping untyped = klass.createFieldMapping(new FieldSignature("c"), "name");
+        final MethodMapping method = klass.createMethodMapping(MethodSignature.of("d", "(I)La;"), "get");
+
+        assertSame(typed, klass.getFieldMapping("b", "I").get());
+        assertFalse(klass.getFieldMapping("b", "J").isPresent());
+        assertSame(untyped, klass.getFieldMapping("c", "Ljava/lang/String;").get());
+        assertSame(method, klass.getMethodMapping("d", "(I)La;").get());
+        assertFalse(klass.getMethodMapping("d", "(J)La;").isPresent());
+
+        // The index follows members as they are added, and removed
+        final MethodMapping added = klass.createMethodMapping(MethodSignature.of("d", "(J)La;"), "getLong");
+        assertSame(added, klass.getMethodMapping("d", "(J)La;").get());
+        klass.removeMethodMapping(added);
+        assertFalse(klass.getMethodMapping("d", "(J)La;").isPresent());
+        assertEquals(2, klass.getFieldMappings().size());
+    }
+
+    @Test
+    @DisplayName("compare members regardless of order")
+    public void compareMembersRegardlessOfOrder() {
+        final TopLevelClassMapping first = new MappingSet().getOrCreateTopLevelClassMapping("a");
+        first.createFieldMapping(new FieldSignature("b"), "count");
+        first.createFieldMapping(new FieldSignature("c"), "name");
+        first.createMethodMapping(MethodSignature.of("d", "()V"), "run");
+        first.createInnerClassMapping("e", "Inner");
+        first.createInnerClassMapping("f", "Other");
+
+        final TopLevelClassMapping second = new MappingSet().getOrCreateTopLevelClassMapping("a");
+        second.createInnerClassMapping("f", "Other");
+        second.createInnerClassMapping("e", "Inner");
+        second.createMethodMapping(MethodSignature.of("d", "()V"), "run");
+        second.createFieldMapping(new FieldSignature("c"), "name");
+        second.createFieldMapping(new FieldSignature("b"), "count");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        final ClassMapping<?, ?> frozen = second.getMappings().freeze().getTopLevelClassMapping("a").get();
+        assertEquals(first, frozen);
+        assertEquals(first.hashCode(), frozen.hashCode());
+
+        second.getFieldMapping("c").get().setDeobfuscatedName("label");
+        assertNotEquals(first, second);
+    }
+
     private static MappingSet mappings() {
         final MappingSet mappings = new MappingSet();
 
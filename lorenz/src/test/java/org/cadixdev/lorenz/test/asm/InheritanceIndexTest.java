@@ -0,0 +1,114 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.test.asm;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.InheritanceType;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.asm.InheritanceIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InheritanceIndexTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void indexesClasses() throws IOException {
+        final Path jar = jar("first.jar", "test/inheritance/TestClass", "test/inheritance/a/PublicBaseClass");
+        final InheritanceIndex index = InheritanceIndex.build(Collections.singletonList(jar));
+
+        assertEquals(2, index.size());
+        assertFalse(index.provide("test/inheritance/a/BaseClass").isPresent());
+
+        final InheritanceProvider.ClassInfo info = index.provide("test/inheritance/TestClass").get();
+        assertEquals("test/inheritance/a/PublicBaseClass", info.getSuperName());
+        assertFalse(info.isInterface());
+        assertEquals(InheritanceType.PUBLIC, info.getMethod(MethodSignature.of("helloWorld()V")));
+        assertTrue(info.hasParent("test/inheritance/a/PublicBaseClass", index));
+    }
+
+    @Test
+    public void reusesIndexFile() throws IOException {
+        final List<Path> jars = Arrays.asList(
+                jar("first.jar", "test/inheritance/TestClass"),
+                jar("second.jar", "test/inheritance/a/PublicBaseClass", "test/inheritance/a/BaseClass")
+        );
+        final Path file = temp.resolve("inheritance.idx");
+
+        final InheritanceIndex built = InheritanceIndex.open(jars, file);
+        assertTrue(Files.exists(file));
+        try (final Stream<Path> files = Files.list(temp)) {
+            // The temporary file the index is written to is moved into place
+            assertFalse(files.anyMatch(path -> path.toString().endsWith(".tmp")));
+        }
+
+        final InheritanceIndex read = InheritanceIndex.open(jars, file);
+        assertEquals(built.getJarHashes(), read.getJarHashes());
+        assertEquals(3, read.size());
+        final InheritanceProvider.ClassInfo info = read.provide("test/inheritance/a/BaseClass").get();
+        assertEquals(InheritanceType.PACKAGE_PRIVATE, info.getMethod(MethodSignature.of("helloWorld()V")));
+
+        // Changing a jar invalidates the index
+        jar("first.jar", "test/inheritance/TestClass", "test/inheritance/a/PublicBaseClass");
+        final InheritanceIndex rebuilt = InheritanceIndex.open(jars, file);
+        assertNotEquals(built.getJarHashes(), rebuilt.getJarHashes());
+        assertEquals(InheritanceIndex.read(file).getJarHashes(), rebuilt.getJarHashes());
+    }
+
+    private Path jar(final String name, final String... classes) throws IOException {
+        final Path jar = temp.resolve(name);
+        try (final JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (final String klass : classes) {
+                out.putNextEntry(new JarEntry(klass + ".class"));
+                try (final InputStream in = getClass().getResourceAsStream("/" + klass + ".class")) {
+                    copy(in, out);
+                }
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void copy(final InputStream in, final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+}
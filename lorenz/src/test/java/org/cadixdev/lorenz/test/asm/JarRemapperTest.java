@@ -0,0 +1,375 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.test.asm;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.asm.ClassReferences;
+import org.cadixdev.lorenz.asm.InheritanceIndex;
+import org.cadixdev.lorenz.asm.JarRemapper;
+import org.cadixdev.lorenz.asm.RemapTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JarRemapperTest {
+
+    private static final byte[] RESOURCE = "Hello, world!".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void remapsJar() throws IOException {
+        final Path input = jar();
+        final InheritanceIndex index = InheritanceIndex.build(Collections.singletonList(input));
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .setDeobfuscatedName("test/inheritance/Base")
+                .createMethodMapping(MethodSignature.of("helloWorld()V"), "bye");
+        final JarRemapper remapper = new JarRemapper(
+                RemapTable.build(mappings, index, Arrays.asList("test/inheritance/TestClass", "test/inheritance/a/PublicBaseClass"))
+        );
+
+        final Path first = temp.resolve("first-out.jar");
+        final Path second = temp.resolve("second-out.jar");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            remapper.remap(input, first, executor);
+            remapper.remap(input, second, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        // The output doesn't depend on scheduling
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+
+        try (final ZipFile jar = new ZipFile(first.toFile())) {
+            final ClassNode node = new ClassNode();
+            try (final InputStream in = jar.getInputStream(jar.getEntry("test/inheritance/TestClass.class"))) {
+                new ClassReader(in).accept(node, 0);
+            }
+            assertEquals("test/inheritance/Base", node.superName);
+            assertEquals("bye", node.methods.get(1).name);
+            assertNotNull(jar.getEntry("test/inheritance/Base.class"));
+
+            final ZipEntry resource = jar.getEntry("resource.txt");
+            assertEquals(ZipEntry.STORED, resource.getMethod());
+            assertEquals(new GregorianCalendar(1980, Calendar.FEBRUARY, 1).getTimeInMillis(), resource.getTime());
+            final byte[] contents = new byte[RESOURCE.length];
+            try (final InputStream in = jar.getInputStream(resource)) {
+                assertEquals(RESOURCE.length, in.read(contents));
+            }
+            assertArrayEquals(RESOURCE, contents);
+        }
+    }
+
+    @Test
+    public void copiesUnmappedClasses() throws IOException {
+        final Path input = jar();
+        final Path output = temp.resolve("output.jar");
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/TestClass")
+                .setDeobfuscatedName("test/inheritance/Demo");
+        new JarRemapper(RemapTable.build(mappings, InheritanceIndex.build(Collections.singletonList(input)))).remap(input, output);
+
+        try (final ZipFile jar = new ZipFile(output.toFile())) {
+            assertNotNull(jar.getEntry("test/inheritance/Demo.class"));
+
+            // The base class refers to nothing that is remapped, so is copied byte for byte
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (final InputStream in = getClass().getResourceAsStream("/test/inheritance/a/PublicBaseClass.class")) {
+                copy(in, expected);
+            }
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            try (final InputStream in = jar.getInputStream(jar.getEntry("test/inheritance/a/PublicBaseClass.class"))) {
+                copy(in, actual);
+            }
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    @Test
+    public void keepsEntryDirectories() throws IOException {
+        final Path input = temp.resolve("input.jar");
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(input))) {
+            for (final String prefix : Arrays.asList("", "META-INF/versions/9/")) {
+                out.putNextEntry(new ZipEntry(prefix + "test/inheritance/a/PublicBaseClass.class"));
+                try (final InputStream in = getClass().getResourceAsStream("/test/inheritance/a/PublicBaseClass.class")) {
+                    copy(in, out);
+                }
+                out.closeEntry();
+            }
+        }
+        final Path output = temp.resolve("output.jar");
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .setDeobfuscatedName("test/inheritance/a/Base");
+        new JarRemapper(RemapTable.build(mappings, InheritanceIndex.build(Collections.singletonList(input)))).remap(input, output);
+
+        try (final ZipFile jar = new ZipFile(output.toFile())) {
+            assertNotNull(jar.getEntry("test/inheritance/a/Base.class"));
+            assertNotNull(jar.getEntry("META-INF/versions/9/test/inheritance/a/Base.class"));
+            assertEquals(2, jar.size());
+        }
+    }
+
+    @Test
+    public void dropsSignatureFiles() throws IOException {
+        final Path input = temp.resolve("input.jar");
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(input))) {
+            for (final String name : Arrays.asList("META-INF/MANIFEST.MF", "META-INF/SIGNER.SF", "META-INF/SIGNER.RSA",
+                    "META-INF/SIG-SIGNER", "META-INF/services/test.SF")) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write(RESOURCE);
+                out.closeEntry();
+            }
+        }
+        final Path output = temp.resolve("output.jar");
+        new JarRemapper(RemapTable.build(new MappingSet(), InheritanceIndex.build(Collections.singletonList(input)))).remap(input, output);
+
+        try (final ZipFile jar = new ZipFile(output.toFile())) {
+            assertNotNull(jar.getEntry("META-INF/MANIFEST.MF"));
+            assertNotNull(jar.getEntry("META-INF/services/test.SF"));
+            assertEquals(2, jar.size());
+        }
+    }
+
+    @Test
+    public void rejectsDuplicateEntries() throws IOException {
+        final Path input = jar();
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/TestClass")
+                .setDeobfuscatedName("test/inheritance/a/PublicBaseClass");
+        final JarRemapper remapper = new JarRemapper(
+                RemapTable.build(mappings, InheritanceIndex.build(Collections.singletonList(input)))
+        );
+
+        final IOException ex = assertThrows(IOException.class, () -> remapper.remap(input, temp.resolve("output.jar")));
+        assertTrue(ex.getMessage().contains("test/inheritance/a/PublicBaseClass.class"));
+    }
+
+    @Test
+    public void renamesClassesInConstantPool() throws IOException {
+        final Path input = jar();
+        final Path output = temp.resolve("output.jar");
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .setDeobfuscatedName("test/inheritance/a/Base");
+        new JarRemapper(RemapTable.build(mappings, InheritanceIndex.build(Collections.singletonList(input)))).remap(input, output);
+
+        final byte[] original;
+        try (final InputStream in = getClass().getResourceAsStream("/test/inheritance/TestClass.class")) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            copy(in, out);
+            original = out.toByteArray();
+        }
+        final byte[] remapped;
+        try (final ZipFile jar = new ZipFile(output.toFile());
+             final InputStream in = jar.getInputStream(jar.getEntry("test/inheritance/TestClass.class"))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            copy(in, out);
+            remapped = out.toByteArray();
+        }
+
+        final ClassNode node = new ClassNode();
+        new ClassReader(remapped).accept(node, 0);
+        assertEquals("test/inheritance/a/Base", node.superName);
+        final MethodInsnNode superCall = (MethodInsnNode) Arrays.stream(node.methods.get(0).instructions.toArray())
+                .filter(insn -> insn instanceof MethodInsnNode)
+                .findFirst().get();
+        assertEquals("test/inheritance/a/Base", superCall.owner);
+
+        // Only the constant pool is rewritten
+        final ClassReader originalReader = new ClassReader(original);
+        final ClassReader remappedReader = new ClassReader(remapped);
+        assertEquals(originalReader.getItemCount(), remappedReader.getItemCount());
+        assertArrayEquals(
+                Arrays.copyOfRange(original, originalReader.header, original.length),
+                Arrays.copyOfRange(remapped, remappedReader.header, remapped.length)
+        );
+    }
+
+    @Test
+    public void keepsStringsSharingClassNames() throws IOException {
+        // The string constant shares its constant with the class name, so the class is remapped with ASM
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "test/Strings", null, "java/lang/Object", null);
+        final MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "name", "()Ljava/lang/Object;", null, null);
+        method.visitCode();
+        method.visitLdcInsn("test/inheritance/a/PublicBaseClass");
+        method.visitTypeInsn(Opcodes.CHECKCAST, "test/inheritance/a/PublicBaseClass");
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+
+        final Path input = temp.resolve("strings.jar");
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(input))) {
+            out.putNextEntry(new ZipEntry("test/Strings.class"));
+            out.write(writer.toByteArray());
+            out.closeEntry();
+        }
+        final Path output = temp.resolve("output.jar");
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .setDeobfuscatedName("test/inheritance/a/Base");
+        new JarRemapper(RemapTable.build(mappings, InheritanceIndex.build(Collections.singletonList(input)))).remap(input, output);
+
+        final ClassNode node = new ClassNode();
+        try (final ZipFile jar = new ZipFile(output.toFile());
+             final InputStream in = jar.getInputStream(jar.getEntry("test/Strings.class"))) {
+            new ClassReader(in).accept(node, 0);
+        }
+        final InsnList instructions = node.methods.get(0).instructions;
+        assertEquals("test/inheritance/a/PublicBaseClass", ((LdcInsnNode) instructions.get(0)).cst);
+        assertEquals("test/inheritance/a/Base", ((TypeInsnNode) instructions.get(1)).desc);
+    }
+
+    @Test
+    public void reusesCachedClasses() throws IOException {
+        final Path input = jar();
+        final Path cache = temp.resolve("cache");
+        final Path output = temp.resolve("output.jar");
+        final InheritanceIndex index = InheritanceIndex.build(Collections.singletonList(input));
+        final List<String> classes = Arrays.asList("test/inheritance/TestClass", "test/inheritance/a/PublicBaseClass");
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .createMethodMapping(MethodSignature.of("helloWorld()V"), "bye");
+
+        new JarRemapper(RemapTable.build(mappings, index, classes), cache).remap(input, output);
+        final List<Path> entries = list(cache);
+        assertEquals(2, entries.size());
+
+        // Mark the cached classes, so they can be told apart from remapped classes
+        for (int i = 0; i < entries.size(); i++) {
+            try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(entries.get(i)))) {
+                out.writeUTF("cached" + i);
+                out.writeInt(0);
+            }
+        }
+        new JarRemapper(RemapTable.build(mappings, index, classes), cache).remap(input, output);
+        try (final ZipFile jar = new ZipFile(output.toFile())) {
+            assertNotNull(jar.getEntry("cached0.class"));
+            assertNotNull(jar.getEntry("cached1.class"));
+        }
+
+        // Changing the mappings of the classes invalidates them
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .getOrCreateMethodMapping(MethodSignature.of("helloWorld()V"))
+                .setDeobfuscatedName("hello");
+        new JarRemapper(RemapTable.build(mappings, index, classes), cache).remap(input, output);
+        try (final ZipFile jar = new ZipFile(output.toFile())) {
+            assertNotNull(jar.getEntry("test/inheritance/TestClass.class"));
+        }
+        assertEquals(2, list(cache).size());
+        assertTrue(Collections.disjoint(entries, list(cache)));
+    }
+
+    @Test
+    public void scansReferences() throws IOException {
+        final byte[] klass;
+        try (final InputStream in = getClass().getResourceAsStream("/test/inheritance/TestClass.class")) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            copy(in, out);
+            klass = out.toByteArray();
+        }
+
+        final ClassReferences references = ClassReferences.scan(klass);
+        assertEquals("test/inheritance/TestClass", references.getClassName());
+        assertTrue(references.getClasses().contains("test/inheritance/a/PublicBaseClass"));
+        assertTrue(references.getMethods().stream().anyMatch(method ->
+                method.getOwner().equals("test/inheritance/TestClass") && method.getName().equals("helloWorld") &&
+                        method.getDescriptor().equals("()V")));
+    }
+
+    private static List<Path> list(final Path directory) throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private Path jar() throws IOException {
+        final Path jar = temp.resolve("input.jar");
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            for (final String klass : Arrays.asList("test/inheritance/TestClass", "test/inheritance/a/PublicBaseClass")) {
+                out.putNextEntry(new ZipEntry(klass + ".class"));
+                try (final InputStream in = getClass().getResourceAsStream("/" + klass + ".class")) {
+                    copy(in, out);
+                }
+                out.closeEntry();
+            }
+
+            final ZipEntry resource = new ZipEntry("resource.txt");
+            final CRC32 crc = new CRC32();
+            crc.update(RESOURCE);
+            resource.setMethod(ZipEntry.STORED);
+            resource.setSize(RESOURCE.length);
+            resource.setCrc(crc.getValue());
+            out.putNextEntry(resource);
+            out.write(RESOURCE);
+            out.closeEntry();
+        }
+        return jar;
+    }
+
+    private static void copy(final InputStream in, final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import org.cadixdev.bombe.analysis.ReflectionInheritanceProvider;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.cadixdev.lorenz.MappingSet;
 import org.cadixdev.lorenz.asm.LorenzRemapper;
+import org.cadixdev.lorenz.asm.RemapTable;
 import org.cadixdev.lorenz.model.TopLevelClassMapping;
 import org.junit.jupiter.api.Test;
 import org.objectweb.asm.ClassReader;
@@ -28,8 +29,10 @@ import org.objectweb.asm.commons.ClassRemapper;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.io.IOException;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class LorenzRemapperInheritanceTest {
 
@@ -51,4 +54,22 @@ public class LorenzRemapperInheritanceTest {
         assertEquals("bye", node.methods.get(1).name);
     }
 
+    @Test
+    public void testRemapTableResolvesInheritedMethodsWithoutModifyingMappings() throws IOException {
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/BaseClass")
+                .createMethodMapping(MethodSignature.of("helloWorld()V"), "bye");
+        final LorenzRemapper remapper = new LorenzRemapper(
+                RemapTable.build(mappings, INHERITANCE, Collections.singletonList("test/inheritance/TestClass"))
+        );
+
+        ClassReader reader = new ClassReader("test.inheritance.TestClass");
+        ClassNode node = new ClassNode();
+        reader.accept(new ClassRemapper(node, remapper), 0);
+
+        assertEquals("bye", node.methods.get(1).name);
+        assertFalse(mappings.getClassMapping("test/inheritance/TestClass").isPresent());
+        assertEquals(1, mappings.getTopLevelClassMappings().size());
+    }
+
 }
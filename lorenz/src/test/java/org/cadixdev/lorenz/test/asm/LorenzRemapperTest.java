@@ -18,8 +18,12 @@ package org.cadixdev.lorenz.test.asm;
 
 import org.cadixdev.bombe.analysis.CompositeInheritanceProvider;
 import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.InheritanceType;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.cadixdev.lorenz.MappingSet;
 import org.cadixdev.lorenz.asm.LorenzRemapper;
+import org.cadixdev.lorenz.asm.RemapperMetrics;
 import org.cadixdev.lorenz.model.InnerClassMapping;
 import org.cadixdev.lorenz.model.TopLevelClassMapping;
 import org.junit.jupiter.api.Test;
@@ -27,6 +31,11 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.commons.ClassRemapper;
 import org.objectweb.asm.tree.ClassNode;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
@@ -132,4 +141,84 @@ public final class LorenzRemapperTest {
         assertEquals("getName", node.methods.get(0).name);
     }
 
+    @Test
+    public void cachedDescriptorsFollowRenames() {
+        final MappingSet mappings = new MappingSet();
+        final TopLevelClassMapping klass = mappings.getOrCreateTopLevelClassMapping("ght");
+        klass.setDeobfuscatedName("Demo");
+        final LorenzRemapper remapper = new LorenzRemapper(mappings, INHERITANCE);
+
+        assertEquals("(LDemo;)LDemo;", remapper.mapMethodDesc("(Lght;)Lght;"));
+        assertEquals("Ljava/util/List<LDemo;>;", remapper.mapSignature("Ljava/util/List<Lght;>;", true));
+
+        klass.setDeobfuscatedName("Example");
+        assertEquals("(LExample;)LExample;", remapper.mapMethodDesc("(Lght;)Lght;"));
+        assertEquals("LExample;", remapper.mapDesc("Lght;"));
+    }
+
+    @Test
+    public void remapsFrozenMappings() {
+        final LorenzRemapper remapper = new LorenzRemapper(MAPPINGS.freeze(), INHERITANCE);
+
+        assertEquals("Demo$Inner", remapper.map("ght$hy"));
+        assertEquals("run", remapper.mapMethodName("ght", "trp", "()V"));
+        assertEquals("name", remapper.mapFieldName("ght$hy", "rt", "Ljava/lang/String;"));
+        assertEquals("toString", remapper.mapMethodName("java/lang/Object", "toString", "()Ljava/lang/String;"));
+        assertEquals("value", remapper.mapFieldName("ght$zz", "value", "I"));
+    }
+
+    @Test
+    public void remapsInheritedMembersOfFrozenMappings() {
+        final MappingSet mappings = new MappingSet();
+        final TopLevelClassMapping parent = mappings.getOrCreateTopLevelClassMapping("p");
+        parent.getOrCreateFieldMapping("f").setDeobfuscatedName("field");
+        parent.getOrCreateMethodMapping("m", "()Lp;").setDeobfuscatedName("method");
+
+        // c extends p, without mappings of its own - overriding the return type of m
+        final Map<String, InheritanceProvider.ClassInfo> classes = new HashMap<>();
+        classes.put("p", new InheritanceProvider.ClassInfo.Impl("p", false, "java/lang/Object", Collections.emptyList(),
+                Collections.singletonMap(FieldSignature.of("f", "I"), InheritanceType.PUBLIC),
+                Collections.singletonMap("f", InheritanceType.PUBLIC),
+                Collections.singletonMap(MethodSignature.of("m", "()Lp;"), InheritanceType.PUBLIC)));
+        classes.put("c", new InheritanceProvider.ClassInfo.Impl("c", false, "p", Collections.emptyList(),
+                Collections.emptyMap(), Collections.emptyMap(),
+                Collections.singletonMap(MethodSignature.of("m", "()Lc;"), InheritanceType.PUBLIC)));
+        final LorenzRemapper remapper = new LorenzRemapper(mappings.freeze(), klass -> Optional.ofNullable(classes.get(klass)));
+
+        assertEquals("field", remapper.mapFieldName("c", "f", "I"));
+        assertEquals("method", remapper.mapMethodName("c", "m", "()Lp;"));
+        assertEquals("method", remapper.mapMethodName("c", "m", "()Lc;"));
+        assertEquals("other", remapper.mapMethodName("c", "other", "()V"));
+    }
+
+    @Test
+    public void recordsMetrics() {
+        final MappingSet mappings = new MappingSet();
+        final TopLevelClassMapping klass = mappings.getOrCreateTopLevelClassMapping("ght")
+                .setDeobfuscatedName("Demo");
+        klass.getOrCreateMethodMapping("trp", "()V")
+                .setDeobfuscatedName("run");
+        // Mappings that keep the obfuscated name are still found
+        klass.getOrCreateMethodMapping("iu", "()V");
+        final LorenzRemapper remapper = new LorenzRemapper(mappings, INHERITANCE);
+        final RemapperMetrics metrics = new RemapperMetrics(true);
+        remapper.setMetrics(metrics);
+
+        remapper.map("ght");
+        remapper.map("uyt");
+        remapper.mapMethodName("ght", "trp", "()V");
+        remapper.mapMethodName("ght", "trp", "(I)V");
+        remapper.mapMethodName("ght", "iu", "()V");
+
+        final RemapperMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getCalls(RemapperMetrics.Operation.CLASS));
+        assertEquals(1, snapshot.getMisses(RemapperMetrics.Operation.CLASS));
+        assertEquals(2, snapshot.getHits(RemapperMetrics.Operation.METHOD));
+        assertEquals(1, snapshot.getMisses(RemapperMetrics.Operation.METHOD));
+        assertEquals(3, snapshot.getCalls(RemapperMetrics.Operation.COMPLETE));
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getCalls(RemapperMetrics.Operation.CLASS));
+    }
+
 }
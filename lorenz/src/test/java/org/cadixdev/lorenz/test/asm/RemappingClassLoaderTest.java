@@ -0,0 +1,118 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.test.asm;
+
+import org.cadixdev.bombe.analysis.CompositeInheritanceProvider;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.asm.RemapTable;
+import org.cadixdev.lorenz.asm.RemappingClassLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RemappingClassLoaderTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void loadsRemappedClasses() throws Exception {
+        final RemappingClassLoader loader = new RemappingClassLoader(
+                table(mappings()), getClass().getClassLoader(), null
+        );
+
+        final Class<?> base = Class.forName("test.inheritance.a.Base", false, loader);
+        assertEquals("test.inheritance.a.Base", base.getName());
+        assertSame(loader, base.getClassLoader());
+        assertEquals("test.inheritance.a.BaseClass", base.getSuperclass().getName());
+
+        // Loading either name directly gives the remapped class
+        assertSame(base, loader.loadClass("test.inheritance.TestClass").getSuperclass());
+        assertSame(base, loader.loadClass("test.inheritance.a.PublicBaseClass"));
+        assertThrows(ClassNotFoundException.class, () -> loader.loadClass("test.inheritance.Missing"));
+    }
+
+    @Test
+    public void resolvesObfuscatedNamesWithoutReading() throws Exception {
+        final List<String> read = new ArrayList<>();
+        final ClassLoader source = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public InputStream getResourceAsStream(final String name) {
+                read.add(name);
+                return super.getResourceAsStream(name);
+            }
+        };
+        final RemappingClassLoader loader = new RemappingClassLoader(table(mappings()), source, null);
+
+        final Class<?> base = loader.loadClass("test.inheritance.a.PublicBaseClass");
+        assertEquals("test.inheritance.a.Base", base.getName());
+        assertEquals(1, read.stream().filter("test/inheritance/a/PublicBaseClass.class"::equals).count());
+    }
+
+    @Test
+    public void cachesRemappedClasses() throws Exception {
+        final Path cache = temp.resolve("cache");
+        final MappingSet mappings = mappings();
+        // Renaming a member requires the class to be remapped with ASM, and cached
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .createMethodMapping(MethodSignature.of("helloWorld()V"), "bye");
+        final RemapTable table = table(mappings);
+
+        final Class<?> first = new RemappingClassLoader(table, getClass().getClassLoader(), null, cache)
+                .loadClass("test.inheritance.a.Base");
+        // The superclass refers to nothing that is remapped, so isn't cached
+        assertEquals(1, count(cache));
+
+        final Class<?> second = new RemappingClassLoader(table, getClass().getClassLoader(), null, cache)
+                .loadClass("test.inheritance.a.Base");
+        assertEquals(first.getName(), second.getName());
+        assertEquals(1, count(cache));
+    }
+
+    private static MappingSet mappings() {
+        final MappingSet mappings = new MappingSet();
+        mappings.getOrCreateTopLevelClassMapping("test/inheritance/a/PublicBaseClass")
+                .setDeobfuscatedName("test/inheritance/a/Base");
+        return mappings;
+    }
+
+    private static RemapTable table(final MappingSet mappings) {
+        return RemapTable.build(mappings, new CompositeInheritanceProvider(),
+                Arrays.asList("test/inheritance/TestClass", "test/inheritance/a/PublicBaseClass"));
+    }
+
+    private static long count(final Path directory) throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+}
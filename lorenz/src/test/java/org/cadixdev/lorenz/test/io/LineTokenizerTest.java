@@ -0,0 +1,84 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+
+package org.cadixdev.lorenz.test.io;
+
+import org.cadixdev.lorenz.io.LineTokenizer;
+import org.cadixdev.lorenz.util.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LineTokenizerTest {
+
+    @Test
+    public void readsLines() throws IOException {
+        final StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            longLine.append("ab");
+        }
+        final LineTokenizer tokenizer = new LineTokenizer(
+                new StringReader("first\r\nsecond\rthird\n\n" + longLine + "\nlast"), ' '
+        );
+
+        for (final String expected : new String[] { "first", "second", "third", "", longLine.toString(), "last" }) {
+            assertTrue(tokenizer.nextLine());
+            assertEquals(expected, tokenizer.toString());
+        }
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    public void readsFields() {
+        final LineTokenizer line = LineTokenizer.of("\t\tMD: a/b/c  (I)V d/e/f # comment ", ' ');
+        assertEquals(2, line.skipIndent());
+        line.stripComment('#');
+        line.trim();
+        assertEquals(5, line.countFields());
+
+        assertFalse(line.skip("FD:"));
+        assertTrue(line.skip("MD:"));
+        final SymbolTable symbols = new SymbolTable();
+        final String owner = symbols.intern("a/b");
+        assertSame(owner, line.nextBeforeLast('/', symbols));
+        assertEquals("c", line.next(symbols));
+        assertEquals("", line.next());
+        assertEquals("(I)V", line.next());
+        line.skipBeforeLast('/');
+        assertEquals("f", line.next());
+        assertThrows(IllegalArgumentException.class, line::next);
+
+        line.seek(3);
+        assertEquals("(I)V d/e/f", line.rest());
+    }
+
+    @Test
+    public void countsFieldsAsSplit() {
+        for (final String value : new String[] { "", "a", "a\t", "a\t\tb", "\ta\t\t", "\t\t" }) {
+            final LineTokenizer line = LineTokenizer.of(value, '\t');
+            assertEquals(value.split("\t").length, line.countFields(), value);
+        }
+    }
+
+}
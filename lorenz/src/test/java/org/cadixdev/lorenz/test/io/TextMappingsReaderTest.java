@@ -0,0 +1,74 @@
+/*
+ * This file is part of Lorenz, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>, Bleach <https://bleach.dev/> and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ */
+
+package org.cadixdev.lorenz.test.io;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.TextMappingsReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TextMappingsReaderTest {
+
+    @Test
+    public void ingestsOwnMappings() throws IOException {
+        final TestReader reader = new TestReader("a A\nb B");
+        final MappingSet mappings = reader.read();
+
+        assertEquals(2, reader.ingesting.size());
+        assertTrue(reader.ingesting.stream().allMatch(Boolean::booleanValue));
+        assertFalse(mappings.isIngesting());
+        assertEquals("B", mappings.getOrCreateClassMapping("b").getDeobfuscatedName());
+    }
+
+    @Test
+    public void leavesGivenMappingsAlone() throws IOException {
+        // The given mapping set may be shared, so mustn't be switched to a single writer
+        final MappingSet mappings = new MappingSet();
+        final TestReader reader = new TestReader("a A");
+        reader.read(mappings);
+
+        assertEquals(1, reader.ingesting.size());
+        assertFalse(reader.ingesting.get(0));
+        assertEquals("A", mappings.getOrCreateClassMapping("a").getDeobfuscatedName());
+    }
+
+    private static final class TestReader extends TextMappingsReader {
+
+        private final List<Boolean> ingesting = new ArrayList<>();
+
+        TestReader(final String contents) {
+            super(new StringReader(contents));
+        }
+
+        @Override
+        protected void readLine(final MappingSet mappings, final String line) {
+            ingesting.add(mappings.isIngesting());
+            final String[] split = line.split(" ");
+            mappings.getOrCreateClassMapping(split[0]).setDeobfuscatedName(split[1]);
+        }
+
+    }
+
+}
@@ -4,6 +4,7 @@ rootProject.name = projectName
 include(
     "lorenz",
     "lorenz-dsl-groovy",
+    "lorenz-io-binary",
     "lorenz-io-enigma",
     "lorenz-io-jam",
     "lorenz-io-proguard",